@@ -0,0 +1,93 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares copying a bean with a mix of primitive and reference properties
+ * through a {@link BeanCopier} and with hand-written getter and setter calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+
+    public static class Bean {
+
+        private String name = "bean";
+        private int count = 42;
+        private long created = 1000L;
+        private double ratio = 0.5d;
+        private boolean active = true;
+        private Integer price = 20;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getCount() { return count; }
+        public void setCount(int count) { this.count = count; }
+        public long getCreated() { return created; }
+        public void setCreated(long created) { this.created = created; }
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+        public boolean isActive() { return active; }
+        public void setActive(boolean active) { this.active = active; }
+        public Integer getPrice() { return price; }
+        public void setPrice(Integer price) { this.price = price; }
+    }
+
+    private BeanCopier<Bean, Bean> copier;
+    private Bean source, target;
+
+    @Setup
+    public void setup() {
+
+        copier = BeanCopier.create(Bean.class, Bean.class).build();
+        source = new Bean();
+        target = new Bean();
+    }
+
+    @Benchmark
+    public Bean handWritten() {
+
+        target.setName(source.getName());
+        target.setCount(source.getCount());
+        target.setCreated(source.getCreated());
+        target.setRatio(source.getRatio());
+        target.setActive(source.isActive());
+        target.setPrice(source.getPrice());
+        return target;
+    }
+
+    @Benchmark
+    public Bean copier() {
+        return copier.copy(source, target);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading an {@code int} field through a {@link FieldAccessor} held in a static final
+ * and a regular field with plain reflection and the commons-lang {@code FieldUtils}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldAccessBenchmark {
+
+    private static final FieldAccessor STATIC_ACCESSOR = FieldAccessor.of(FieldAccessBenchmark.class, "value", true);
+
+    private int value = 42;
+
+    private FieldAccessor accessor;
+    private Field field;
+
+    @Setup
+    public void setup() throws NoSuchFieldException {
+
+        accessor = FieldAccessor.of(FieldAccessBenchmark.class, "value", true);
+        field = FieldAccessBenchmark.class.getDeclaredField("value");
+        field.setAccessible(true);
+    }
+
+    @Benchmark
+    public int direct() {
+        return value;
+    }
+
+    @Benchmark
+    public int staticAccessorGetInt() {
+        return STATIC_ACCESSOR.getInt(this);
+    }
+
+    @Benchmark
+    public int accessorGetInt() {
+        return accessor.getInt(this);
+    }
+
+    @Benchmark
+    public Object accessorGet() {
+        return accessor.get(this);
+    }
+
+    @Benchmark
+    public int reflectionGetInt() throws IllegalAccessException {
+        return field.getInt(this);
+    }
+
+    @Benchmark
+    public Object fieldUtilsReadField() throws IllegalAccessException {
+        return FieldUtils.readField(this, "value", true);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building an array by repeated {@link ArrayUtils#prepend(int, int[])}
+ * calls with prepending elements to an {@link IntDeque} and copying them out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrependBenchmark {
+
+    @Param({ "16", "256", "4096" })
+    private int size;
+
+    @Benchmark
+    public int[] arrayPrepend() {
+
+        int[] array = new int[0];
+        for (int i = 0; i < size; i++) {
+            array = ArrayUtils.prepend(i, array);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public int[] dequeAddFirst() {
+
+        IntDeque deque = new IntDeque();
+        for (int i = 0; i < size; i++) {
+            deque.addFirst(i);
+        }
+        return deque.toArray();
+    }
+}
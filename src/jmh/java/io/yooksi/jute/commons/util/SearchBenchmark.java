@@ -0,0 +1,93 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares searching for a sentinel value at the end of an array and comparing arrays that differ only
+ * in the last element with the inherited commons-lang methods and the {@link ArrayUtils} methods hiding them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({ "64", "4096", "262144" })
+    private int size;
+
+    private byte[] bytes, otherBytes;
+    private int[] ints, otherInts;
+
+    @Setup
+    public void setup() {
+
+        bytes = new byte[size];
+        ints = new int[size];
+        otherBytes = new byte[size];
+        otherInts = new int[size];
+        bytes[size - 1] = 1;
+        ints[size - 1] = 1;
+    }
+
+    @Benchmark
+    public int commonsByteIndexOf() {
+        return org.apache.commons.lang3.ArrayUtils.indexOf(bytes, (byte) 1);
+    }
+
+    @Benchmark
+    public int byteIndexOf() {
+        return ArrayUtils.indexOf(bytes, (byte) 1);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean commonsByteIsEquals() {
+        return org.apache.commons.lang3.ArrayUtils.isEquals(bytes, otherBytes);
+    }
+
+    @Benchmark
+    public boolean byteIsEquals() {
+        return ArrayUtils.isEquals(bytes, otherBytes);
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public boolean commonsIntIsEquals() {
+        return org.apache.commons.lang3.ArrayUtils.isEquals(ints, otherInts);
+    }
+
+    @Benchmark
+    public boolean intIsEquals() {
+        return ArrayUtils.isEquals(ints, otherInts);
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.define;
+
+import io.yooksi.jute.commons.validator.BeanValidator;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>This annotation can be applied to a class to indicate that its instances
+ * never change state after construction. {@link BeanValidator} will remember
+ * instances of such classes that were successfully validated and skip validating
+ * them again for the same validation groups.</p>
+ * The annotation is deliberately not {@link Inherited inherited} since subclasses
+ * of an immutable class are not guaranteed to be immutable themselves.
+ */
+@Documented
+@LibraryAnnotation
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ImmutableBean {}
@@ -0,0 +1,272 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.index;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import io.yooksi.jute.commons.util.ClassLoaderUtil;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * <p>Index of program elements annotated with library annotations, built at compile time.</p>
+ * <p>
+ *     The index is written by {@link AnnotationIndexProcessor} into each compiled jar as a
+ *     compact binary resource located at {@link #RESOURCE}. Reading the index at runtime
+ *     costs {@code O(index size)} instead of scanning and reflecting the whole classpath.
+ * </p>
+ * The binary format is composed of the following sections:
+ * <ul>
+ *     <li>Header - magic number and format version.</li>
+ *     <li>String table - count followed by all distinct names in modified UTF-8.</li>
+ *     <li>Entries - count followed by element kind and string table indices for each entry.</li>
+ * </ul>
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class AnnotationIndex {
+
+    /**
+     * Location of the index resource inside jar files and class output directories.
+     */
+    public static final String RESOURCE = "META-INF/jute/annotations.idx";
+
+    private static final int MAGIC = 0x4A494458;
+    private static final short VERSION = 1;
+
+    /**
+     * Kinds of program elements that can be recorded in the index.
+     */
+    public enum Kind {
+        TYPE, FIELD, METHOD, CONSTRUCTOR, PARAMETER
+    }
+
+    private final Map<String, List<Entry>> entries;
+
+    private AnnotationIndex(Map<String, List<Entry>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Read and merge all index resources visible from the given class
+     * and the current thread context class loader.
+     *
+     * @param callingClass class whose class loader should be searched
+     * @throws UncheckedIOException if an index resource could not be read
+     * @see ClassLoaderUtil#getResources(String, Class, boolean)
+     */
+    public static AnnotationIndex load(Class<?> callingClass) {
+
+        Map<String, List<Entry>> entries = new HashMap<>();
+        try {
+            Iterator<URL> resources = ClassLoaderUtil.getResources(RESOURCE, callingClass, true);
+            while (resources.hasNext())
+            {
+                try (InputStream stream = resources.next().openStream()) {
+                    for (Entry entry : read(stream)) {
+                        entries.computeIfAbsent(entry.annotation, k -> new ArrayList<>()).add(entry);
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Unable to read annotation index", e);
+        }
+        entries.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return new AnnotationIndex(entries);
+    }
+
+    /**
+     * @return unmodifiable list of all indexed elements annotated with
+     *         the given annotation or an empty list if there are none.
+     */
+    @Contract(pure = true)
+    public List<Entry> getEntries(String annotationName) {
+        return entries.getOrDefault(annotationName, Collections.emptyList());
+    }
+
+    /**
+     * @return unmodifiable set of names of all annotations recorded in the index.
+     */
+    @Contract(pure = true)
+    public Set<String> getAnnotationNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Write the given entries to the stream in the binary index format.
+     * The stream is not closed after writing.
+     */
+    public static void write(OutputStream stream, Collection<Entry> entries) throws IOException {
+
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Entry entry : entries) {
+            strings.putIfAbsent(entry.annotation, strings.size());
+            strings.putIfAbsent(entry.className, strings.size());
+            if (entry.member != null) {
+                strings.putIfAbsent(entry.member, strings.size());
+            }
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            out.writeUTF(string);
+        }
+        out.writeInt(entries.size());
+        for (Entry entry : entries) {
+            out.writeByte(entry.kind.ordinal());
+            out.writeInt(strings.get(entry.annotation));
+            out.writeInt(strings.get(entry.className));
+            out.writeInt(entry.member != null ? strings.get(entry.member) : -1);
+        }
+        out.flush();
+    }
+
+    /**
+     * Read all entries from the given stream in the binary index format.
+     *
+     * @throws IOException if the stream does not contain a valid index
+     */
+    public static List<Entry> read(InputStream stream) throws IOException {
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid annotation index header");
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported annotation index version " + version);
+        }
+        /* Do not trust section sizes when allocating, a corrupted index should fail with EOF */
+        int stringCount = readCount(in);
+        List<String> table = new ArrayList<>(Math.min(stringCount, 1024));
+        for (int i = 0; i < stringCount; i++) {
+            table.add(in.readUTF());
+        }
+        String[] strings = table.toArray(new String[0]);
+        Kind[] kinds = Kind.values();
+        int count = readCount(in);
+        List<Entry> entries = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++)
+        {
+            int kind = in.readUnsignedByte();
+            if (kind >= kinds.length) {
+                throw new IOException("Invalid annotation index element kind " + kind);
+            }
+            String annotation = readString(in, strings);
+            String className = readString(in, strings);
+            int member = in.readInt();
+            entries.add(new Entry(kinds[kind], annotation, className, member != -1 ? getString(strings, member) : null));
+        }
+        return entries;
+    }
+
+    private static int readCount(DataInputStream in) throws IOException {
+
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid annotation index section size " + count);
+        }
+        return count;
+    }
+
+    private static String readString(DataInputStream in, String[] strings) throws IOException {
+        return getString(strings, in.readInt());
+    }
+
+    /**
+     * @throws IOException if the index is out of string table bounds
+     */
+    private static String getString(String[] strings, int index) throws IOException {
+
+        if (index < 0 || index >= strings.length) {
+            throw new IOException("Invalid annotation index string table reference " + index);
+        }
+        return strings[index];
+    }
+
+    /**
+     * Single program element recorded in the index.
+     */
+    public static final class Entry {
+
+        private final Kind kind;
+        private final String annotation, className;
+        private final @Nullable String member;
+
+        /**
+         * @param kind kind of the annotated element
+         * @param annotation binary name of the annotation type
+         * @param className binary name of the class declaring the element
+         * @param member name of the annotated field, signature of the annotated method or constructor
+         *               followed by the zero-based parameter position for parameters, for example
+         *               {@code add(int,java.lang.String):1}, {@code null} for types.
+         */
+        public Entry(Kind kind, String annotation, String className, @Nullable String member) {
+
+            this.kind = kind;
+            this.annotation = annotation;
+            this.className = className;
+            this.member = member;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+        public String getAnnotationName() {
+            return annotation;
+        }
+        public String getClassName() {
+            return className;
+        }
+        public @Nullable String getMemberName() {
+            return member;
+        }
+
+        /**
+         * Load the class declaring the indexed element without initializing it.
+         * @throws ClassNotFoundException if the class could not be found
+         */
+        public Class<?> loadClass(ClassLoader loader) throws ClassNotFoundException {
+            return Class.forName(className, false, loader);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (this == obj) return true;
+            if (!(obj instanceof Entry)) return false;
+            Entry other = (Entry) obj;
+            return kind == other.kind && annotation.equals(other.annotation) &&
+                    className.equals(other.className) && Objects.equals(member, other.member);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, annotation, className, member);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s %s%s @%s", kind, className, member != null ? "#" + member : "", annotation);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.index;
+
+import io.yooksi.jute.commons.define.LibraryAnnotation;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * <p>Annotation processor that builds the {@link AnnotationIndex} at compile time.</p>
+ * <p>
+ *     Records every type, field, method, constructor and parameter annotated with an annotation
+ *     that is itself annotated with {@link LibraryAnnotation} either directly or transitively
+ *     through other meta-annotations, such as {@code PositiveRange} or {@code MethodsNotNull}. Additional annotation types can be indexed by listing their
+ *     qualified names separated by commas in the {@value #OPTION_ANNOTATIONS} processor option.
+ * </p>
+ * To build the index with Gradle add this library to the annotation processor path:
+ * <pre>
+ * dependencies {
+ *     annotationProcessor 'com.github.jjute:commons:&lt;version&gt;'
+ * }
+ * </pre>
+ * The processor is registered as an aggregating incremental processor.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(AnnotationIndexProcessor.OPTION_ANNOTATIONS)
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+    /**
+     * Processor option listing additional annotation types to index.
+     */
+    public static final String OPTION_ANNOTATIONS = "jute.index.annotations";
+
+    private final Set<AnnotationIndex.Entry> entries = new LinkedHashSet<>();
+    private final Set<String> indexedAnnotations = new HashSet<>();
+    private final Map<String, Boolean> libraryAnnotations = new HashMap<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+
+        super.init(processingEnv);
+        String option = processingEnv.getOptions().get(OPTION_ANNOTATIONS);
+        if (option != null) {
+            for (String name : option.split(",")) {
+                if (!name.trim().isEmpty()) indexedAnnotations.add(name.trim());
+            }
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        for (TypeElement annotation : annotations)
+        {
+            if (!isIndexed(annotation)) continue;
+            String annotationName = getBinaryName(annotation);
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+            {
+                AnnotationIndex.Entry entry = createEntry(annotationName, element);
+                if (entry != null) entries.add(entry);
+            }
+        }
+        if (roundEnv.processingOver() && !entries.isEmpty()) {
+            writeIndex();
+        }
+        /* Do not claim the annotations, other processors might need them */
+        return false;
+    }
+
+    /**
+     * @return {@code true} if elements annotated with the given annotation should be indexed.
+     */
+    private boolean isIndexed(TypeElement annotation) {
+
+        return indexedAnnotations.contains(annotation.getQualifiedName().toString()) ||
+                libraryAnnotations.computeIfAbsent(annotation.getQualifiedName().toString(),
+                        k -> isLibraryAnnotation(annotation));
+    }
+
+    /**
+     * Walk the meta-annotation graph of the given annotation type breadth-first the same way
+     * {@code AnnotationUtils#isMetaAnnotated} does at runtime, watching out for cycles.
+     *
+     * @return {@code true} if {@link LibraryAnnotation} is present in the meta-annotation graph.
+     */
+    private static boolean isLibraryAnnotation(TypeElement annotation) {
+
+        Set<Name> visited = new HashSet<>();
+        Deque<TypeElement> queue = new ArrayDeque<>();
+        queue.add(annotation);
+        visited.add(annotation.getQualifiedName());
+
+        while (!queue.isEmpty()) {
+            for (AnnotationMirror mirror : queue.poll().getAnnotationMirrors())
+            {
+                TypeElement type = (TypeElement) mirror.getAnnotationType().asElement();
+                if (type.getQualifiedName().contentEquals(LibraryAnnotation.class.getName())) {
+                    return true;
+                }
+                if (visited.add(type.getQualifiedName())) {
+                    queue.add(type);
+                }
+            }
+        }
+        return false;
+    }
+
+    private AnnotationIndex.Entry createEntry(String annotation, Element element) {
+
+        switch (element.getKind())
+        {
+            case CLASS: case INTERFACE: case ENUM: case ANNOTATION_TYPE:
+                return new AnnotationIndex.Entry(AnnotationIndex.Kind.TYPE,
+                        annotation, getBinaryName((TypeElement) element), null);
+
+            case FIELD: case ENUM_CONSTANT:
+                return new AnnotationIndex.Entry(AnnotationIndex.Kind.FIELD, annotation,
+                        getBinaryName((TypeElement) element.getEnclosingElement()), element.getSimpleName().toString());
+
+            case METHOD: case CONSTRUCTOR:
+                return new AnnotationIndex.Entry(element.getKind() == ElementKind.METHOD ?
+                        AnnotationIndex.Kind.METHOD : AnnotationIndex.Kind.CONSTRUCTOR, annotation,
+                        getBinaryName((TypeElement) element.getEnclosingElement()),
+                        getSignature((ExecutableElement) element));
+
+            case PARAMETER:
+                Element executable = element.getEnclosingElement();
+                if (!(executable instanceof ExecutableElement)) {
+                    return null;
+                }
+                /*
+                 * Parameter names are not available for classes compiled without debug information
+                 * so record the parameter position to get the same entry in incremental builds
+                 */
+                int position = ((ExecutableElement) executable).getParameters().indexOf(element);
+                return new AnnotationIndex.Entry(AnnotationIndex.Kind.PARAMETER, annotation,
+                        getBinaryName((TypeElement) executable.getEnclosingElement()),
+                        getSignature((ExecutableElement) executable) + ':' + position);
+
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return method name followed by erased parameter types, for example {@code add(int,java.lang.String)}.
+     */
+    private String getSignature(ExecutableElement executable) {
+
+        StringJoiner params = new StringJoiner(",", executable.getSimpleName() + "(", ")");
+        for (VariableElement param : executable.getParameters()) {
+            TypeMirror type = processingEnv.getTypeUtils().erasure(param.asType());
+            params.add(type.toString());
+        }
+        return params.toString();
+    }
+
+    private String getBinaryName(TypeElement type) {
+        return processingEnv.getElementUtils().getBinaryName(type).toString();
+    }
+
+    private void writeIndex() {
+
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT, "", AnnotationIndex.RESOURCE);
+
+            try (OutputStream stream = resource.openOutputStream()) {
+                AnnotationIndex.write(stream, entries);
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Unable to write annotation index: " + e.getMessage());
+        }
+    }
+}
@@ -17,45 +17,345 @@ package io.yooksi.jute.commons.util;
 
 import io.yooksi.jute.commons.define.LibraryAnnotation;
 import io.yooksi.jute.commons.define.MethodsNotNull;
+import io.yooksi.jute.commons.index.AnnotationIndex;
+import io.yooksi.jute.commons.logger.LibraryLogger;
+import org.apache.commons.lang3.ClassUtils;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 
 import javax.validation.constraints.NotEmpty;
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Executable;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.lang.reflect.Modifier;
 
 @MethodsNotNull
 @SuppressWarnings({"unused", "WeakerAccess"})
 public class AnnotationUtils {
 
+    /**
+     * <p>Attribute methods of annotation types mapped to attribute names in declaration order.</p>
+     * Contrary to what one might expect, the elements of an annotation are not attributes,
+     * they are actually methods that return the provided value or a default value.
+     * Resolving these methods is expensive so it's done only once per annotation type.
+     */
+    private static final ClassValue<java.util.Map<String, Method>> ATTRIBUTE_METHODS =
+            new ClassValue<java.util.Map<String, Method>>() {
+        @Override
+        protected java.util.Map<String, Method> computeValue(Class<?> type) {
+
+            java.util.Map<String, Method> methods = new java.util.LinkedHashMap<>();
+            for (Method method : type.getDeclaredMethods())
+            {
+                if (method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())) {
+                    /* Annotation types declared as non-public would otherwise be inaccessible */
+                    try {
+                        method.setAccessible(true);
+                    }
+                    catch (SecurityException e) {
+                        /* Try invoking it anyway, it may already be accessible */
+                    }
+                    methods.put(method.getName(), method);
+                }
+            }
+            return java.util.Collections.unmodifiableMap(methods);
+        }
+    };
+
+    /**
+     * Memoized declared attribute values of annotation instances. Instances are only used as
+     * memoization keys, the JDK creates new instances for parameter annotations on each lookup
+     * and for other annotations whenever cached reflection data is cleared, in which case the
+     * values are simply read again.
+     */
+    private static final WeakIdentityMap<Annotation, AttributeValues> ATTRIBUTE_VALUES = new WeakIdentityMap<>();
+
+    /**
+     * <p>Runtime overrides of annotation attribute values grouped by annotation type
+     * and keyed by the annotated element.</p>
+     * <p>
+     *     The registry is a copy-on-write snapshot that is atomically replaced whenever an
+     *     override is added or removed, so readers never lock. Elements are compared by
+     *     equality so overrides survive reflection objects and annotation instances being
+     *     created anew by the JDK or copied by validation frameworks.
+     * </p>
+     * Grouping by type lets annotations of types without overrides skip hashing altogether.
+     */
+    private static final java.util.concurrent.atomic.AtomicReference<java.util.Map<Class<? extends Annotation>,
+            java.util.Map<ElementKey, ElementOverrides>>> ATTRIBUTE_OVERRIDES =
+            new java.util.concurrent.atomic.AtomicReference<>(java.util.Collections.emptyMap());
+
+    /**
+     * Incremented after every change of {@link #ATTRIBUTE_OVERRIDES}.
+     * @see #getAttributeOverridesVersion()
+     */
+    private static final java.util.concurrent.atomic.AtomicLong ATTRIBUTE_OVERRIDES_VERSION =
+            new java.util.concurrent.atomic.AtomicLong();
+
+    /**
+     * Typed attribute accessors generated for annotation types grouped by the requested
+     * value type and mapped to attribute names, so that finding a cached accessor
+     * does not allocate lookup keys.
+     *
+     * @see #getAttributeAccessor(Class, String, Class, Class)
+     */
+    private static final ClassValue<java.util.Map<Class<?>, java.util.Map<String, Object>>> ATTRIBUTE_ACCESSORS =
+            new ClassValue<java.util.Map<Class<?>, java.util.Map<String, Object>>>() {
+        @Override
+        protected java.util.Map<Class<?>, java.util.Map<String, Object>> computeValue(Class<?> type) {
+            return new java.util.concurrent.ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Accessor that reads the value of a single annotation attribute.
+     * @see #getAttributeAccessor(Class, String, Class)
+     */
+    @FunctionalInterface
+    public interface Attribute<A extends Annotation, T> {
+        T get(A annotation);
+    }
+
+    /**
+     * Accessor that reads the value of a single {@code boolean} annotation attribute without boxing.
+     * @see #getBooleanAttribute(Class, String)
+     */
+    @FunctionalInterface
+    public interface BooleanAttribute<A extends Annotation> {
+        boolean get(A annotation);
+    }
+
+    /**
+     * Accessor that reads the value of a single {@code int} annotation attribute without boxing.
+     * @see #getIntAttribute(Class, String)
+     */
+    @FunctionalInterface
+    public interface IntAttribute<A extends Annotation> {
+        int get(A annotation);
+    }
+
+    /**
+     * Accessor that reads the value of a single {@code long} annotation attribute without boxing.
+     * @see #getLongAttribute(Class, String)
+     */
+    @FunctionalInterface
+    public interface LongAttribute<A extends Annotation> {
+        long get(A annotation);
+    }
+
+    /**
+     * Accessor that reads the value of a single {@code double} annotation attribute without boxing.
+     * @see #getDoubleAttribute(Class, String)
+     */
+    @FunctionalInterface
+    public interface DoubleAttribute<A extends Annotation> {
+        double get(A annotation);
+    }
+
+    /**
+     * <p>Get a cached accessor that reads the value of the named annotation attribute.</p>
+     * The accessor is generated through {@link java.lang.invoke.LambdaMetafactory} so reading attributes
+     * with it is as fast as a direct interface call. Primitive attribute values are boxed, use one of
+     * the primitive accessors like {@link #getBooleanAttribute(Class, String)} to avoid boxing.
+     *
+     * @param type annotation type declaring the attribute
+     * @param attribute name of the attribute to read
+     * @param valueType type of the attribute value
+     * @throws IllegalArgumentException if the annotation type does not declare the named
+     *         attribute or the attribute value is not assignable to {@code valueType}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation, T> Attribute<A, T> getAttributeAccessor(Class<A> type, String attribute, Class<T> valueType) {
+        /* Primitive value types are reserved for primitive accessors */
+        return getAttributeAccessor(type, attribute, ClassUtils.primitiveToWrapper(valueType), Attribute.class);
+    }
+
+    /**
+     * Get a cached accessor that reads the value of the named {@code boolean} annotation attribute.
+     * @see #getAttributeAccessor(Class, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> BooleanAttribute<A> getBooleanAttribute(Class<A> type, String attribute) {
+        return getAttributeAccessor(type, attribute, boolean.class, BooleanAttribute.class);
+    }
+
+    /**
+     * Get a cached accessor that reads the value of the named {@code int} annotation attribute.
+     * Attributes of type {@code byte}, {@code short} and {@code char} are widened to {@code int}.
+     *
+     * @see #getAttributeAccessor(Class, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> IntAttribute<A> getIntAttribute(Class<A> type, String attribute) {
+        return getAttributeAccessor(type, attribute, int.class, IntAttribute.class);
+    }
+
+    /**
+     * Get a cached accessor that reads the value of the named {@code long} annotation attribute.
+     * Attributes of smaller integral types are widened to {@code long}.
+     *
+     * @see #getAttributeAccessor(Class, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> LongAttribute<A> getLongAttribute(Class<A> type, String attribute) {
+        return getAttributeAccessor(type, attribute, long.class, LongAttribute.class);
+    }
+
+    /**
+     * Get a cached accessor that reads the value of the named {@code double} annotation attribute.
+     * Attributes of other numeric primitive types are widened to {@code double}.
+     *
+     * @see #getAttributeAccessor(Class, String, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> DoubleAttribute<A> getDoubleAttribute(Class<A> type, String attribute) {
+        return getAttributeAccessor(type, attribute, double.class, DoubleAttribute.class);
+    }
+
+    /**
+     * Get a cached accessor of the given functional interface type or generate
+     * and cache a new one if the accessor has not been requested before.
+     * Each value type is always requested with the same accessor type.
+     */
+    @SuppressWarnings("unchecked")
+    private static <F> F getAttributeAccessor(Class<? extends Annotation> type, String attribute,
+                                              Class<?> valueType, Class<F> accessorType) {
+
+        java.util.Map<String, Object> accessors = ATTRIBUTE_ACCESSORS.get(type).get(valueType);
+        if (accessors == null) {
+            accessors = ATTRIBUTE_ACCESSORS.get(type).computeIfAbsent(valueType,
+                    t -> new java.util.concurrent.ConcurrentHashMap<>());
+        }
+        Object accessor = accessors.get(attribute);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(attribute, a -> createAttributeAccessor(type, a, valueType, accessorType));
+        }
+        return (F) accessor;
+    }
+
+    private static Object createAttributeAccessor(Class<? extends Annotation> type, String attribute,
+                                                  Class<?> valueType, Class<?> accessorType) {
+
+        Method method = ATTRIBUTE_METHODS.get(type).get(attribute);
+        /*
+         * Primitive accessors accept widening conversions while object
+         * accessors accept any supertype of the boxed attribute type
+         */
+        if (method == null || !(valueType.isPrimitive() ? ClassUtils.isAssignable(method.getReturnType(), valueType, false) :
+                valueType.isAssignableFrom(ClassUtils.primitiveToWrapper(method.getReturnType()))))
+        {
+            String log = String.format("Expected to find attribute %s(%s) in annotation %s",
+                    attribute, valueType.getSimpleName(), type.getName());
+            throw new IllegalArgumentException(new NoSuchMethodException(log));
+        }
+        return withOverrides(accessorType, attribute, LambdaFactory.implement(accessorType, method));
+    }
+
+    /**
+     * Wrap the given accessor so that it returns overridden attribute values when present.
+     * When there are no overrides registered the wrapper costs a single volatile read.
+     */
+    @SuppressWarnings("unchecked")
+    private static Object withOverrides(Class<?> accessorType, String attribute, Object accessor) {
+
+        if (accessorType == BooleanAttribute.class)
+        {
+            BooleanAttribute<Annotation> direct = (BooleanAttribute<Annotation>) accessor;
+            return (BooleanAttribute<Annotation>) a -> {
+                Object value = getAttributeOverride(a, attribute);
+                return value != null ? (Boolean) value : direct.get(a);
+            };
+        }
+        else if (accessorType == IntAttribute.class)
+        {
+            IntAttribute<Annotation> direct = (IntAttribute<Annotation>) accessor;
+            return (IntAttribute<Annotation>) a -> {
+                Object value = getAttributeOverride(a, attribute);
+                return value != null ? toNumber(value).intValue() : direct.get(a);
+            };
+        }
+        else if (accessorType == LongAttribute.class)
+        {
+            LongAttribute<Annotation> direct = (LongAttribute<Annotation>) accessor;
+            return (LongAttribute<Annotation>) a -> {
+                Object value = getAttributeOverride(a, attribute);
+                return value != null ? toNumber(value).longValue() : direct.get(a);
+            };
+        }
+        else if (accessorType == DoubleAttribute.class)
+        {
+            DoubleAttribute<Annotation> direct = (DoubleAttribute<Annotation>) accessor;
+            return (DoubleAttribute<Annotation>) a -> {
+                Object value = getAttributeOverride(a, attribute);
+                return value != null ? toNumber(value).doubleValue() : direct.get(a);
+            };
+        }
+        Attribute<Annotation, Object> direct = (Attribute<Annotation, Object>) accessor;
+        return (Attribute<Annotation, Object>) a -> {
+            Object value = getAttributeOverride(a, attribute);
+            return value != null ? value : direct.get(a);
+        };
+    }
+
+    /* Character attributes are widened to numbers just like their primitive counterparts */
+    private static Number toNumber(Object value) {
+        return value instanceof Character ? (int) (Character) value : (Number) value;
+    }
+
     /**
      * <p>Retrieve the given annotation's attributes as a Map, preserving all attribute types.</p>
      * Same can be achieved by using Spring {@code AnnotationUtils} class methods, but for the sake
      * of simplicity this manual approach will do just fine.
+     * <p>
+     *     Attribute values are read only once for each annotation instance and the returned map is an
+     *     unmodifiable view shared between calls. Note that array values are shared as well and
+     *     should not be modified.
+     * </p>
+     * Attribute values overridden at runtime take precedence over declared values.
      *
      * @return {@code empty} map if no attributes were found.
+     * @see #overrideAttributeValue(Field, Class, String, Object)
      */
     public static java.util.Map<String, Object> getAttributes(Annotation annotation) {
+        return getAttributeValues(annotation).values;
+    }
 
-        /* Contrary to what one might expect, the elements of an annotation are not attributes,
-         * they are actually methods that return the provided value or a default value.
-         *
-         * Here we are gonna iterate through the annotations' methods and invoke them to get the values.
-         * Use annotationType() to get the annotation's class, the object returned by getClass() is just a proxy.
-         */
-        java.util.Map<String, Object> attributes = new java.util.HashMap<>();
-        for (Method method : annotation.annotationType().getDeclaredMethods()) {
-            try {
-                attributes.put(method.getName(), method.invoke(annotation, (Object[]) null));
-            }
-            catch (IllegalAccessException | InvocationTargetException e) {
-                throw new IllegalArgumentException("Unable to get attributes for annotation " +
-                        annotation.getClass().getSimpleName(), e);
-            }
-        }
-        return attributes;
+    /**
+     * <p>Retrieve the attributes of the given field's annotation as a Map.</p>
+     * Unlike {@link #getAttributes(Annotation)} this only includes attribute
+     * values overridden for the given field and not for equal annotations
+     * declared on other program elements.
+     *
+     * @return {@code empty} map if the field is not annotated with the given type.
+     * @see #overrideAttributeValue(Field, Class, String, Object)
+     */
+    public static java.util.Map<String, Object> getAttributes(Field field, Class<? extends Annotation> type) {
+
+        Annotation annotation = field.getAnnotation(type);
+        return annotation != null ? getAttributeValues(annotation, new ElementKey(field, -1)).values
+                                  : java.util.Collections.emptyMap();
+    }
+
+    /**
+     * <p>Retrieve the attributes of the given parameter's annotation as a Map.</p>
+     * Unlike {@link #getAttributes(Annotation)} this only includes attribute
+     * values overridden for the given parameter and not for equal annotations
+     * declared on other program elements.
+     *
+     * @param executable method or constructor declaring the parameter
+     * @param parameter index of the parameter
+     * @return {@code empty} map if the parameter is not annotated with the given type.
+     * @throws IllegalArgumentException if the parameter index is out of range.
+     * @see #overrideAttributeValue(Executable, int, Class, String, Object)
+     */
+    public static java.util.Map<String, Object> getAttributes(Executable executable, int parameter,
+                                                              Class<? extends Annotation> type) {
+
+        Annotation annotation = getParameter(executable, parameter).getAnnotation(type);
+        return annotation != null ? getAttributeValues(annotation, new ElementKey(executable, parameter)).values
+                                  : java.util.Collections.emptyMap();
     }
 
     /**
@@ -71,76 +371,593 @@ public class AnnotationUtils {
      */
     public static javafx.util.Pair<Method, Object> getAttribute(Annotation annotation, @NotEmpty String attribute) throws NoSuchMethodException {
 
-        try {
-            Method object = annotation.annotationType().getDeclaredMethod(attribute);
-            return new javafx.util.Pair<>(object, object.invoke(annotation, (Object[]) null));
-        }
-        catch (IllegalAccessException | InvocationTargetException e) {
-            throw new IllegalStateException("Unable to get method for annotation " + annotation.getClass().getSimpleName(), e);
+        javafx.util.Pair<Method, Object> pair = getAttributeValues(annotation).pairs.get(attribute);
+        if (pair == null) {
+            throw new NoSuchMethodException(String.format("Annotation %s does not declare attribute %s",
+                    annotation.annotationType().getName(), attribute));
         }
+        return pair;
     }
+
     @SuppressWarnings("unchecked")
     public static <T> T getAttributeValue(Annotation annotation, String attribute, Class<T> clazz) {
 
-        Object value;
+        Object value = getAttributes(annotation).get(attribute);
+        /* Primitive attribute values are always boxed when read reflectively */
+        if (value == null || !ClassUtils.primitiveToWrapper(clazz).isInstance(value))
+        {
+            String cause = value == null ? NoSuchMethodException.class.getName() : IllegalArgumentException.class.getName();
+            throw new IllegalStateException(String.format("%s: Expected to find attribute %s(%s) in annotation %s",
+                    cause, attribute, clazz.getSimpleName(), annotation.getClass().getSimpleName()));
+        }
+        else return (T) value;
+    }
+
+    /**
+     * @return memoized attribute values of the given annotation instance
+     *         with overrides of any element declaring an equal annotation.
+     */
+    private static AttributeValues getAttributeValues(Annotation annotation) {
+
+        AttributeValues values = ATTRIBUTE_VALUES.computeIfAbsent(annotation, AttributeValues::new);
+        java.util.Map<String, Object> overrides = getAttributeOverrides(annotation.annotationType(), values.values);
+        return overrides != null ? values.withOverrides(overrides) : values;
+    }
+
+    /**
+     * @return memoized attribute values of the given annotation instance
+     *         with overrides of the element identified by the given key.
+     */
+    private static AttributeValues getAttributeValues(Annotation annotation, ElementKey element) {
+
+        AttributeValues values = ATTRIBUTE_VALUES.computeIfAbsent(annotation, AttributeValues::new);
+        java.util.Map<ElementKey, ElementOverrides> overrides = ATTRIBUTE_OVERRIDES.get().get(annotation.annotationType());
+
+        ElementOverrides elementOverrides = overrides != null ? overrides.get(element) : null;
+        return elementOverrides != null ? values.withOverrides(elementOverrides.values) : values;
+    }
+
+    /**
+     * Immutable view of attribute values read from a single annotation instance.
+     */
+    private static final class AttributeValues {
+
+        private final java.util.Map<String, Object> values;
+        private final java.util.Map<String, javafx.util.Pair<Method, Object>> pairs;
+        private final java.util.@Nullable Map<String, Object> overrides;
+
+        /* View of these values with the most recently applied overrides */
+        private volatile @Nullable AttributeValues overridden;
+
+        private AttributeValues(Annotation annotation) {
+
+            /* Use annotationType() to get the annotation's class,
+             * the object returned by getClass() is just a proxy.
+             */
+            java.util.Map<String, Method> methods = ATTRIBUTE_METHODS.get(annotation.annotationType());
+            java.util.Map<String, Object> values = new java.util.LinkedHashMap<>(methods.size() * 2);
+            java.util.Map<String, javafx.util.Pair<Method, Object>> pairs = new java.util.HashMap<>(methods.size() * 2);
+
+            for (Method method : methods.values())
+            {
+                Object value = readAttribute(annotation, method);
+                values.put(method.getName(), value);
+                pairs.put(method.getName(), new javafx.util.Pair<>(method, value));
+            }
+            this.values = java.util.Collections.unmodifiableMap(values);
+            this.pairs = pairs;
+            this.overrides = null;
+        }
+
+        private AttributeValues(AttributeValues declared, java.util.Map<String, Object> overrides) {
+
+            java.util.Map<String, Object> values = new java.util.LinkedHashMap<>(declared.values);
+            java.util.Map<String, javafx.util.Pair<Method, Object>> pairs = new java.util.HashMap<>(declared.pairs);
+
+            for (java.util.Map.Entry<String, Object> entry : overrides.entrySet())
+            {
+                values.put(entry.getKey(), entry.getValue());
+                pairs.put(entry.getKey(), new javafx.util.Pair<>(declared.pairs.get(entry.getKey()).getKey(), entry.getValue()));
+            }
+            this.values = java.util.Collections.unmodifiableMap(values);
+            this.pairs = pairs;
+            this.overrides = overrides;
+        }
+
+        /**
+         * @return view of these values with the given overrides applied. Override maps are
+         *         replaced whenever the registry changes, so views are compared by identity.
+         */
+        private AttributeValues withOverrides(java.util.Map<String, Object> overrides) {
+
+            AttributeValues view = overridden;
+            if (view == null || view.overrides != overrides) {
+                overridden = view = new AttributeValues(this, overrides);
+            }
+            return view;
+        }
+    }
+
+    private static Object readAttribute(Annotation annotation, Method method) {
         try {
-            value = getAttribute(annotation, attribute).getValue();
-            if (!clazz.isInstance(value)) {
-                throw new IllegalArgumentException();
+            return method.invoke(annotation, (Object[]) null);
+        }
+        catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalArgumentException("Unable to get attributes for annotation " +
+                    annotation.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Program element declaring an annotation, either a field or a parameter of an executable.
+     * Reflection objects are compared by equality, so keys of copies of the same element are equal.
+     */
+    private static final class ElementKey {
+
+        private final java.lang.reflect.Member element;
+        private final int parameter;
+
+        private ElementKey(java.lang.reflect.Member element, int parameter) {
+            this.element = element;
+            this.parameter = parameter;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * element.hashCode() + parameter;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+
+            if (this == obj) return true;
+            if (!(obj instanceof ElementKey)) return false;
+            ElementKey other = (ElementKey) obj;
+            return parameter == other.parameter && element.equals(other.element);
+        }
+    }
+
+    /**
+     * Attribute values overridden for a single annotated element together with
+     * the attribute values declared by the element's annotation.
+     */
+    private static final class ElementOverrides {
+
+        private final java.util.Map<String, Object> declared;
+        private final java.util.Map<String, Object> values;
+
+        private ElementOverrides(java.util.Map<String, Object> declared, java.util.Map<String, Object> values) {
+            this.declared = declared;
+            this.values = values;
+        }
+
+        /**
+         * @return {@code true} if the given attribute values are equal to the declared ones,
+         *         using the same comparison as {@link Annotation#equals(Object)}.
+         */
+        private boolean isDeclaredBy(java.util.Map<String, Object> attributes) {
+
+            if (attributes == declared) {
+                return true;
+            }
+            for (java.util.Map.Entry<String, Object> entry : declared.entrySet()) {
+                if (!java.util.Objects.deepEquals(entry.getValue(), attributes.get(entry.getKey()))) return false;
             }
-            else return (T) value;
+            return true;
         }
-        catch (NoSuchMethodException | IllegalArgumentException e) {
-            throw new IllegalStateException(String.format("%s: Expected to find attribute %s(%s) in annotation %s",
-                    e.getClass().getName(), attribute, clazz.getSimpleName(), annotation.getClass().getSimpleName()));
+    }
+
+    /**
+     * <p>Find the attribute values overridden for an annotation with the given declared values.</p>
+     * Annotation instances carry no reference to the element that declares them, so the annotation
+     * is resolved to an element by comparing its declared values with those of elements that have
+     * overrides registered, the same way {@link Annotation#equals(Object)} would compare them.
+     *
+     * @return attribute values overridden for the annotation or {@code null} if there are none.
+     */
+    private static java.util.@Nullable Map<String, Object> getAttributeOverrides(Class<? extends Annotation> type,
+                                                                                 java.util.Map<String, Object> declared) {
+        java.util.Map<Class<? extends Annotation>, java.util.Map<ElementKey, ElementOverrides>> snapshot =
+                ATTRIBUTE_OVERRIDES.get();
+
+        if (snapshot.isEmpty()) {
+            return null;
+        }
+        java.util.Map<ElementKey, ElementOverrides> overrides = snapshot.get(type);
+        if (overrides != null) {
+            for (ElementOverrides elementOverrides : overrides.values()) {
+                if (elementOverrides.isDeclaredBy(declared)) return elementOverrides.values;
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable Object getAttributeOverride(Annotation annotation, String attribute) {
+
+        if (ATTRIBUTE_OVERRIDES.get().isEmpty()) {
+            return null;
+        }
+        java.util.Map<String, Object> overrides = getAttributeOverrides(annotation.annotationType(),
+                ATTRIBUTE_VALUES.computeIfAbsent(annotation, AttributeValues::new).values);
+
+        return overrides != null ? overrides.get(attribute) : null;
+    }
+
+    /**
+     * <p>Override the value of an attribute of the given field's annotation at runtime.</p>
+     * <p>
+     *     The override is visible to all attribute readers of this class, including typed
+     *     accessors, but not to direct invocations of annotation methods. Since annotations
+     *     do not know which element declares them, readers given only an annotation instance
+     *     see the override for every annotation equal to the one declared by the field.
+     *     Use {@link #getAttributes(Field, Class)} to read values of a single field.
+     * </p>
+     * Overrides are stored in a lock-free copy-on-write registry, so they are meant
+     * for values that change rarely, like the reporting level of a constraint.
+     * Overridden elements are held until their overrides are removed.
+     *
+     * @param field field annotated with the given annotation type
+     * @param type type of the annotation to override the attribute value for
+     * @param attribute name of the attribute to override
+     * @param value new attribute value, primitive values should be boxed
+     * @return the previous attribute value, overridden or declared.
+     * @throws IllegalArgumentException if the field is not annotated with the given type, the
+     *         annotation does not declare the named attribute or the value is not an instance
+     *         of the attribute type.
+     */
+    public static Object overrideAttributeValue(Field field, Class<? extends Annotation> type,
+                                                String attribute, Object value) {
+
+        Annotation annotation = field.getAnnotation(type);
+        if (annotation == null) {
+            throw new IllegalArgumentException(String.format("Field %s is not annotated with %s", field, type.getName()));
+        }
+        return overrideAttributeValue(new ElementKey(field, -1), annotation, attribute, value);
+    }
+
+    /**
+     * Override the value of an attribute of the given parameter's annotation at runtime.
+     *
+     * @param executable method or constructor declaring the parameter
+     * @param parameter index of the parameter
+     * @throws IllegalArgumentException if the parameter index is out of range or the parameter
+     *         is not annotated with the given type, the annotation does not declare the named
+     *         attribute or the value is not an instance of the attribute type.
+     * @see #overrideAttributeValue(Field, Class, String, Object)
+     */
+    public static Object overrideAttributeValue(Executable executable, int parameter, Class<? extends Annotation> type,
+                                                String attribute, Object value) {
+
+        Annotation annotation = getParameter(executable, parameter).getAnnotation(type);
+        if (annotation == null) {
+            throw new IllegalArgumentException(String.format("Parameter %d of %s is not annotated with %s",
+                    parameter, executable, type.getName()));
+        }
+        return overrideAttributeValue(new ElementKey(executable, parameter), annotation, attribute, value);
+    }
+
+    private static Object overrideAttributeValue(ElementKey element, Annotation annotation, String attribute, Object value) {
+
+        Class<? extends Annotation> type = annotation.annotationType();
+        Method method = ATTRIBUTE_METHODS.get(type).get(attribute);
+        if (method == null) {
+            throw new IllegalArgumentException(new NoSuchMethodException(String.format(
+                    "Annotation %s does not declare attribute %s", type.getName(), attribute)));
+        }
+        else if (!ClassUtils.primitiveToWrapper(method.getReturnType()).isInstance(value)) {
+            throw new IllegalArgumentException(String.format("Expected value of type %s for attribute %s in " +
+                    "annotation %s", method.getReturnType().getSimpleName(), attribute, type.getName()));
+        }
+        java.util.Map<String, Object> declared = ATTRIBUTE_VALUES.computeIfAbsent(annotation, AttributeValues::new).values;
+        java.util.Map<Class<? extends Annotation>, java.util.Map<ElementKey, ElementOverrides>> snapshot, update;
+        Object previous;
+        do {
+            snapshot = ATTRIBUTE_OVERRIDES.get();
+            update = new java.util.HashMap<>(snapshot);
+
+            java.util.Map<ElementKey, ElementOverrides> typeOverrides =
+                    new java.util.HashMap<>(update.getOrDefault(type, java.util.Collections.emptyMap()));
+
+            ElementOverrides elementOverrides = typeOverrides.get(element);
+            java.util.Map<String, Object> overrides = elementOverrides != null ?
+                    new java.util.HashMap<>(elementOverrides.values) : new java.util.HashMap<>();
+
+            previous = overrides.put(attribute, value);
+            typeOverrides.put(element, new ElementOverrides(declared, java.util.Collections.unmodifiableMap(overrides)));
+            update.put(type, typeOverrides);
+        }
+        while (!ATTRIBUTE_OVERRIDES.compareAndSet(snapshot, update));
+        ATTRIBUTE_OVERRIDES_VERSION.incrementAndGet();
+        return previous != null ? previous : declared.get(attribute);
+    }
+
+    /**
+     * Remove all attribute value overrides of the given field's annotation.
+     *
+     * @return {@code true} if the annotation had any overrides.
+     * @see #overrideAttributeValue(Field, Class, String, Object)
+     */
+    public static boolean removeAttributeOverrides(Field field, Class<? extends Annotation> type) {
+        return removeAttributeOverrides(new ElementKey(field, -1), type);
+    }
+
+    /**
+     * Remove all attribute value overrides of the given parameter's annotation.
+     *
+     * @return {@code true} if the annotation had any overrides.
+     * @see #overrideAttributeValue(Executable, int, Class, String, Object)
+     */
+    public static boolean removeAttributeOverrides(Executable executable, int parameter, Class<? extends Annotation> type) {
+        return removeAttributeOverrides(new ElementKey(executable, parameter), type);
+    }
+
+    private static boolean removeAttributeOverrides(ElementKey element, Class<? extends Annotation> type) {
+
+        java.util.Map<Class<? extends Annotation>, java.util.Map<ElementKey, ElementOverrides>> snapshot, update;
+        do {
+            snapshot = ATTRIBUTE_OVERRIDES.get();
+            java.util.Map<ElementKey, ElementOverrides> typeOverrides = snapshot.get(type);
+            if (typeOverrides == null || !typeOverrides.containsKey(element)) {
+                return false;
+            }
+            update = new java.util.HashMap<>(snapshot);
+            if (typeOverrides.size() == 1) {
+                update.remove(type);
+            }
+            else {
+                typeOverrides = new java.util.HashMap<>(typeOverrides);
+                typeOverrides.remove(element);
+                update.put(type, typeOverrides);
+            }
+            if (update.isEmpty()) {
+                update = java.util.Collections.emptyMap();
+            }
+        }
+        while (!ATTRIBUTE_OVERRIDES.compareAndSet(snapshot, update));
+        ATTRIBUTE_OVERRIDES_VERSION.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remove all attribute value overrides registered so far.
+     * @see #overrideAttributeValue(Field, Class, String, Object)
+     */
+    public static void clearAttributeOverrides() {
+
+        ATTRIBUTE_OVERRIDES.set(java.util.Collections.emptyMap());
+        ATTRIBUTE_OVERRIDES_VERSION.incrementAndGet();
+    }
+
+    /**
+     * <p>Get the number of times attribute value overrides were changed so far.</p>
+     * The version is incremented after each change is visible to attribute readers,
+     * so state derived from attribute values read before the version was taken
+     * should be discarded once the version changes.
+     *
+     * @see #overrideAttributeValue(Field, Class, String, Object)
+     */
+    public static long getAttributeOverridesVersion() {
+        return ATTRIBUTE_OVERRIDES_VERSION.get();
+    }
+
+    private static java.lang.reflect.Parameter getParameter(Executable executable, int parameter) {
+
+        if (parameter < 0 || parameter >= executable.getParameterCount()) {
+            throw new IllegalArgumentException(String.format("Parameter index %d out of range for %s", parameter, executable));
+        }
+        return executable.getParameters()[parameter];
+    }
+
+    /**
+     * <p>Transitive closure of meta-annotations present on annotation types.</p>
+     * Each meta-annotation type is mapped to the first instance of it found while walking
+     * the meta-annotation graph breadth-first, so annotations present directly on the annotation
+     * type take precedence over annotations composed deeper in the graph.
+     */
+    private static final ClassValue<java.util.Map<Class<? extends Annotation>, Annotation>> META_ANNOTATIONS =
+            new ClassValue<java.util.Map<Class<? extends Annotation>, Annotation>>() {
+        @Override
+        protected java.util.Map<Class<? extends Annotation>, Annotation> computeValue(Class<?> type) {
+
+            java.util.Map<Class<? extends Annotation>, Annotation> closure = new java.util.LinkedHashMap<>();
+            java.util.Deque<Class<?>> queue = new java.util.ArrayDeque<>();
+            queue.add(type);
+            /*
+             * Annotation types often annotate each other like @Documented and
+             * @Retention do so we need to watch out for cycles in the graph
+             */
+            while (!queue.isEmpty()) {
+                for (Annotation annotation : queue.poll().getDeclaredAnnotations())
+                {
+                    Class<? extends Annotation> annotationType = annotation.annotationType();
+                    if (annotationType != type && closure.putIfAbsent(annotationType, annotation) == null) {
+                        queue.add(annotationType);
+                    }
+                }
+            }
+            return java.util.Collections.unmodifiableMap(closure);
+        }
+    };
+
+    /**
+     * Annotations found on classes, their superclasses or interfaces either directly or
+     * composed through meta-annotations, mapped to annotation types they were resolved for.
+     * @see #findAnnotation(Class, Class)
+     */
+    private static final ClassValue<java.util.Map<Class<? extends Annotation>, Object>> INHERITED_ANNOTATIONS =
+            new ClassValue<java.util.Map<Class<? extends Annotation>, Object>>() {
+        @Override
+        protected java.util.Map<Class<? extends Annotation>, Object> computeValue(Class<?> type) {
+            return new java.util.concurrent.ConcurrentHashMap<>();
+        }
+    };
+
+    /* Marks annotation types that were not found in the class hierarchy */
+    private static final Object NOT_FOUND = new Object();
+
+    /**
+     * Lazily loaded holder of the annotation index built at compile time.
+     * @see AnnotationIndex#load(Class)
+     */
+    private static final class IndexHolder {
+        private static final AnnotationIndex INDEX = AnnotationIndex.load(AnnotationUtils.class);
+    }
+
+    /**
+     * <p>Get all program elements annotated with the given annotation that were recorded
+     * in the compile time annotation index of all jars on the classpath.</p>
+     * The index is read only once, on the first call to this or any other index method.
+     *
+     * @return unmodifiable list of indexed elements or an empty
+     *         list if no such elements were recorded in the index.
+     * @see io.yooksi.jute.commons.index.AnnotationIndexProcessor
+     */
+    public static java.util.List<AnnotationIndex.Entry> getIndexedElements(Class<? extends Annotation> annotation) {
+        return IndexHolder.INDEX.getEntries(annotation.getName());
+    }
+
+    /**
+     * <p>Get all classes that declare program elements annotated with the given annotation
+     * and were recorded in the compile time annotation index.</p>
+     * Classes are loaded without being initialized. Indexed classes that
+     * can no longer be found on the classpath are skipped.
+     *
+     * @return set of indexed classes in the order they were indexed.
+     * @see #getIndexedElements(Class)
+     */
+    public static java.util.Set<Class<?>> getIndexedClasses(Class<? extends Annotation> annotation) {
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader == null) {
+            loader = AnnotationUtils.class.getClassLoader();
+        }
+        java.util.Set<Class<?>> classes = new java.util.LinkedHashSet<>();
+        for (AnnotationIndex.Entry entry : getIndexedElements(annotation)) {
+            try {
+                classes.add(entry.loadClass(loader));
+            }
+            catch (ClassNotFoundException e) {
+                LibraryLogger.warn("Unable to find indexed class %s", entry.getClassName());
+            }
         }
+        return classes;
     }
 
     /**
-     * @return {@code true} if the supplied annotation belongs to this library.
+     * @return {@code true} if the supplied annotation belongs to this library,
+     *         either directly or by being composed of a library annotation.
      * @see LibraryAnnotation
      */
     public static boolean isLibraryAnnotation(Annotation annotation) {
-        return annotation.annotationType().getDeclaredAnnotation(LibraryAnnotation.class) != null;
+        return isMetaAnnotated(annotation.annotationType(), LibraryAnnotation.class);
+    }
+
+    /**
+     * <p>Check if the given annotation type is annotated with the given meta-annotation,
+     * either directly or transitively through other meta-annotations.</p>
+     * The meta-annotation graph of each annotation type is walked only once,
+     * after that this check is a constant time lookup.
+     *
+     * @param type annotation type to check
+     * @param metaAnnotation meta-annotation type to search for
+     * @return {@code true} if the meta-annotation is present in the meta-annotation graph.
+     */
+    public static boolean isMetaAnnotated(Class<? extends Annotation> type, Class<? extends Annotation> metaAnnotation) {
+        return META_ANNOTATIONS.get(type).containsKey(metaAnnotation);
+    }
+
+    /**
+     * Get the instance of the given meta-annotation present in the meta-annotation
+     * graph of the given annotation type, either directly or transitively.
+     *
+     * @return the meta-annotation instance or {@code null} if not present.
+     * @see #isMetaAnnotated(Class, Class)
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> @Nullable A getMetaAnnotation(Class<? extends Annotation> type, Class<A> metaAnnotation) {
+        return (A) META_ANNOTATIONS.get(type).get(metaAnnotation);
     }
 
+    /**
+     * <p>Find an annotation of the given type on the given class, its interfaces or superclasses.</p>
+     * <p>
+     *     Each class in the hierarchy is searched for a directly present annotation first and then for
+     *     an annotation composed through meta-annotations, before moving on to the interfaces it implements
+     *     and finally its superclass. Unlike {@link java.lang.annotation.Inherited} this search works for all
+     *     annotation types and also includes interfaces.
+     * </p>
+     * The search result is cached per class so repeated lookups are map reads.
+     *
+     * @return the annotation found or {@code null} if the annotation is not present in the class hierarchy.
+     */
+    @SuppressWarnings("unchecked")
+    public static <A extends Annotation> @Nullable A findAnnotation(Class<?> clazz, Class<A> type) {
+
+        java.util.Map<Class<? extends Annotation>, Object> annotations = INHERITED_ANNOTATIONS.get(clazz);
+        Object annotation = annotations.get(type);
+        if (annotation == null)
+        {
+            annotation = searchAnnotation(clazz, type, new java.util.HashSet<>());
+            annotations.put(type, annotation != null ? annotation : NOT_FOUND);
+        }
+        return annotation != NOT_FOUND ? (A) annotation : null;
+    }
+
+    /**
+     * @return {@code true} if an annotation of the given type is present on the
+     *         given class, its interfaces or superclasses, directly or composed.
+     * @see #findAnnotation(Class, Class)
+     */
+    public static boolean isAnnotated(Class<?> clazz, Class<? extends Annotation> type) {
+        return findAnnotation(clazz, type) != null;
+    }
+
+    private static <A extends Annotation> @Nullable A searchAnnotation(@Nullable Class<?> clazz, Class<A> type,
+                                                                       java.util.Set<Class<?>> visited) {
+        if (clazz == null || !visited.add(clazz)) {
+            return null;
+        }
+        A annotation = clazz.getDeclaredAnnotation(type);
+        if (annotation != null) {
+            return annotation;
+        }
+        for (Annotation declared : clazz.getDeclaredAnnotations()) {
+            if ((annotation = getMetaAnnotation(declared.annotationType(), type)) != null) return annotation;
+        }
+        for (Class<?> anInterface : clazz.getInterfaces()) {
+            if ((annotation = searchAnnotation(anInterface, type, visited)) != null) return annotation;
+        }
+        return searchAnnotation(clazz.getSuperclass(), type, visited);
+    }
+
+    /* Initialized after all attribute caches it depends on */
+    private static final BooleanAttribute<Contract> CONTRACT_PURE = getBooleanAttribute(Contract.class, "pure");
+
     /**
      * @return {@code true} only if the IntelliJ Contract annotation instance
      * passed as a method parameter guarantees operation immutability <i>(pure = true)</i>
      */
     @Contract(pure = true)
     public static boolean isMethodContractPure(Contract contract) {
-        return getAttributeValue(contract, "pure", boolean.class);
+        return CONTRACT_PURE.get(contract);
     }
 
     /**
      * Changes the annotation value for the given key of the given annotation
      * to newValue and return the previous value.
-     *
-     * @author Balder@stackoverflow
-     * @see <a href="https://stackoverflow.com/a/28118436/7803527">Origin code on Stackoverflow</a>
+     * <p>
+     *     Previous versions of this method modified internal state of JDK annotation proxies
+     *     which is not thread-safe and no longer possible on recent Java versions. Overrides are
+     *     now registered for the annotated element, which an annotation instance does not know.
+     * </p>
+     * @throws UnsupportedOperationException always, use one of the element overrides instead.
+     * @deprecated use {@link #overrideAttributeValue(Field, Class, String, Object)} or
+     *             {@link #overrideAttributeValue(Executable, int, Class, String, Object)}.
      */
-    @SuppressWarnings({"unchecked", "UnusedReturnValue"})
+    @Deprecated
+    @SuppressWarnings("UnusedReturnValue")
     public static Object changeAnnotationValue(Annotation annotation, String key, Object newValue) {
-        Object handler = Proxy.getInvocationHandler(annotation);
-        Field f;
-        try {
-            f = handler.getClass().getDeclaredField("memberValues");
-        } catch (NoSuchFieldException | SecurityException e) {
-            throw new IllegalStateException(e);
-        }
-        f.setAccessible(true);
-        java.util.Map<String, Object> memberValues;
-        try {
-            memberValues = (java.util.Map<String, Object>) f.get(handler);
-        } catch (IllegalArgumentException | IllegalAccessException e) {
-            throw new IllegalStateException(e);
-        }
-        Object oldValue = memberValues.get(key);
-        if (oldValue == null || oldValue.getClass() != newValue.getClass()) {
-            throw new IllegalArgumentException();
-        }
-        memberValues.put(key, newValue);
-        return oldValue;
+        throw new UnsupportedOperationException(String.format("Unable to change attribute %s of annotation %s " +
+                "without knowing the annotated element", key, annotation.annotationType().getName()));
     }
 }
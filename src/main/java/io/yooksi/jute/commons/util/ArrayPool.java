@@ -0,0 +1,363 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p>Pool of reusable {@code byte}, {@code char}, {@code int} and {@code long} arrays.</p>
+ * <p>
+ *     Arrays are grouped in size classes by powers of two, so an acquired array can be longer than
+ *     requested and contains data left over from its previous use. Released arrays are first kept in a
+ *     small cache local to the releasing thread, then in a lock-free tier shared by all threads. When
+ *     both are full the array is dropped and left to the garbage collector.
+ * </p><p>
+ *     Requests for arrays longer than the largest size class are served with new arrays of the exact
+ *     requested length that are never pooled. Arrays must not be used after they are released,
+ *     and only arrays acquired from the pool should be released to it.
+ * </p>
+ * Hit rate and retained memory are tracked with striped {@link LongAdder} counters. Retained memory
+ * includes arrays held in caches of threads that have since terminated until they are collected.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ArrayPool {
+
+    /* Length of arrays in the smallest size class */
+    private static final int MIN_SHIFT = 4;
+
+    private static final ArrayPool DEFAULT = new ArrayPool(1 << 20, 4, 16);
+
+    private final int classCount, threadCacheSize, sharedCacheSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder drops = new LongAdder();
+    private final LongAdder retainedBytes = new LongAdder();
+
+    private final TypePool<byte[]> bytes;
+    private final TypePool<char[]> chars;
+    private final TypePool<int[]> ints;
+    private final TypePool<long[]> longs;
+
+    /**
+     * Create a new pool with the given cache limits.
+     *
+     * @param maxArrayLength length of arrays in the largest size class, rounded up to a power of two.
+     * @param threadCacheSize number of arrays per size class and element type cached by each thread.
+     * @param sharedCacheSize number of arrays per size class and element type cached for all threads.
+     * @throws IllegalArgumentException if the maximum array length is not positive
+     *         or larger than {@code 2^30}, or if any of the cache sizes are negative.
+     */
+    public ArrayPool(@Positive int maxArrayLength, @PositiveOrZero int threadCacheSize, @PositiveOrZero int sharedCacheSize) {
+
+        if (maxArrayLength <= 0 || maxArrayLength > 1 << 30) {
+            throw new IllegalArgumentException("Invalid maximum array length " + maxArrayLength);
+        }
+        if (threadCacheSize < 0 || sharedCacheSize < 0) {
+            throw new IllegalArgumentException("Cache size cannot be negative");
+        }
+        this.classCount = Math.max(0, sizeClass(maxArrayLength)) + 1;
+        this.threadCacheSize = threadCacheSize;
+        this.sharedCacheSize = sharedCacheSize;
+
+        /* Size classes have to be known before pools are created */
+        bytes = new TypePool<>(byte[]::new, a -> a.length, Byte.BYTES);
+        chars = new TypePool<>(char[]::new, a -> a.length, Character.BYTES);
+        ints = new TypePool<>(int[]::new, a -> a.length, Integer.BYTES);
+        longs = new TypePool<>(long[]::new, a -> a.length, Long.BYTES);
+    }
+
+    /**
+     * @return pool shared by the whole application caching arrays of up to {@code 2^20} elements.
+     */
+    @Contract(pure = true)
+    public static ArrayPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @return an array with at least the given length, either reused or newly allocated.
+     * @throws NegativeArraySizeException if the given length is negative.
+     */
+    public byte[] acquireBytes(@PositiveOrZero int minLength) {
+        return bytes.acquire(minLength);
+    }
+
+    /** @see #acquireBytes(int) */
+    public char[] acquireChars(@PositiveOrZero int minLength) {
+        return chars.acquire(minLength);
+    }
+
+    /** @see #acquireBytes(int) */
+    public int[] acquireInts(@PositiveOrZero int minLength) {
+        return ints.acquire(minLength);
+    }
+
+    /** @see #acquireBytes(int) */
+    public long[] acquireLongs(@PositiveOrZero int minLength) {
+        return longs.acquire(minLength);
+    }
+
+    /**
+     * Return the given array to the pool so it can be reused. Arrays whose length does
+     * not match a size class of this pool are ignored.
+     */
+    public void release(byte[] array) {
+        bytes.release(array);
+    }
+
+    /** @see #release(byte[]) */
+    public void release(char[] array) {
+        chars.release(array);
+    }
+
+    /** @see #release(byte[]) */
+    public void release(int[] array) {
+        ints.release(array);
+    }
+
+    /** @see #release(byte[]) */
+    public void release(long[] array) {
+        longs.release(array);
+    }
+
+    /**
+     * Remove all arrays from the shared tier and the cache of the current thread.
+     * Caches of other threads are left untouched.
+     */
+    public void clear() {
+
+        bytes.clear();
+        chars.clear();
+        ints.clear();
+        longs.clear();
+    }
+
+    /**
+     * @return number of acquired arrays that were reused.
+     */
+    @Contract(pure = true)
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return number of acquired arrays that had to be allocated.
+     */
+    @Contract(pure = true)
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return ratio of acquired arrays that were reused or {@code 0} if no arrays were acquired.
+     */
+    @Contract(pure = true)
+    public double getHitRate() {
+
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * @return number of released arrays that were not retained because caches were full
+     *         or their length did not match a size class.
+     */
+    @Contract(pure = true)
+    public long getDropCount() {
+        return drops.sum();
+    }
+
+    /**
+     * @return approximate number of bytes occupied by arrays currently retained by this pool.
+     */
+    @Contract(pure = true)
+    public long getRetainedBytes() {
+        return retainedBytes.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ArrayPool[hits=%d, misses=%d, retained=%d bytes]",
+                getHitCount(), getMissCount(), getRetainedBytes());
+    }
+
+    /**
+     * @return index of the smallest size class holding arrays of the given length,
+     *         may be larger than the index of the largest size class of this pool.
+     */
+    private static int sizeClass(int length) {
+        return length <= 1 << MIN_SHIFT ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_SHIFT;
+    }
+
+    /**
+     * Arrays of a single element type. Thread caches are stacks per size class,
+     * the shared tier is a flat array of slots grouped by size class.
+     */
+    private final class TypePool<A> {
+
+        private final IntFunction<A> allocator;
+        private final ToIntFunction<A> length;
+        private final int elementBytes;
+
+        private final ThreadLocal<ThreadCache<A>> local;
+        private final AtomicReferenceArray<A> shared = new AtomicReferenceArray<>(classCount * sharedCacheSize);
+
+        private TypePool(IntFunction<A> allocator, ToIntFunction<A> length, int elementBytes) {
+
+            this.allocator = allocator;
+            this.length = length;
+            this.elementBytes = elementBytes;
+
+            /* Thread caches must not reference the pool, see ThreadCache */
+            int classes = classCount, cacheSize = threadCacheSize;
+            this.local = ThreadLocal.withInitial(() -> new ThreadCache<>(classes, cacheSize));
+        }
+
+        private A acquire(int minLength) {
+
+            if (minLength < 0) {
+                throw new NegativeArraySizeException(String.valueOf(minLength));
+            }
+            int sizeClass = sizeClass(minLength);
+            if (sizeClass >= classCount) {
+                misses.increment();
+                return allocator.apply(minLength);
+            }
+            A array = local.get().pop(sizeClass);
+            if (array == null) {
+                array = pollShared(sizeClass);
+            }
+            if (array == null) {
+                misses.increment();
+                return allocator.apply(1 << (sizeClass + MIN_SHIFT));
+            }
+            hits.increment();
+            retainedBytes.add(-bytes(array));
+            return array;
+        }
+
+        private void release(A array) {
+
+            int arrayLength = length.applyAsInt(array);
+            int sizeClass = sizeClass(arrayLength);
+            if (sizeClass >= classCount || arrayLength != 1 << (sizeClass + MIN_SHIFT)) {
+                drops.increment();
+                return;
+            }
+            if (local.get().push(sizeClass, array) || offerShared(sizeClass, array)) {
+                retainedBytes.add(bytes(array));
+            }
+            else drops.increment();
+        }
+
+        private @Nullable A pollShared(int sizeClass) {
+
+            for (int i = sizeClass * sharedCacheSize, end = i + sharedCacheSize; i < end; i++)
+            {
+                A array;
+                if (shared.get(i) != null && (array = shared.getAndSet(i, null)) != null) {
+                    return array;
+                }
+            }
+            return null;
+        }
+
+        private boolean offerShared(int sizeClass, A array) {
+
+            for (int i = sizeClass * sharedCacheSize, end = i + sharedCacheSize; i < end; i++) {
+                if (shared.get(i) == null && shared.compareAndSet(i, null, array)) return true;
+            }
+            return false;
+        }
+
+        private void clear() {
+
+            for (int i = 0; i < shared.length(); i++)
+            {
+                A array = shared.getAndSet(i, null);
+                if (array != null) {
+                    retainedBytes.add(-bytes(array));
+                }
+            }
+            ThreadCache<A> cache = local.get();
+            for (int sizeClass = 0; sizeClass < classCount; sizeClass++)
+            {
+                for (A array; (array = cache.pop(sizeClass)) != null;) {
+                    retainedBytes.add(-bytes(array));
+                }
+            }
+        }
+
+        private long bytes(A array) {
+            return (long) length.applyAsInt(array) * elementBytes;
+        }
+    }
+
+    /**
+     * Stacks of arrays per size class cached by a single thread. Caches are values of thread locals
+     * and must not reference their pool, otherwise the thread local map of every thread that used the
+     * pool would keep the thread local key strongly reachable and the pool would never be collected.
+     */
+    private static final class ThreadCache<A> {
+
+        private final Object[] arrays;
+        private final int[] counts;
+        private final int size;
+
+        private ThreadCache(int classCount, int size) {
+
+            this.arrays = new Object[classCount * size];
+            this.counts = new int[classCount];
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private @Nullable A pop(int sizeClass) {
+
+            int count = counts[sizeClass];
+            if (count == 0) {
+                return null;
+            }
+            int slot = sizeClass * size + (counts[sizeClass] = count - 1);
+            A array = (A) arrays[slot];
+            arrays[slot] = null;
+            return array;
+        }
+
+        private boolean push(int sizeClass, A array) {
+
+            int count = counts[sizeClass];
+            if (count == size) {
+                return false;
+            }
+            arrays[sizeClass * size + count] = array;
+            counts[sizeClass] = count + 1;
+            return true;
+        }
+    }
+}
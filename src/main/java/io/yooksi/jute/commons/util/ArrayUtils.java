@@ -16,6 +16,7 @@
 package io.yooksi.jute.commons.util;
 
 import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.validation.constraints.Positive;
 import java.lang.reflect.Array;
@@ -24,6 +25,11 @@ import java.lang.reflect.Array;
 @SuppressWarnings({"unused", "WeakerAccess"})
 public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
 
+    /**
+     * Arrays with fewer elements than this are processed sequentially by parallel bulk operations.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
     /**
      * Expand the array forward for one slot and insert the given element
      * to the beginning of the array so that the corresponding index of the
@@ -175,10 +181,9 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      *
      * @throws IndexOutOfBoundsException if copying would cause access of data outside array bounds.
      */
-    @SuppressWarnings("unchecked")
     public static <T> T[] expandArray(T[] array, @Positive int back, @Positive int front) {
 
-        T[] expanded = (T[]) Array.newInstance(array.getClass().getComponentType(), array.length + back + front);
+        T[] expanded = newArray(array, array.length + back + front);
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -192,7 +197,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static byte[] expandArray(byte[] array, @Positive int back, @Positive int front) {
 
-        byte[] expanded = (byte[]) Array.newInstance(Byte.TYPE, array.length + back + front);
+        byte[] expanded = new byte[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -205,7 +210,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static short[] expandArray(short[] array, @Positive int back, @Positive int front) {
 
-        short[] expanded = (short[]) Array.newInstance(Short.TYPE, array.length + back + front);
+        short[] expanded = new short[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -218,7 +223,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static int[] expandArray(int[] array, @Positive int back, @Positive int front) {
 
-        int[] expanded = (int[]) Array.newInstance(Integer.TYPE, array.length + back + front);
+        int[] expanded = new int[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -231,7 +236,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static long[] expandArray(long[] array, @Positive int back, @Positive int front) {
 
-        long[] expanded = (long[]) Array.newInstance(Long.TYPE, array.length + back + front);
+        long[] expanded = new long[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -244,7 +249,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static float[] expandArray(float[] array, @Positive int back, @Positive int front) {
 
-        float[] expanded = (float[]) Array.newInstance(Float.TYPE, array.length + back + front);
+        float[] expanded = new float[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -257,7 +262,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static double[] expandArray(double[] array, @Positive int back, @Positive int front) {
 
-        double[] expanded = (double[]) Array.newInstance(Double.TYPE, array.length + back + front);
+        double[] expanded = new double[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -270,7 +275,7 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static boolean[] expandArray(boolean[] array, @Positive int back, @Positive int front) {
 
-        boolean[] expanded = (boolean[]) Array.newInstance(Boolean.TYPE, array.length + back + front);
+        boolean[] expanded = new boolean[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
@@ -283,8 +288,740 @@ public class ArrayUtils extends org.apache.commons.lang3.ArrayUtils {
      */
     public static char[] expandArray(char[] array, @Positive int back, @Positive int front) {
 
-        char[] expanded = (char[]) Array.newInstance(Character.TYPE, array.length + back + front);
+        char[] expanded = new char[array.length + back + front];
         System.arraycopy(array, 0, expanded, back, array.length);
         return expanded;
     }
+
+    /**
+     * <p>Remove elements in the given index range from a copy of the given array.</p>
+     * The result is allocated only once and remaining elements are copied
+     * with at most two {@code System.arraycopy} calls.
+     *
+     * @param array the array to process
+     * @param from index of the first element to remove <i>(inclusive)</i>
+     * @param to index after the last element to remove <i>(exclusive)</i>
+     * @param <T> array component type
+     * @return a new <i>processed</i> copy of the given array
+     *
+     * @throws IndexOutOfBoundsException if the index range is out of array bounds.
+     */
+    public static <T> T[] removeRange(T[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        T[] result = newArray(array, array.length - (to - from));
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * <p>Replace elements in the given index range of a copy of the given array with the given elements.</p>
+     * The replacement can be shorter or longer than the replaced range. The result is allocated
+     * only once and every element ending up in the result is copied exactly once.
+     *
+     * @param array the array to process
+     * @param from index of the first element to replace <i>(inclusive)</i>
+     * @param to index after the last element to replace <i>(exclusive)</i>
+     * @param elements elements to insert in place of the removed range
+     * @param <T> array component type
+     * @return a new <i>processed</i> copy of the given array
+     *
+     * @throws IndexOutOfBoundsException if the index range is out of array bounds.
+     */
+    public static <T> T[] splice(T[] array, int from, int to, T[] elements) {
+
+        checkRange(from, to, array.length);
+        T[] result = newArray(array, array.length - (to - from) + elements.length);
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(T[] template, int length) {
+        return (T[]) Array.newInstance(template.getClass().getComponentType(), length);
+    }
+
+    private static void checkRange(int from, int to, int length) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException(String.format("Range: [%d, %d), Length: %d", from, to, length));
+        }
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static byte[] removeRange(byte[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        byte[] result = new byte[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static byte[] splice(byte[] array, int from, int to, byte[] elements) {
+
+        checkRange(from, to, array.length);
+        byte[] result = new byte[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static short[] removeRange(short[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        short[] result = new short[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static short[] splice(short[] array, int from, int to, short[] elements) {
+
+        checkRange(from, to, array.length);
+        short[] result = new short[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static int[] removeRange(int[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        int[] result = new int[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static int[] splice(int[] array, int from, int to, int[] elements) {
+
+        checkRange(from, to, array.length);
+        int[] result = new int[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static long[] removeRange(long[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        long[] result = new long[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static long[] splice(long[] array, int from, int to, long[] elements) {
+
+        checkRange(from, to, array.length);
+        long[] result = new long[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static float[] removeRange(float[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        float[] result = new float[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static float[] splice(float[] array, int from, int to, float[] elements) {
+
+        checkRange(from, to, array.length);
+        float[] result = new float[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static double[] removeRange(double[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        double[] result = new double[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static double[] splice(double[] array, int from, int to, double[] elements) {
+
+        checkRange(from, to, array.length);
+        double[] result = new double[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static boolean[] removeRange(boolean[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        boolean[] result = new boolean[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static boolean[] splice(boolean[] array, int from, int to, boolean[] elements) {
+
+        checkRange(from, to, array.length);
+        boolean[] result = new boolean[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * Remove elements in the given index range from a copy of the given array.
+     * @see #removeRange(Object[], int, int)
+     */
+    public static char[] removeRange(char[] array, int from, int to) {
+
+        checkRange(from, to, array.length);
+        char[] result = new char[array.length - (to - from)];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(array, to, result, from, array.length - to);
+        return result;
+    }
+
+    /**
+     * Replace elements in the given index range of a copy of the given array with the given elements.
+     * @see #splice(Object[], int, int, Object[])
+     */
+    public static char[] splice(char[] array, int from, int to, char[] elements) {
+
+        checkRange(from, to, array.length);
+        char[] result = new char[array.length - (to - from) + elements.length];
+        System.arraycopy(array, 0, result, 0, from);
+        System.arraycopy(elements, 0, result, from, elements.length);
+        System.arraycopy(array, to, result, from + elements.length, array.length - to);
+        return result;
+    }
+
+    /**
+     * <p>Assign the given value to each element of the given array.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split into ranges
+     * that are filled in parallel using the common fork-join pool.
+     *
+     * @param array the array to fill
+     * @param value value to assign
+     */
+    public static void parallelFill(int[] array, int value) {
+        ParallelArrays.forEachRange(array.length, (from, to) -> java.util.Arrays.fill(array, from, to, value));
+    }
+
+    /**
+     * <p>Replace each element of the given array with the result of applying the given operator to it.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split into ranges that are
+     * transformed in parallel using the common fork-join pool, so the operator has to be thread-safe
+     * and should not depend on the order in which elements are processed.
+     *
+     * @param array the array to transform
+     * @param operator function applied to each element
+     */
+    public static void parallelTransform(int[] array, java.util.function.IntUnaryOperator operator) {
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) array[i] = operator.applyAsInt(array[i]);
+        });
+    }
+
+    /**
+     * <p>Replace each element of the given array with the sum of all elements up to and including it.</p>
+     * <p>
+     *     Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split into ranges. Each range
+     *     is summed up in parallel, then the totals of preceding ranges are added to each range in parallel.
+     * </p>
+     * Sums overflow silently the same way as sequential {@code int} arithmetic does.
+     *
+     * @param array the array to process
+     */
+    public static void parallelPrefixSum(int[] array) {
+
+        if (array.length == 0) {
+            return;
+        }
+        int rangeSize = ParallelArrays.rangeSize(array.length);
+        int[] totals = new int[(array.length + rangeSize - 1) / rangeSize];
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            int sum = 0;
+            for (int i = from; i < to; i++) array[i] = sum += array[i];
+            totals[from / rangeSize] = sum;
+        });
+        for (int i = 1; i < totals.length; i++) {
+            totals[i] += totals[i - 1];
+        }
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            int range = from / rangeSize;
+            if (range > 0) {
+                int offset = totals[range - 1];
+                for (int i = from; i < to; i++) array[i] += offset;
+            }
+        });
+    }
+
+    /**
+     * <p>Compute the sum of all elements of the given array.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split
+     * into ranges that are summed up in parallel using the common fork-join pool.
+     *
+     * @param array the array to process
+     * @return sum of all elements or {@code 0} if the array is empty
+     */
+    public static long parallelSum(int[] array) {
+
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) sum += array[i];
+            return sum;
+        }, Long::sum);
+    }
+
+    /**
+     * <p>Find the smallest element of the given array.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split
+     * into ranges that are searched in parallel using the common fork-join pool.
+     *
+     * @param array the array to search
+     * @return the smallest element of the given array
+     * @throws IllegalArgumentException if the array is empty
+     */
+    public static int parallelMin(int[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            int result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.min(result, array[i]);
+            return result;
+        }, Math::min);
+    }
+
+    /**
+     * <p>Find the largest element of the given array.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split
+     * into ranges that are searched in parallel using the common fork-join pool.
+     *
+     * @param array the array to search
+     * @return the largest element of the given array
+     * @throws IllegalArgumentException if the array is empty
+     */
+    public static int parallelMax(int[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            int result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.max(result, array[i]);
+            return result;
+        }, Math::max);
+    }
+
+    /**
+     * <p>Find the index of the first occurrence of the given value in the given array.</p>
+     * Arrays holding at least {@link #PARALLEL_THRESHOLD} elements are split into ranges that are
+     * searched in parallel using the common fork-join pool. Ranges following an already found
+     * occurrence are skipped, so the result is always the lowest index of the value.
+     *
+     * @param array the array to search
+     * @param value value to find
+     * @return index of the first occurrence or {@link #INDEX_NOT_FOUND} if the value was not found
+     */
+    public static int parallelIndexOf(int[] array, int value) {
+
+        return ParallelArrays.indexOf(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (array[i] == value) return i;
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * @return {@code true} if the given array contains the given value, see {@link #parallelIndexOf(int[], int)}.
+     */
+    public static boolean parallelContains(int[] array, int value) {
+        return parallelIndexOf(array, value) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Assign the given value to each element of the given array in parallel.
+     * @see #parallelFill(int[], int)
+     */
+    public static void parallelFill(long[] array, long value) {
+        ParallelArrays.forEachRange(array.length, (from, to) -> java.util.Arrays.fill(array, from, to, value));
+    }
+
+    /**
+     * Replace each element of the given array with the result of applying the given operator in parallel.
+     * @see #parallelTransform(int[], java.util.function.IntUnaryOperator)
+     */
+    public static void parallelTransform(long[] array, java.util.function.LongUnaryOperator operator) {
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) array[i] = operator.applyAsLong(array[i]);
+        });
+    }
+
+    /**
+     * Replace each element of the given array with the sum of all elements up to and including it in parallel.
+     * @see #parallelPrefixSum(int[])
+     */
+    public static void parallelPrefixSum(long[] array) {
+
+        if (array.length == 0) {
+            return;
+        }
+        int rangeSize = ParallelArrays.rangeSize(array.length);
+        long[] totals = new long[(array.length + rangeSize - 1) / rangeSize];
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) array[i] = sum += array[i];
+            totals[from / rangeSize] = sum;
+        });
+        for (int i = 1; i < totals.length; i++) {
+            totals[i] += totals[i - 1];
+        }
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            int range = from / rangeSize;
+            if (range > 0) {
+                long offset = totals[range - 1];
+                for (int i = from; i < to; i++) array[i] += offset;
+            }
+        });
+    }
+
+    /**
+     * @return sum of all elements of the given array computed in parallel.
+     * @see #parallelSum(int[])
+     */
+    public static long parallelSum(long[] array) {
+
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) sum += array[i];
+            return sum;
+        }, Long::sum);
+    }
+
+    /**
+     * @return the smallest element of the given array found in parallel.
+     * @see #parallelMin(int[])
+     */
+    public static long parallelMin(long[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            long result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.min(result, array[i]);
+            return result;
+        }, Math::min);
+    }
+
+    /**
+     * @return the largest element of the given array found in parallel.
+     * @see #parallelMax(int[])
+     */
+    public static long parallelMax(long[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            long result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.max(result, array[i]);
+            return result;
+        }, Math::max);
+    }
+
+    /**
+     * @return index of the first occurrence of the given value in the given array found in parallel.
+     * @see #parallelIndexOf(int[], int)
+     */
+    public static int parallelIndexOf(long[] array, long value) {
+
+        return ParallelArrays.indexOf(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (array[i] == value) return i;
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * @return {@code true} if the given array contains the given value searching in parallel.
+     * @see #parallelContains(int[], int)
+     */
+    public static boolean parallelContains(long[] array, long value) {
+        return parallelIndexOf(array, value) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Assign the given value to each element of the given array in parallel.
+     * @see #parallelFill(int[], int)
+     */
+    public static void parallelFill(double[] array, double value) {
+        ParallelArrays.forEachRange(array.length, (from, to) -> java.util.Arrays.fill(array, from, to, value));
+    }
+
+    /**
+     * Replace each element of the given array with the result of applying the given operator in parallel.
+     * @see #parallelTransform(int[], java.util.function.IntUnaryOperator)
+     */
+    public static void parallelTransform(double[] array, java.util.function.DoubleUnaryOperator operator) {
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) array[i] = operator.applyAsDouble(array[i]);
+        });
+    }
+
+    /**
+     * Replace each element of the given array with the sum of all elements up to and including it in parallel. Note that rounding errors can differ from a sequential computation.
+     * @see #parallelPrefixSum(int[])
+     */
+    public static void parallelPrefixSum(double[] array) {
+
+        if (array.length == 0) {
+            return;
+        }
+        int rangeSize = ParallelArrays.rangeSize(array.length);
+        double[] totals = new double[(array.length + rangeSize - 1) / rangeSize];
+
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            double sum = 0;
+            for (int i = from; i < to; i++) array[i] = sum += array[i];
+            totals[from / rangeSize] = sum;
+        });
+        for (int i = 1; i < totals.length; i++) {
+            totals[i] += totals[i - 1];
+        }
+        ParallelArrays.forEachRange(array.length, (from, to) -> {
+            int range = from / rangeSize;
+            if (range > 0) {
+                double offset = totals[range - 1];
+                for (int i = from; i < to; i++) array[i] += offset;
+            }
+        });
+    }
+
+    /**
+     * @return sum of all elements of the given array computed in parallel. Note that rounding errors can differ from a sequential computation.
+     * @see #parallelSum(int[])
+     */
+    public static double parallelSum(double[] array) {
+
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            double sum = 0;
+            for (int i = from; i < to; i++) sum += array[i];
+            return sum;
+        }, Double::sum);
+    }
+
+    /**
+     * @return the smallest element of the given array found in parallel. If any element is {@code NaN} the result is {@code NaN}.
+     * @see #parallelMin(int[])
+     */
+    public static double parallelMin(double[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            double result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.min(result, array[i]);
+            return result;
+        }, Math::min);
+    }
+
+    /**
+     * @return the largest element of the given array found in parallel. If any element is {@code NaN} the result is {@code NaN}.
+     * @see #parallelMax(int[])
+     */
+    public static double parallelMax(double[] array) {
+
+        if (array.length == 0) {
+            throw new IllegalArgumentException("Array is empty");
+        }
+        return ParallelArrays.reduce(array.length, (from, to) -> {
+            double result = array[from];
+            for (int i = from + 1; i < to; i++) result = Math.max(result, array[i]);
+            return result;
+        }, Math::max);
+    }
+
+    /**
+     * @return index of the first occurrence of the given value in the given array found in parallel.
+     * @see #parallelIndexOf(int[], int)
+     */
+    public static int parallelIndexOf(double[] array, double value) {
+
+        return ParallelArrays.indexOf(array.length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                if (array[i] == value) return i;
+            }
+            return INDEX_NOT_FOUND;
+        });
+    }
+
+    /**
+     * @return {@code true} if the given array contains the given value searching in parallel.
+     * @see #parallelContains(int[], int)
+     */
+    public static boolean parallelContains(double[] array, double value) {
+        return parallelIndexOf(array, value) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * <p>Find the index of the given value in the array starting at the given index.</p>
+     * <p>
+     *     Hides the commons-lang implementation with a faster one that compares multiple elements per
+     *     loop iteration and scans the array eight bytes at a time on Java 9 and later.
+     * </p>
+     * A negative start index is treated as zero, a start index larger
+     * than the array length returns {@link #INDEX_NOT_FOUND}.
+     *
+     * @param array the array to search through, may be {@code null}
+     * @param valueToFind the value to find
+     * @param startIndex the index to start searching at
+     * @return the index of the value within the array or {@link #INDEX_NOT_FOUND}
+     *         if the value was not found or the array is {@code null}.
+     */
+    public static int indexOf(@Nullable byte[] array, byte valueToFind, int startIndex) {
+        return array == null ? INDEX_NOT_FOUND : ByteSearch.indexOf(array, valueToFind, Math.max(0, startIndex), array.length);
+    }
+
+    /**
+     * Find the index of the given value in the array.
+     * @see #indexOf(byte[], byte, int)
+     */
+    public static int indexOf(@Nullable byte[] array, byte valueToFind) {
+        return indexOf(array, valueToFind, 0);
+    }
+
+    /**
+     * @return {@code true} if the given array contains the given value.
+     * @see #indexOf(byte[], byte, int)
+     */
+    public static boolean contains(@Nullable byte[] array, byte valueToFind) {
+        return indexOf(array, valueToFind, 0) != INDEX_NOT_FOUND;
+    }
+
+    /**
+     * <p>Compare the given arrays for equality of their elements.</p>
+     * Unlike the deprecated {@link #isEquals(Object, Object)} inherited from commons-lang this
+     * delegates to {@link java.util.Arrays#equals(byte[], byte[])} which is an intrinsic that
+     * compares whole vector registers at a time on Java 9 and later. Floating point
+     * elements are compared by their bits, so {@code NaN} elements are equal.
+     *
+     * @return {@code true} if both arrays are {@code null} or hold the same elements.
+     */
+    public static boolean isEquals(@Nullable byte[] array1, @Nullable byte[] array2) {
+        return java.util.Arrays.equals(array1, array2);
+    }
+
+    /**
+     * Compare the given arrays for equality of their elements.
+     * @see #isEquals(byte[], byte[])
+     */
+    public static boolean isEquals(@Nullable int[] array1, @Nullable int[] array2) {
+        return java.util.Arrays.equals(array1, array2);
+    }
+
+    /**
+     * Compare the given arrays for equality of their elements.
+     * @see #isEquals(byte[], byte[])
+     */
+    public static boolean isEquals(@Nullable long[] array1, @Nullable long[] array2) {
+        return java.util.Arrays.equals(array1, array2);
+    }
+
+    /**
+     * Compare the given arrays for equality of their elements.
+     * @see #isEquals(byte[], byte[])
+     */
+    public static boolean isEquals(@Nullable float[] array1, @Nullable float[] array2) {
+        return java.util.Arrays.equals(array1, array2);
+    }
+
+    /**
+     * Compare the given arrays for equality of their elements.
+     * @see #isEquals(byte[], byte[])
+     */
+    public static boolean isEquals(@Nullable double[] array1, @Nullable double[] array2) {
+        return java.util.Arrays.equals(array1, array2);
+    }
 }
@@ -0,0 +1,504 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.IBuilder;
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import io.yooksi.jute.commons.validator.BeanValidator;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>Copies bean properties from instances of a source type to instances of a target type.</p>
+ * <p>
+ *     Source and target types are inspected only once when the copier is built. Each copied
+ *     property is read through its getter and written through its setter by accessors generated
+ *     with {@link java.lang.invoke.LambdaMetafactory}. Getters and setters that are not accessible
+ *     are invoked through private accessible copies, the methods cached by the {@code Introspector}
+ *     are never made accessible. Types that are not public fall back to slower accessors, see
+ *     {@link LambdaFactory}.
+ * </p>
+ * <p>
+ *     Primitive properties copied to {@code int}, {@code long} or {@code double} properties without
+ *     a converter are copied with primitive accessors and are never boxed. Other primitive types,
+ *     conversions and widening to other types box values. Note that copying is still a loop of
+ *     interface calls shared by all properties of all copiers, so the calls are megamorphic and
+ *     cannot be inlined the way hand-written code is. Expect copying small beans to be about an
+ *     order of magnitude slower than hand-written code, see {@code BeanCopyBenchmark}.
+ * </p>
+ * <p>
+ *     By default properties are matched by name and copied only when the source property type
+ *     is assignable to the target property type. Properties can be mapped to different names,
+ *     ignored or converted with conversion functions. Source properties with {@code null} values
+ *     are not copied to target properties of primitive types.
+ * </p>
+ * Copiers are immutable and thread-safe. Build them once and reuse them.
+ *
+ * <pre>{@code
+ * BeanCopier<UserEntity, UserDto> copier = BeanCopier.create(UserEntity.class, UserDto.class)
+ *         .map("emailAddress", "email").ignore("password").validate().build();
+ * UserDto dto = copier.copy(entity);
+ * }</pre>
+ *
+ * @param <S> type of the source bean
+ * @param <T> type of the target bean
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class BeanCopier<S, T> {
+
+    private final Class<S> sourceType;
+    private final Class<T> targetType;
+    private final PropertyCopier[] properties;
+
+    private final @Nullable Supplier<T> constructor;
+    private final @Nullable Class<?>[] groups;
+
+    private BeanCopier(Builder<S, T> builder, PropertyCopier[] properties) {
+
+        this.sourceType = builder.sourceType;
+        this.targetType = builder.targetType;
+        this.properties = properties;
+        this.constructor = createConstructor(targetType);
+        this.groups = builder.groups;
+    }
+
+    /**
+     * Create a new builder for a copier that copies properties between the given types.
+     */
+    public static <S, T> Builder<S, T> create(Class<S> sourceType, Class<T> targetType) {
+        return new Builder<>(sourceType, targetType);
+    }
+
+    /**
+     * Copy properties of the given source bean to a new instance of the target type.
+     *
+     * @throws IllegalStateException if the target type does not declare a constructor without parameters.
+     * @see #copy(Object, Object)
+     */
+    public T copy(S source) {
+
+        if (constructor == null) {
+            throw new IllegalStateException("Unable to find default constructor in class " + targetType.getName());
+        }
+        return copy(source, constructor.get());
+    }
+
+    /**
+     * Copy properties of the given source bean to the given target bean.
+     * When validation was enabled the target bean is validated after copying.
+     *
+     * @return the given target bean <i>(for convenience)</i>
+     * @see BeanValidator#validate(Object, Class[])
+     */
+    public T copy(S source, T target) {
+
+        for (PropertyCopier property : properties) {
+            property.copy(source, target);
+        }
+        return groups != null ? BeanValidator.validate(target, groups) : target;
+    }
+
+    /**
+     * @return names of target properties copied by this copier in the order they are copied.
+     */
+    @Contract(pure = true)
+    public java.util.List<String> getCopiedProperties() {
+
+        java.util.List<String> names = new java.util.ArrayList<>(properties.length);
+        for (PropertyCopier property : properties) {
+            names.add(property.name);
+        }
+        return names;
+    }
+
+    @Contract(pure = true)
+    public Class<S> getSourceType() {
+        return sourceType;
+    }
+
+    @Contract(pure = true)
+    public Class<T> getTargetType() {
+        return targetType;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BeanCopier[%s -> %s, properties=%d]",
+                sourceType.getSimpleName(), targetType.getSimpleName(), properties.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> @Nullable Supplier<T> createConstructor(Class<T> type) {
+
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return LambdaFactory.implement(Supplier.class, MethodHandles.lookup().unreflectConstructor(constructor));
+        }
+        catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return bean properties of the given type mapped to property names.
+     */
+    private static java.util.Map<String, PropertyDescriptor> getProperties(Class<?> type) {
+
+        BeanInfo info;
+        try {
+            info = Introspector.getBeanInfo(type, Object.class);
+        }
+        catch (IntrospectionException e) {
+            throw new IllegalArgumentException("Unable to introspect bean class " + type.getName(), e);
+        }
+        java.util.Map<String, PropertyDescriptor> properties = new java.util.LinkedHashMap<>();
+        for (PropertyDescriptor descriptor : info.getPropertyDescriptors()) {
+            properties.put(descriptor.getName(), descriptor);
+        }
+        return properties;
+    }
+
+    /**
+     * @return {@code true} if both types are primitive or primitive wrapper types that differ, which
+     *         for types assignable to each other means a widening primitive conversion is required.
+     */
+    private static boolean isPrimitiveWidening(Class<?> from, Class<?> to) {
+
+        Class<?> fromPrimitive = ClassUtils.wrapperToPrimitive(ClassUtils.primitiveToWrapper(from));
+        Class<?> toPrimitive = ClassUtils.wrapperToPrimitive(ClassUtils.primitiveToWrapper(to));
+        return fromPrimitive != null && toPrimitive != null && fromPrimitive != toPrimitive;
+    }
+
+    /**
+     * @return function that converts boxed primitive values to the given wrapper type.
+     * @throws IllegalArgumentException if primitive values cannot be widened to the given type.
+     */
+    private static Function<Object, Object> getWideningConverter(Class<?> wrapper) {
+
+        Function<Object, Number> toNumber = v -> v instanceof Character ? (int) (Character) v : (Number) v;
+        if (wrapper == Integer.class) {
+            return v -> v != null ? toNumber.apply(v).intValue() : null;
+        }
+        else if (wrapper == Long.class) {
+            return v -> v != null ? toNumber.apply(v).longValue() : null;
+        }
+        else if (wrapper == Float.class) {
+            return v -> v != null ? toNumber.apply(v).floatValue() : null;
+        }
+        else if (wrapper == Double.class) {
+            return v -> v != null ? toNumber.apply(v).doubleValue() : null;
+        }
+        /* Byte can be widened to short */
+        else if (wrapper == Short.class) {
+            return v -> v != null ? toNumber.apply(v).shortValue() : null;
+        }
+        throw new IllegalArgumentException("Unable to widen primitive values to " + wrapper.getName());
+    }
+
+    /**
+     * @return {@code true} if values of the given primitive type are copied to properties of
+     *         the given type by primitive accessors without boxing. Values of smaller types
+     *         are widened by the accessors when required.
+     */
+    private static boolean isSpecialized(Class<?> from, Class<?> to) {
+        return from.isPrimitive() && (to == int.class || to == long.class || to == double.class);
+    }
+
+    /**
+     * Copies a single property using generated accessors.
+     */
+    private static abstract class PropertyCopier {
+
+        final String name;
+
+        PropertyCopier(String name) {
+            this.name = name;
+        }
+
+        abstract void copy(Object source, Object target);
+
+        /**
+         * Create a copier for values of the given source type copied to properties of the given target
+         * type. Values are copied with primitive accessors when possible, otherwise they are boxed.
+         *
+         * @param getter direct method handle of the source property getter
+         * @param setter direct method handle of the target property setter
+         */
+        @SuppressWarnings("unchecked")
+        static PropertyCopier create(String name, Class<?> from, Class<?> to, MethodHandle getter,
+                                     MethodHandle setter, @Nullable Function<Object, Object> converter) {
+
+            if (converter == null && isSpecialized(from, to))
+            {
+                if (to == int.class) {
+                    return new IntCopier(name, LambdaFactory.implement(ToIntFunction.class, getter),
+                            LambdaFactory.implement(ObjIntConsumer.class, setter));
+                }
+                else if (to == long.class) {
+                    return new LongCopier(name, LambdaFactory.implement(ToLongFunction.class, getter),
+                            LambdaFactory.implement(ObjLongConsumer.class, setter));
+                }
+                return new DoubleCopier(name, LambdaFactory.implement(ToDoubleFunction.class, getter),
+                        LambdaFactory.implement(ObjDoubleConsumer.class, setter));
+            }
+            return new ReferenceCopier(name, LambdaFactory.implement(Function.class, getter),
+                    LambdaFactory.implement(BiConsumer.class, setter), converter, to.isPrimitive());
+        }
+    }
+
+    /**
+     * Copies boxed property values using an optional converter.
+     */
+    private static final class ReferenceCopier extends PropertyCopier {
+
+        private final Function<Object, Object> getter;
+        private final BiConsumer<Object, Object> setter;
+        private final @Nullable Function<Object, Object> converter;
+        private final boolean primitive;
+
+        private ReferenceCopier(String name, Function<Object, Object> getter, BiConsumer<Object, Object> setter,
+                                @Nullable Function<Object, Object> converter, boolean primitive) {
+
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+
+        @Override
+        void copy(Object source, Object target) {
+
+            Object value = getter.apply(source);
+            if (converter != null) {
+                value = converter.apply(value);
+            }
+            if (value != null || !primitive) {
+                setter.accept(target, value);
+            }
+        }
+    }
+
+    private static final class IntCopier extends PropertyCopier {
+
+        private final ToIntFunction<Object> getter;
+        private final ObjIntConsumer<Object> setter;
+
+        private IntCopier(String name, ToIntFunction<Object> getter, ObjIntConsumer<Object> setter) {
+
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void copy(Object source, Object target) {
+            setter.accept(target, getter.applyAsInt(source));
+        }
+    }
+
+    private static final class LongCopier extends PropertyCopier {
+
+        private final ToLongFunction<Object> getter;
+        private final ObjLongConsumer<Object> setter;
+
+        private LongCopier(String name, ToLongFunction<Object> getter, ObjLongConsumer<Object> setter) {
+
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void copy(Object source, Object target) {
+            setter.accept(target, getter.applyAsLong(source));
+        }
+    }
+
+    private static final class DoubleCopier extends PropertyCopier {
+
+        private final ToDoubleFunction<Object> getter;
+        private final ObjDoubleConsumer<Object> setter;
+
+        private DoubleCopier(String name, ToDoubleFunction<Object> getter, ObjDoubleConsumer<Object> setter) {
+
+            super(name);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        void copy(Object source, Object target) {
+            setter.accept(target, getter.applyAsDouble(source));
+        }
+    }
+
+    /**
+     * Builder used to configure and create instances of {@link BeanCopier}.
+     */
+    public static final class Builder<S, T> implements IBuilder<BeanCopier<S, T>> {
+
+        private final Class<S> sourceType;
+        private final Class<T> targetType;
+
+        /* Target property names mapped to source property names */
+        private final java.util.Map<String, String> mappings = new java.util.HashMap<>();
+        private final java.util.Set<String> ignored = new java.util.HashSet<>();
+
+        private final java.util.Map<String, Function<Object, Object>> propertyConverters = new java.util.HashMap<>();
+        private final java.util.Map<Pair<Class<?>, Class<?>>, Function<Object, Object>> typeConverters =
+                new java.util.HashMap<>();
+
+        private @Nullable Class<?>[] groups;
+
+        private Builder(Class<S> sourceType, Class<T> targetType) {
+
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+        }
+
+        /**
+         * Copy the value of the named source property to the named target property.
+         */
+        public Builder<S, T> map(String sourceProperty, String targetProperty) {
+            mappings.put(targetProperty, sourceProperty); return this;
+        }
+
+        /**
+         * Do not copy values to the given target properties.
+         */
+        public Builder<S, T> ignore(String...targetProperties) {
+            ignored.addAll(java.util.Arrays.asList(targetProperties)); return this;
+        }
+
+        /**
+         * Convert values copied to the named target property with the given function.
+         * Property converters take precedence over type converters.
+         */
+        @SuppressWarnings("unchecked")
+        public <V, R> Builder<S, T> convert(String targetProperty, Function<V, R> converter) {
+            propertyConverters.put(targetProperty, (Function<Object, Object>) converter); return this;
+        }
+
+        /**
+         * Convert values of source properties of the given type copied to
+         * target properties of the given type with the given function.
+         */
+        @SuppressWarnings("unchecked")
+        public <V, R> Builder<S, T> convert(Class<V> sourceType, Class<R> targetType, Function<? super V, ? extends R> converter) {
+            typeConverters.put(Pair.of(ClassUtils.primitiveToWrapper(sourceType),
+                    ClassUtils.primitiveToWrapper(targetType)), (Function<Object, Object>) converter); return this;
+        }
+
+        /**
+         * Validate target beans with {@link BeanValidator} after copying.
+         * @param groups the group or list of groups targeted for validation
+         */
+        public Builder<S, T> validate(Class<?>...groups) {
+            this.groups = groups.clone(); return this;
+        }
+
+        /**
+         * Inspect the source and target types and create a new copier.
+         *
+         * @throws IllegalArgumentException if an explicitly mapped or converted
+         *         property does not exist or cannot be read or written, or an
+         *         explicitly mapped property cannot be copied without a converter.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public BeanCopier<S, T> build() {
+
+            java.util.Map<String, PropertyDescriptor> sourceProperties = getProperties(sourceType);
+            java.util.Map<String, PropertyDescriptor> targetProperties = getProperties(targetType);
+
+            for (String property : propertyConverters.keySet()) {
+                requireProperty(targetProperties, property, targetType, false);
+            }
+            java.util.List<PropertyCopier> copiers = new java.util.ArrayList<>();
+            for (PropertyDescriptor target : targetProperties.values())
+            {
+                String name = target.getName();
+                if (ignored.contains(name) || target.getWriteMethod() == null) {
+                    continue;
+                }
+                String sourceName = mappings.get(name);
+                PropertyDescriptor source = sourceName != null ? requireProperty(sourceProperties, sourceName, sourceType, true) :
+                        sourceProperties.get(name);
+
+                if (source == null || source.getReadMethod() == null) {
+                    continue;
+                }
+                Class<?> from = source.getPropertyType(), to = target.getPropertyType();
+                Function<Object, Object> converter = propertyConverters.get(name);
+                if (converter == null && !ClassUtils.isAssignable(from, to, true))
+                {
+                    converter = typeConverters.get(Pair.of(
+                            ClassUtils.primitiveToWrapper(from), ClassUtils.primitiveToWrapper(to)));
+                    /*
+                     * Incompatible properties matched by name are skipped,
+                     * but explicit mappings are expected to be copied
+                     */
+                    if (converter == null && sourceName != null) {
+                        throw new IllegalArgumentException(String.format("Unable to copy property %s of type %s to " +
+                                "property %s of type %s without a converter", sourceName, from.getName(), name, to.getName()));
+                    }
+                    else if (converter == null) continue;
+                }
+                else if (converter == null && !isSpecialized(from, to) && isPrimitiveWidening(from, to)) {
+                    /* Primitive values are boxed by accessors so widening has to be done explicitly */
+                    converter = getWideningConverter(ClassUtils.primitiveToWrapper(to));
+                }
+                /* Otherwise the value is a reference assignable to the target property type */
+                copiers.add(PropertyCopier.create(name, from, to, MethodInvoker.unreflect(source.getReadMethod()),
+                        MethodInvoker.unreflect(target.getWriteMethod()), converter));
+            }
+            return new BeanCopier<>(this, copiers.toArray(new PropertyCopier[0]));
+        }
+
+        private static PropertyDescriptor requireProperty(java.util.Map<String, PropertyDescriptor> properties,
+                                                          String name, Class<?> type, boolean read) {
+
+            PropertyDescriptor descriptor = properties.get(name);
+            if (descriptor == null || (read ? descriptor.getReadMethod() : descriptor.getWriteMethod()) == null) {
+                throw new IllegalArgumentException(String.format("Unable to find %s property %s in class %s",
+                        read ? "readable" : "writable", name, type.getName()));
+            }
+            return descriptor;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * <p>Growable array of bits packed into {@code long} words.</p>
+ * <p>
+ *     Each element takes a single bit instead of a full byte like in a {@code boolean[]} array,
+ *     and bulk logic operates on 64 elements at a time. The array can be grown at both ends in
+ *     place, which makes it a replacement for {@link ArrayUtils#prepend(boolean, boolean[])} and
+ *     {@link ArrayUtils#expandArray(boolean[], int, int)} that copy the whole array each time.
+ *     Appending is done in amortized constant time, while prepending shifts all words of the array.
+ * </p>
+ * Bits beyond the length of the array are always clear. This class is not thread-safe.
+ *
+ * @see #toBooleanArray()
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class BitArray {
+
+    private static final int ADDRESS_BITS = 6;
+    private static final int WORD_SIZE = 1 << ADDRESS_BITS;
+    private static final long WORD_MASK = -1L;
+
+    private long[] words;
+    private int length;
+
+    /**
+     * Create an empty bit array.
+     */
+    public BitArray() {
+        this(0);
+    }
+
+    /**
+     * Create a bit array of the given length with all bits clear.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public BitArray(@PositiveOrZero int length) {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        }
+        this.words = new long[Math.max(1, wordCount(length))];
+        this.length = length;
+    }
+
+    /**
+     * @return a new bit array holding elements of the given array in the same order.
+     */
+    public static BitArray of(boolean[] array) {
+
+        BitArray bits = new BitArray(array.length);
+        for (int i = 0; i < array.length; i++) {
+            if (array[i]) bits.words[i >>> ADDRESS_BITS] |= 1L << i;
+        }
+        return bits;
+    }
+
+    private static int wordCount(long bits) {
+        return (int) ((bits + WORD_SIZE - 1) >>> ADDRESS_BITS);
+    }
+
+    /**
+     * @return the number of bits in this array.
+     */
+    @Contract(pure = true)
+    public int length() {
+        return length;
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * @return the bit at the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @Contract(pure = true)
+    public boolean get(int index) {
+
+        checkIndex(index);
+        return (words[index >>> ADDRESS_BITS] & (1L << index)) != 0;
+    }
+
+    /**
+     * Set the bit at the given index to the given value.
+     *
+     * @return the previous value of the bit.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public boolean set(int index, boolean value) {
+
+        checkIndex(index);
+        int word = index >>> ADDRESS_BITS;
+        long mask = 1L << index;
+        boolean previous = (words[word] & mask) != 0;
+        if (value) {
+            words[word] |= mask;
+        }
+        else words[word] &= ~mask;
+        return previous;
+    }
+
+    /**
+     * Set all bits in the given index range to the given value.
+     * @throws IndexOutOfBoundsException if the range is out of bounds.
+     */
+    public void fill(int from, int to, boolean value) {
+
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Length: " + length);
+        }
+        if (from == to) {
+            return;
+        }
+        int first = from >>> ADDRESS_BITS, last = (to - 1) >>> ADDRESS_BITS;
+        long firstMask = WORD_MASK << from, lastMask = WORD_MASK >>> -to;
+        for (int i = first; i <= last; i++)
+        {
+            long mask = (i == first ? firstMask : WORD_MASK) & (i == last ? lastMask : WORD_MASK);
+            if (value) {
+                words[i] |= mask;
+            }
+            else words[i] &= ~mask;
+        }
+    }
+
+    /**
+     * Invert the bit at the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void flip(int index) {
+
+        checkIndex(index);
+        words[index >>> ADDRESS_BITS] ^= 1L << index;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+    }
+
+    /**
+     * Add the given bit to the end of this array.
+     */
+    public void append(boolean value) {
+
+        ensureCapacity(checkedLength(length + 1L));
+        if (value) {
+            words[length >>> ADDRESS_BITS] |= 1L << length;
+        }
+        length++;
+    }
+
+    /**
+     * Insert the given bit at the beginning of this array shifting all other bits by one index.
+     */
+    public void prepend(boolean value) {
+
+        expand(1, 0);
+        if (value) {
+            words[0] |= 1L;
+        }
+    }
+
+    /**
+     * Grow this array by adding clear bits at both ends, see {@link ArrayUtils#expandArray(boolean[], int, int)}.
+     *
+     * @param back amount of bits to add at the beginning <i>(has to be positive value)</i>
+     * @param front amount of bits to add at the end <i>(has to be positive value)</i>
+     * @throws IllegalArgumentException if any of the amounts is negative.
+     */
+    public void expand(@PositiveOrZero int back, @PositiveOrZero int front) {
+
+        if (back < 0 || front < 0) {
+            throw new IllegalArgumentException("Expansion cannot be negative");
+        }
+        int expanded = checkedLength((long) length + back + front);
+        ensureCapacity(expanded);
+        if (back > 0) {
+            shiftUp(back, wordCount(length + (long) back));
+        }
+        length = expanded;
+    }
+
+    /**
+     * Shift all bits up by the given distance, new words have to be allocated already.
+     */
+    private void shiftUp(int distance, int newWordCount) {
+
+        int wordShift = distance >>> ADDRESS_BITS, bitShift = distance & (WORD_SIZE - 1);
+        for (int i = newWordCount - 1; i >= 0; i--)
+        {
+            int source = i - wordShift;
+            long word = source >= 0 ? words[source] << bitShift : 0;
+            if (bitShift != 0 && source > 0) {
+                word |= words[source - 1] >>> (WORD_SIZE - bitShift);
+            }
+            words[i] = word;
+        }
+    }
+
+    /**
+     * Make sure this array can hold the given number of bits without reallocating.
+     */
+    public void ensureCapacity(int bits) {
+
+        int required = wordCount(bits);
+        if (required > words.length) {
+            words = java.util.Arrays.copyOf(words, (int) Math.min(Math.max(required, words.length * 2L), wordCount(Integer.MAX_VALUE)));
+        }
+    }
+
+    private static int checkedLength(long length) {
+
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Bit array cannot hold more than " + Integer.MAX_VALUE + " bits");
+        }
+        return (int) length;
+    }
+
+    /**
+     * Remove all bits from this array while keeping the allocated words.
+     */
+    public void clear() {
+
+        java.util.Arrays.fill(words, 0, wordCount(length), 0L);
+        length = 0;
+    }
+
+    /**
+     * Combine this array with the given array using logical {@code AND}.
+     * Bits beyond the length of the given array are treated as clear.
+     */
+    public void and(BitArray other) {
+
+        int count = wordCount(length), common = Math.min(count, wordCount(other.length));
+        for (int i = 0; i < common; i++) {
+            words[i] &= other.words[i];
+        }
+        java.util.Arrays.fill(words, common, count, 0L);
+    }
+
+    /**
+     * Combine this array with the given array using logical {@code OR}.
+     * Bits of the given array beyond the length of this array are ignored.
+     */
+    public void or(BitArray other) {
+
+        int common = Math.min(wordCount(length), wordCount(other.length));
+        for (int i = 0; i < common; i++) {
+            words[i] |= other.words[i];
+        }
+        clearTail();
+    }
+
+    /**
+     * Combine this array with the given array using logical {@code XOR}.
+     * Bits of the given array beyond the length of this array are ignored.
+     */
+    public void xor(BitArray other) {
+
+        int common = Math.min(wordCount(length), wordCount(other.length));
+        for (int i = 0; i < common; i++) {
+            words[i] ^= other.words[i];
+        }
+        clearTail();
+    }
+
+    /**
+     * Clear all bits of this array that are set in the given array.
+     */
+    public void andNot(BitArray other) {
+
+        int common = Math.min(wordCount(length), wordCount(other.length));
+        for (int i = 0; i < common; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /* Restore the invariant that bits beyond the length are clear */
+    private void clearTail() {
+
+        if ((length & (WORD_SIZE - 1)) != 0) {
+            words[length >>> ADDRESS_BITS] &= WORD_MASK >>> -length;
+        }
+    }
+
+    /**
+     * @return the number of set bits in this array.
+     */
+    @Contract(pure = true)
+    public int cardinality() {
+
+        int count = 0;
+        for (int i = 0, end = wordCount(length); i < end; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * @return index of the first set bit at or after the given index, or {@code -1} if there is none.
+     * @throws IndexOutOfBoundsException if the index is negative.
+     */
+    @Contract(pure = true)
+    public int nextSetBit(int from) {
+
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("Index: " + from);
+        }
+        if (from >= length) {
+            return -1;
+        }
+        int i = from >>> ADDRESS_BITS, end = wordCount(length);
+        long word = words[i] & (WORD_MASK << from);
+        while (word == 0)
+        {
+            if (++i == end) {
+                return -1;
+            }
+            word = words[i];
+        }
+        return (i << ADDRESS_BITS) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * @return index of the first clear bit at or after the given index, or
+     *         the length of this array if all following bits are set.
+     * @throws IndexOutOfBoundsException if the index is negative.
+     */
+    @Contract(pure = true)
+    public int nextClearBit(int from) {
+
+        if (from < 0) {
+            throw new IndexOutOfBoundsException("Index: " + from);
+        }
+        if (from >= length) {
+            return length;
+        }
+        int i = from >>> ADDRESS_BITS, end = wordCount(length);
+        long word = ~words[i] & (WORD_MASK << from);
+        while (word == 0)
+        {
+            if (++i == end) {
+                return length;
+            }
+            word = ~words[i];
+        }
+        return Math.min(length, (i << ADDRESS_BITS) + Long.numberOfTrailingZeros(word));
+    }
+
+    /**
+     * @return a new {@code boolean[]} array holding the bits of this array.
+     */
+    @Contract(pure = true)
+    public boolean[] toBooleanArray() {
+
+        boolean[] array = new boolean[length];
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            array[i] = true;
+        }
+        return array;
+    }
+
+    /**
+     * @return a new bit array with the same bits as this array.
+     */
+    @Contract(pure = true)
+    public BitArray copy() {
+
+        BitArray copy = new BitArray(length);
+        System.arraycopy(words, 0, copy.words, 0, wordCount(length));
+        return copy;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object obj) {
+
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof BitArray) || ((BitArray) obj).length != length) {
+            return false;
+        }
+        long[] otherWords = ((BitArray) obj).words;
+        for (int i = 0, end = wordCount(length); i < end; i++) {
+            if (words[i] != otherWords[i]) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+
+        long hash = length;
+        for (int i = 0, end = wordCount(length); i < end; i++) {
+            hash = hash * 31 + words[i];
+        }
+        return Long.hashCode(hash);
+    }
+
+    /**
+     * @return bits of this array as a string of {@code 0} and {@code 1} characters.
+     */
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(get(i) ? '1' : '0');
+        }
+        return sb.toString();
+    }
+}
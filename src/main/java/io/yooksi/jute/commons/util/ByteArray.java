@@ -0,0 +1,177 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+
+import javax.validation.constraints.PositiveOrZero;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>Fixed length array of {@code byte} values stored outside the Java heap.</p>
+ * <p>
+ *     Elements are stored in direct byte buffers and addressed with {@code long} indices,
+ *     so arrays can hold more than {@code 2^31} elements without adding to garbage collection
+ *     pauses. New arrays are filled with zeros. Operations that change the length of an array,
+ *     like {@link #expand(long, long)} and {@link #prepend(byte)}, return a new array
+ *     and leave the original array untouched, similar to {@link ArrayUtils}.
+ * </p>
+ * <p>
+ *     Memory is allocated with {@link java.nio.ByteBuffer#allocateDirect(int)} so it counts
+ *     towards the JVM direct memory limit set with {@code -XX:MaxDirectMemorySize}, which
+ *     defaults to the maximum heap size. When the limit is reached the JVM calls
+ *     {@code System.gc()} and waits for unreachable buffers to be released before failing
+ *     with {@link OutOfMemoryError}. With {@code -XX:+DisableExplicitGC} that collection does
+ *     not happen, so memory of arrays that were never closed is only released by regular
+ *     collections. Size the limit for the largest arrays kept open at the same time.
+ * </p>
+ * Off-heap memory is released when the array is closed, or when it is garbage collected
+ * if it was never closed. Arrays are not thread-safe and must not be accessed after closing.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ByteArray extends ChunkedBuffer {
+
+    private ByteArray(long length, int chunkShift) {
+        super(allocateDirect(length << 0, chunkShift), length, 0, chunkShift);
+    }
+
+    /**
+     * Allocate a new zero filled array of the given length.
+     *
+     * @throws IllegalArgumentException if the length is negative.
+     * @throws OutOfMemoryError if the direct memory limit would be exceeded.
+     */
+    public static ByteArray allocate(@PositiveOrZero long length) {
+        return allocate(length, DEFAULT_CHUNK_SHIFT);
+    }
+
+    static ByteArray allocate(long length, int chunkShift) {
+        return new ByteArray(length, chunkShift);
+    }
+
+    /**
+     * Allocate a new array holding the elements of the given heap array.
+     */
+    public static ByteArray of(byte[] array) {
+
+        ByteArray result = allocate(array.length);
+        result.copyFrom(array, 0);
+        return result;
+    }
+
+    /**
+     * @return the element with the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @Contract(pure = true)
+    public byte get(long index) {
+        return chunk(index).get(offset(index));
+    }
+
+    /**
+     * Replace the element with the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void set(long index, byte value) {
+        chunk(index).put(offset(index), value);
+    }
+
+    /**
+     * Copy the content of this array into an index range of a new array so that this array
+     * becomes a sub-array of the new array, see {@link ArrayUtils#expandArray(byte[], int, int)}.
+     *
+     * @param back amount of slots to expand to the left <i>(has to be positive value)</i>
+     * @param front amount of slots to expand to the right <i>(has to be positive value)</i>
+     * @return a new <i>expanded</i> copy of this array
+     */
+    public ByteArray expand(@PositiveOrZero long back, @PositiveOrZero long front) {
+
+        if (back < 0 || front < 0) {
+            throw new IllegalArgumentException("Expansion cannot be negative");
+        }
+        ByteArray expanded = allocate(length() + back + front, getChunkShift());
+        copy(this, 0, expanded, back, length());
+        return expanded;
+    }
+
+    /**
+     * @return a new copy of this array with the given element inserted at index 0.
+     */
+    public ByteArray prepend(byte element) {
+
+        ByteArray result = expand(1, 0);
+        result.set(0, element);
+        return result;
+    }
+
+    /**
+     * @return a new copy of this array with the given element added at the end.
+     */
+    public ByteArray append(byte element) {
+
+        ByteArray result = expand(0, 1);
+        result.set(length(), element);
+        return result;
+    }
+
+    /**
+     * Copy elements of the given heap array into this array starting at the given index.
+     * @throws IndexOutOfBoundsException if the elements do not fit into this array.
+     */
+    public void copyFrom(byte[] array, long index) {
+        copyFromArray(array, array.length, index);
+    }
+
+    /**
+     * Copy elements of this array starting at the given index into the given heap array.
+     * @throws IndexOutOfBoundsException if this array does not hold enough elements.
+     */
+    public void copyTo(long index, byte[] array) {
+        copyToArray(index, array, array.length);
+    }
+
+    /**
+     * @return a new heap array holding all elements of this array.
+     * @throws IllegalStateException if this array is too large to fit into a heap array.
+     */
+    @Contract(pure = true)
+    public byte[] toArray() {
+
+        if (length() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Array is too large to be copied to heap: " + length());
+        }
+        byte[] array = new byte[(int) length()];
+        copyTo(0, array);
+        return array;
+    }
+
+    @Override
+    void put(ByteBuffer chunk, Object array, int offset, int count) {
+        chunk.put((byte[]) array, offset, count);
+    }
+
+    @Override
+    void get(ByteBuffer chunk, Object array, int offset, int count) {
+        chunk.get((byte[]) array, offset, count);
+    }
+
+    @Override
+    public String toString() {
+        return "ByteArray[length=" + length() + (isClosed() ? ", closed]" : "]");
+    }
+}
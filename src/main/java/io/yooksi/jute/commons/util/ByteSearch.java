@@ -0,0 +1,53 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+/**
+ * <p>Internal helper that searches byte arrays for {@link ArrayUtils}.</p>
+ * This implementation is used on Java 8. It compares four elements per iteration
+ * and only branches on the individual comparisons when one of them matched.
+ * On Java 9 and later it's replaced by an implementation comparing eight bytes
+ * at a time within a single {@code long} value.
+ */
+@MethodsNotNull
+final class ByteSearch {
+
+    /* Make the constructor private to disable instantiation */
+    private ByteSearch() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return index of the first occurrence of the given value in the given
+     *         index range of the array or {@code -1} if it was not found.
+     */
+    static int indexOf(byte[] array, byte value, int from, int to) {
+
+        int i = from;
+        for (int end = to - 3; i < end; i += 4)
+        {
+            if (array[i] == value | array[i + 1] == value | array[i + 2] == value | array[i + 3] == value) {
+                break;
+            }
+        }
+        for (; i < to; i++) {
+            if (array[i] == value) return i;
+        }
+        return -1;
+    }
+}
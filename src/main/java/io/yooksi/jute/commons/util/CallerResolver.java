@@ -0,0 +1,72 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.apache.commons.lang3.ClassUtils;
+
+/**
+ * <p>Internal helper that resolves calling classes for {@link ReflectionUtils#getCallerClass(int)}.</p>
+ * This implementation is used on Java 8 and captures the entire stacktrace of the current thread
+ * to find the caller. Multi-release jars replace it on Java 9 and later with an implementation that
+ * walks stack frames lazily, see {@code src/main/java9}.
+ */
+@MethodsNotNull
+final class CallerResolver {
+
+    /* Make the constructor private to disable instantiation */
+    private CallerResolver() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param index {@code Nth} unique calling class to return starting
+     *              from the class calling {@code ReflectionUtils}
+     * @throws IndexOutOfBoundsException when the calling class could not be found.
+     * @throws IllegalStateException when the calling class could not be resolved.
+     */
+    static Class<?> getCallerClass(int index) {
+
+        StackTraceElement[] stElements = Thread.currentThread().getStackTrace();
+        try {
+            String callingClass = ReflectionUtils.class.getName();
+            int searchIndex = index + 1;
+            /*
+             * The first three elements of stacktrace will always be java.lang.Thread,
+             * this class and ReflectionUtils so start searching from the element
+             * after that to get the caller of the calling method
+             */
+            for (int i = 3; i < stElements.length; i++)
+            {
+                if (!stElements[i].getClassName().equals(callingClass))
+                {
+                    if ((searchIndex -= 1) == 0) {
+                        return ClassUtils.getClass(stElements[i].getClassName(), false);
+                    }
+                    else callingClass = stElements[i].getClassName();
+                }
+            }
+            throw new IndexOutOfBoundsException("Unable to find caller class in current" +
+                    " thread stacktrace when searching with index " + index);
+        }
+        /* This should never happen as all class names listed in the
+         * stacktrace are considered real callers and need to exist
+         */
+        catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Unable to find caller class, fatal error occurred!", e);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Internal base of primitive arrays stored outside the Java heap.</p>
+ * <p>
+ *     Memory is split into chunks of equal power of two size, each one a {@link ByteBuffer},
+ *     which lets arrays address more than {@code 2^31} bytes with {@code long} offsets. Element
+ *     sizes are powers of two as well so elements never cross chunk boundaries. The last chunk
+ *     is only as large as it needs to be.
+ * </p>
+ * Memory held by direct buffers is released eagerly when the buffer is closed,
+ * accessing a closed buffer throws an {@link IllegalStateException}.
+ */
+@MethodsNotNull
+abstract class ChunkedBuffer implements AutoCloseable {
+
+    /** Default chunk size is 1 GiB */
+    static final int DEFAULT_CHUNK_SHIFT = 30;
+
+    /**
+     * Releases memory of direct or mapped byte buffers without waiting for them to be
+     * garbage collected. Uses internal JDK API that differs between Java 8 and later
+     * versions so it's resolved reflectively, if neither is available nothing is released.
+     */
+    private static final java.util.function.Consumer<ByteBuffer> CLEANER = createCleaner();
+
+    /* Bytes moved at a time between overlapping ranges */
+    private static final int MOVE_BUFFER_SIZE = 1 << 16;
+
+    private final int chunkShift;
+    private final int elementShift;
+    private long length;
+
+    private ByteBuffer[] chunks;
+
+    /**
+     * @param chunks memory chunks, all except the last one of size {@code 1 << chunkShift}
+     * @param length number of elements stored in the chunks
+     * @param elementShift binary logarithm of the element size in bytes
+     * @param chunkShift binary logarithm of the chunk size in bytes
+     */
+    ChunkedBuffer(ByteBuffer[] chunks, long length, int elementShift, int chunkShift) {
+
+        this.chunks = chunks;
+        this.length = length;
+        this.elementShift = elementShift;
+        this.chunkShift = chunkShift;
+    }
+
+    /**
+     * Allocate direct memory chunks in native byte order able to hold the given number of bytes.
+     * Direct memory is capped by {@code -XX:MaxDirectMemorySize}, which defaults to the maximum
+     * heap size, and reaching the cap triggers {@code System.gc()} before the allocation fails.
+     *
+     * @throws IllegalArgumentException if the size is negative.
+     * @throws OutOfMemoryError if the direct memory limit would be exceeded.
+     */
+    static ByteBuffer[] allocateDirect(long size, int chunkShift) {
+
+        if (size < 0) {
+            throw new IllegalArgumentException("Size cannot be negative: " + size);
+        }
+        long chunkSize = 1L << chunkShift;
+        ByteBuffer[] chunks = new ByteBuffer[Math.toIntExact((size + chunkSize - 1) >>> chunkShift)];
+        for (int i = 0; i < chunks.length; i++)
+        {
+            long remaining = size - ((long) i << chunkShift);
+            chunks[i] = ByteBuffer.allocateDirect((int) Math.min(remaining, chunkSize)).order(ByteOrder.nativeOrder());
+        }
+        return chunks;
+    }
+
+    /**
+     * @return number of elements stored in this buffer.
+     */
+    @Contract(pure = true)
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Replace the chunks and length of this buffer after it has grown.
+     */
+    final void resize(ByteBuffer[] chunks, long length) {
+
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    /**
+     * @return memory chunks of this buffer.
+     * @throws IllegalStateException if this buffer was closed.
+     */
+    final ByteBuffer[] getChunks() {
+
+        ByteBuffer[] chunks = this.chunks;
+        if (chunks == null) {
+            throw new IllegalStateException("Buffer has been closed");
+        }
+        return chunks;
+    }
+
+    @Contract(pure = true)
+    final int getChunkShift() {
+        return chunkShift;
+    }
+
+    @Contract(pure = true)
+    final boolean isClosed() {
+        return chunks == null;
+    }
+
+    /**
+     * @return the chunk holding the element with the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     * @throws IllegalStateException if this buffer was closed.
+     */
+    final ByteBuffer chunk(long index) {
+
+        ByteBuffer[] chunks = this.chunks;
+        if (chunks == null) {
+            throw new IllegalStateException("Buffer has been closed");
+        }
+        else if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length);
+        }
+        return chunks[(int) ((index << elementShift) >>> chunkShift)];
+    }
+
+    /**
+     * @return position of the element with the given index inside its chunk.
+     */
+    final int offset(long index) {
+        return (int) ((index << elementShift) & ((1L << chunkShift) - 1));
+    }
+
+    /**
+     * Copy elements between two buffers of the same element size chunk by chunk.
+     * Source and destination must not be the same buffer.
+     */
+    static void copy(ChunkedBuffer src, long srcIndex, ChunkedBuffer dst, long dstIndex, long count) {
+
+        int shift = src.elementShift;
+        long srcPos = srcIndex << shift, dstPos = dstIndex << shift;
+        long remaining = count << shift;
+
+        if (count > 0) {
+            /* Validate both ranges up front */
+            src.chunk(srcIndex + count - 1);
+            dst.chunk(dstIndex + count - 1);
+        }
+        while (remaining > 0)
+        {
+            ByteBuffer from = src.chunks[(int) (srcPos >>> src.chunkShift)].duplicate();
+            ByteBuffer to = dst.chunks[(int) (dstPos >>> dst.chunkShift)].duplicate();
+
+            int fromOffset = (int) (srcPos & ((1L << src.chunkShift) - 1));
+            int toOffset = (int) (dstPos & ((1L << dst.chunkShift) - 1));
+            int bytes = (int) Math.min(remaining, Math.min(from.capacity() - fromOffset, to.capacity() - toOffset));
+
+            from.limit(fromOffset + bytes).position(fromOffset);
+            to.position(toOffset);
+            to.put(from);
+
+            srcPos += bytes;
+            dstPos += bytes;
+            remaining -= bytes;
+        }
+    }
+
+    /**
+     * Move elements inside this buffer, the source and destination ranges may overlap.
+     * @throws IndexOutOfBoundsException if any of the ranges is out of bounds.
+     */
+    final void move(long srcIndex, long dstIndex, long count) {
+
+        if (count <= 0 || srcIndex == dstIndex) {
+            return;
+        }
+        chunk(srcIndex);
+        chunk(srcIndex + count - 1);
+        chunk(dstIndex);
+        chunk(dstIndex + count - 1);
+
+        long bytes = count << elementShift;
+        long src = srcIndex << elementShift, dst = dstIndex << elementShift;
+        byte[] buffer = ArrayPool.getDefault().acquireBytes((int) Math.min(bytes, MOVE_BUFFER_SIZE));
+        /*
+         * Move from the end when moving up so that bytes of the
+         * source range are read before they are overwritten
+         */
+        boolean backwards = dst > src;
+        for (long moved = 0; moved < bytes;)
+        {
+            int block = (int) Math.min(buffer.length, bytes - moved);
+            long offset = backwards ? bytes - moved - block : moved;
+            transferBytes(src + offset, buffer, block, false);
+            transferBytes(dst + offset, buffer, block, true);
+            moved += block;
+        }
+        ArrayPool.getDefault().release(buffer);
+    }
+
+    /**
+     * Set all elements in the given index range to zero.
+     * @throws IndexOutOfBoundsException if the range is out of bounds.
+     */
+    final void clear(long from, long to) {
+
+        if (from >= to) {
+            return;
+        }
+        chunk(from);
+        chunk(to - 1);
+
+        long bytes = (to - from) << elementShift;
+        byte[] zeros = new byte[(int) Math.min(bytes, MOVE_BUFFER_SIZE)];
+        for (long cleared = 0; cleared < bytes;)
+        {
+            int block = (int) Math.min(zeros.length, bytes - cleared);
+            transferBytes((from << elementShift) + cleared, zeros, block, true);
+            cleared += block;
+        }
+    }
+
+    private void transferBytes(long position, byte[] buffer, int count, boolean write) {
+
+        for (int done = 0; done < count;)
+        {
+            ByteBuffer chunk = chunks[(int) (position >>> chunkShift)].duplicate();
+            chunk.position((int) (position & ((1L << chunkShift) - 1)));
+            int bytes = Math.min(count - done, chunk.remaining());
+            if (write) {
+                chunk.put(buffer, done, bytes);
+            }
+            else chunk.get(buffer, done, bytes);
+            done += bytes;
+            position += bytes;
+        }
+    }
+
+    /**
+     * Copy elements from a heap array into this buffer starting at the given index.
+     * @param array heap array of the same element type as this buffer
+     */
+    final void copyFromArray(Object array, int arrayLength, long index) {
+
+        if (arrayLength == 0) {
+            return;
+        }
+        chunk(index);
+        chunk(index + arrayLength - 1);
+        int copied = 0;
+        while (copied < arrayLength)
+        {
+            ByteBuffer chunk = duplicate(chunks[(int) (((index + copied) << elementShift) >>> chunkShift)]);
+            chunk.position(offset(index + copied));
+            int count = Math.min(arrayLength - copied, chunk.remaining() >> elementShift);
+            put(chunk, array, copied, count);
+            copied += count;
+        }
+    }
+
+    /**
+     * Copy elements of this buffer starting at the given index into a heap array.
+     * @param array heap array of the same element type as this buffer
+     */
+    final void copyToArray(long index, Object array, int arrayLength) {
+
+        if (arrayLength == 0) {
+            return;
+        }
+        chunk(index);
+        chunk(index + arrayLength - 1);
+        int copied = 0;
+        while (copied < arrayLength)
+        {
+            ByteBuffer chunk = duplicate(chunks[(int) (((index + copied) << elementShift) >>> chunkShift)]);
+            chunk.position(offset(index + copied));
+            int count = Math.min(arrayLength - copied, chunk.remaining() >> elementShift);
+            get(chunk, array, copied, count);
+            copied += count;
+        }
+    }
+
+    /* Duplicates of byte buffers always use big endian byte order */
+    private static ByteBuffer duplicate(ByteBuffer chunk) {
+        return chunk.duplicate().order(chunk.order());
+    }
+
+    /**
+     * Bulk put elements of the given heap array into the given chunk at its current position.
+     */
+    abstract void put(ByteBuffer chunk, Object array, int offset, int count);
+
+    /**
+     * Bulk get elements of the given chunk from its current position into the given heap array.
+     */
+    abstract void get(ByteBuffer chunk, Object array, int offset, int count);
+
+    /**
+     * Release the memory held by this buffer. Closing a buffer more than once has no effect.
+     * Buffers must not be closed while other threads are still accessing them.
+     */
+    @Override
+    public void close() {
+
+        ByteBuffer[] chunks = this.chunks;
+        if (chunks != null)
+        {
+            this.chunks = null;
+            release(chunks);
+        }
+    }
+
+    /**
+     * Called when the buffer is closed, releases memory of the given chunks by default.
+     */
+    void release(ByteBuffer[] chunks) {
+        for (ByteBuffer chunk : chunks) {
+            clean(chunk);
+        }
+    }
+
+    /**
+     * Release memory of the given direct or mapped buffer, it must not be accessed afterwards.
+     */
+    static void clean(ByteBuffer buffer) {
+        CLEANER.accept(buffer);
+    }
+
+    private static java.util.function.Consumer<ByteBuffer> createCleaner() {
+
+        try {
+            /* Java 9 and later */
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            return buffer -> invokeQuietly(invokeCleaner, unsafe, buffer);
+        }
+        catch (NoSuchMethodException e) {
+            /* Java 8 */
+            try {
+                Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                return buffer -> {
+                    Object instance = buffer.isDirect() ? invokeQuietly(cleaner, buffer) : null;
+                    if (instance != null) invokeQuietly(clean, instance);
+                };
+            }
+            catch (ReflectiveOperationException | RuntimeException ex) {
+                return buffer -> {};
+            }
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return buffer -> {};
+        }
+    }
+
+    /* Memory is released by the garbage collector if the cleaner fails */
+    private static Object invokeQuietly(Method method, Object target, Object...args) {
+        try {
+            return method.invoke(target, args);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>Cached accessor that reads and writes a single field.</p>
+ * <p>
+ *     Fields are resolved with the same rules as {@link FieldUtils#getField(Class, String, boolean)},
+ *     but only once for each combination of class, field name and access mode. The accessor holds
+ *     a private accessible copy of the field, so accessing the field never searches the class
+ *     hierarchy or checks access again and never changes the accessibility of shared fields.
+ * </p>
+ * Primitive getters and setters like {@link #getInt(Object)} do not box values. They accept fields of
+ * the exact primitive type as well as fields whose values can be converted with a widening conversion.
+ * Static fields are supported as well, the target object is ignored when accessing them.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class FieldAccessor {
+
+    /**
+     * Accessors of public fields of classes mapped to field names.
+     * @see #of(Class, String, boolean)
+     */
+    private static final ClassValue<java.util.Map<String, FieldAccessor>> PUBLIC_ACCESSORS = newAccessorCache();
+
+    /**
+     * Accessors of fields of classes that were resolved by forcing access, mapped to field names.
+     * @see #of(Class, String, boolean)
+     */
+    private static final ClassValue<java.util.Map<String, FieldAccessor>> FORCED_ACCESSORS = newAccessorCache();
+
+    private static ClassValue<java.util.Map<String, FieldAccessor>> newAccessorCache() {
+        return new ClassValue<java.util.Map<String, FieldAccessor>>() {
+            @Override
+            protected java.util.Map<String, FieldAccessor> computeValue(Class<?> type) {
+                return new java.util.concurrent.ConcurrentHashMap<>();
+            }
+        };
+    }
+
+    private final Field field;
+    private final boolean writable;
+
+    private FieldAccessor(Field field) {
+
+        this.field = field;
+        this.writable = !Modifier.isFinal(field.getModifiers());
+    }
+
+    /**
+     * <p>Get a cached accessor for the named field of the given class.</p>
+     * The field is searched for in the given class, its superclasses and interfaces.
+     *
+     * @param type class to search for the field
+     * @param name name of the field
+     * @param forceAccess whether to break scope restrictions using the
+     *      {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)} method.
+     *      {@code false} will only match {@code public} fields.
+     *
+     * @throws IllegalArgumentException if the field could not be found.
+     * @throws IllegalStateException if the field could not be accessed.
+     */
+    public static FieldAccessor of(Class<?> type, String name, boolean forceAccess) {
+
+        java.util.Map<String, FieldAccessor> accessors = (forceAccess ? FORCED_ACCESSORS : PUBLIC_ACCESSORS).get(type);
+        FieldAccessor accessor = accessors.get(name);
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(name, k -> create(type, name, forceAccess));
+        }
+        return accessor;
+    }
+
+    private static FieldAccessor create(Class<?> type, String name, boolean forceAccess) {
+
+        Field field = FieldUtils.getField(type, name, forceAccess);
+        if (field == null) {
+            throw new IllegalArgumentException(String.format("Unable to find field %s in class %s " +
+                    "with forceAccess %s", name, type.getName(), forceAccess));
+        }
+        try {
+            /*
+             * Public fields of non-public classes are accessible without forcing access,
+             * the same way FieldUtils reads them. The field instance is a private copy.
+             */
+            if (!forceAccess && !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                field.setAccessible(true);
+            }
+            return new FieldAccessor(field);
+        }
+        catch (SecurityException e) {
+            throw new IllegalStateException(String.format("Unable to access field %s in class %s", name, type.getName()), e);
+        }
+    }
+
+    /**
+     * @return the field accessed by this accessor. The field is shared between
+     *         all users of this accessor and should not be modified.
+     */
+    @Contract(pure = true)
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * @return the declared type of the field accessed by this accessor.
+     */
+    @Contract(pure = true)
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * @return the value of the field in the given target object, primitive values are boxed.
+     * @throws IllegalArgumentException if the target object is not an instance of the declaring class.
+     */
+    public @Nullable Object get(@Nullable Object target) {
+        try {
+            return field.get(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    /**
+     * @return the value of the field in the given target object cast to the given type.
+     * @throws ClassCastException if the field value is not an instance of the given type.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T get(@Nullable Object target, Class<T> type) {
+        return (T) ClassUtils.primitiveToWrapper(type).cast(get(target));
+    }
+
+    public boolean getBoolean(@Nullable Object target) {
+        try {
+            return field.getBoolean(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public byte getByte(@Nullable Object target) {
+        try {
+            return field.getByte(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public char getChar(@Nullable Object target) {
+        try {
+            return field.getChar(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public short getShort(@Nullable Object target) {
+        try {
+            return field.getShort(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public int getInt(@Nullable Object target) {
+        try {
+            return field.getInt(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public long getLong(@Nullable Object target) {
+        try {
+            return field.getLong(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public float getFloat(@Nullable Object target) {
+        try {
+            return field.getFloat(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public double getDouble(@Nullable Object target) {
+        try {
+            return field.getDouble(target);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    /**
+     * Set the value of the field in the given target object, primitive values should be boxed.
+     * @throws IllegalArgumentException if the value cannot be assigned to the field.
+     * @throws IllegalStateException if the field is final.
+     */
+    public void set(@Nullable Object target, @Nullable Object value) {
+        try {
+            checkWritable().set(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setBoolean(@Nullable Object target, boolean value) {
+        try {
+            checkWritable().setBoolean(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setByte(@Nullable Object target, byte value) {
+        try {
+            checkWritable().setByte(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setChar(@Nullable Object target, char value) {
+        try {
+            checkWritable().setChar(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setShort(@Nullable Object target, short value) {
+        try {
+            checkWritable().setShort(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setInt(@Nullable Object target, int value) {
+        try {
+            checkWritable().setInt(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setLong(@Nullable Object target, long value) {
+        try {
+            checkWritable().setLong(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setFloat(@Nullable Object target, float value) {
+        try {
+            checkWritable().setFloat(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    public void setDouble(@Nullable Object target, double value) {
+        try {
+            checkWritable().setDouble(target, value);
+        }
+        catch (IllegalAccessException e) {
+            throw inaccessible(e);
+        }
+    }
+
+    /**
+     * Final fields of accessible field objects can be written to with reflection,
+     * which would break the guarantees of the final modifier so it's not allowed here.
+     *
+     * @return the field accessed by this accessor.
+     * @throws IllegalStateException if the field is final.
+     */
+    private Field checkWritable() {
+
+        if (!writable) {
+            throw new IllegalStateException(String.format("Unable to write to final field %s in class %s",
+                    field.getName(), field.getDeclaringClass().getName()));
+        }
+        return field;
+    }
+
+    /* Accessible fields never throw this, but their accessibility could be revoked */
+    private IllegalStateException inaccessible(IllegalAccessException e) {
+        return new IllegalStateException(String.format("Unable to access field %s in class %s",
+                field.getName(), field.getDeclaringClass().getName()), e);
+    }
+
+    @Override
+    public String toString() {
+        return "FieldAccessor[" + field + ']';
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+
+import javax.validation.constraints.PositiveOrZero;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Growable double-ended queue of {@code float} values backed by a circular array.</p>
+ * <p>
+ *     Elements can be added to and removed from both ends in amortized constant time
+ *     without boxing. This makes the deque a replacement for building arrays with repeated
+ *     calls to {@link ArrayUtils#prepend(float, float[])} which copy the whole array each time.
+ * </p>
+ * The capacity of the backing array is always a power of two and is doubled when the
+ * deque is full. This class is not thread-safe.
+ *
+ * @see #toArray()
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class FloatDeque {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private float[] elements;
+    private int head, size;
+
+    /**
+     * Create an empty deque with the default initial capacity.
+     */
+    public FloatDeque() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty deque with enough capacity to hold the given number of elements.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public FloatDeque(@PositiveOrZero int initialCapacity) {
+
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial capacity cannot be negative: " + initialCapacity);
+        }
+        elements = new float[capacityFor(initialCapacity)];
+    }
+
+    /**
+     * Create a deque holding elements of the given array in the same order.
+     */
+    public FloatDeque(float[] array) {
+
+        this(array.length);
+        System.arraycopy(array, 0, elements, 0, array.length);
+        size = array.length;
+    }
+
+    private static int capacityFor(int count) {
+
+        if (count > MAX_CAPACITY) {
+            throw new IllegalStateException("Deque capacity cannot exceed " + MAX_CAPACITY);
+        }
+        /* The smallest power of two equal to or greater than the count */
+        return count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+    }
+
+    /**
+     * Insert the given element at the front of this deque.
+     */
+    public void addFirst(float element) {
+
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = element;
+        size++;
+    }
+
+    /**
+     * Insert the given element at the end of this deque.
+     */
+    public void addLast(float element) {
+
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[(head + size) & (elements.length - 1)] = element;
+        size++;
+    }
+
+    /**
+     * Insert all elements of the given array at the front of this
+     * deque, preserving their order, with at most two array copies.
+     */
+    public void addAllFirst(float[] array) {
+
+        ensureCapacity(size + array.length);
+        int mask = elements.length - 1;
+        int start = (head - array.length) & mask;
+        copyIn(array, start);
+        head = start;
+        size += array.length;
+    }
+
+    /**
+     * Insert all elements of the given array at the end of this
+     * deque, preserving their order, with at most two array copies.
+     */
+    public void addAllLast(float[] array) {
+
+        ensureCapacity(size + array.length);
+        copyIn(array, (head + size) & (elements.length - 1));
+        size += array.length;
+    }
+
+    /* Copy the given array into the circular buffer starting at the given physical index */
+    private void copyIn(float[] array, int start) {
+
+        int firstPart = Math.min(array.length, elements.length - start);
+        System.arraycopy(array, 0, elements, start, firstPart);
+        System.arraycopy(array, firstPart, elements, 0, array.length - firstPart);
+    }
+
+    /**
+     * Remove and return the first element of this deque.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public float removeFirst() {
+
+        float element = getFirst();
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return element;
+    }
+
+    /**
+     * Remove and return the last element of this deque.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    public float removeLast() {
+
+        float element = getLast();
+        size--;
+        return element;
+    }
+
+    /**
+     * @return the first element of this deque.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    @Contract(pure = true)
+    public float getFirst() {
+
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[head];
+    }
+
+    /**
+     * @return the last element of this deque.
+     * @throws NoSuchElementException if the deque is empty.
+     */
+    @Contract(pure = true)
+    public float getLast() {
+
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * @return the element at the given position counted from the front of this deque.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @Contract(pure = true)
+    public float get(int index) {
+
+        checkIndex(index);
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    /**
+     * Replace the element at the given position counted from the front of this deque.
+     *
+     * @return the element previously at the given position.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public float set(int index, float element) {
+
+        checkIndex(index);
+        int i = (head + index) & (elements.length - 1);
+        float previous = elements[i];
+        elements[i] = element;
+        return previous;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Contract(pure = true)
+    public int size() {
+        return size;
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all elements from this deque. The capacity of the deque is retained.
+     */
+    public void clear() {
+        head = size = 0;
+    }
+
+    /**
+     * Make sure this deque can hold the given number of elements without growing.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            grow(capacity);
+        }
+    }
+
+    /**
+     * Reallocate the backing array so that elements are stored from index zero.
+     */
+    private void grow(int minCapacity) {
+
+        float[] grown = new float[capacityFor(Math.max(minCapacity, elements.length << 1))];
+        copyTo(grown, 0);
+        elements = grown;
+        head = 0;
+    }
+
+    /**
+     * Copy elements of this deque in order into the given array starting at the given index.
+     * @throws IndexOutOfBoundsException if the elements do not fit into the given array.
+     */
+    public void copyTo(float[] array, int offset) {
+
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, array, offset, firstPart);
+        System.arraycopy(elements, 0, array, offset + firstPart, size - firstPart);
+    }
+
+    /**
+     * @return a new array holding elements of this deque in order from first to last.
+     */
+    @Contract(pure = true)
+    public float[] toArray() {
+
+        float[] array = new float[size];
+        copyTo(array, 0);
+        return array;
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder().append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(elements[(head + i) & (elements.length - 1)]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleProxies;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * <p>Internal helper that implements functional interfaces with methods resolved through reflection.</p>
+ * <p>
+ *     Whenever possible the implementation is generated with {@link LambdaMetafactory} the same way
+ *     the compiler implements lambda expressions, so invoking it is as fast as a direct interface call.
+ *     This requires all types involved to be public and visible from the class loader of this library.
+ * </p>
+ * When that is not the case the implementation falls back to a slower interface
+ * instance created by {@link MethodHandleProxies#asInterfaceInstance(Class, MethodHandle)}.
+ */
+@MethodsNotNull
+final class LambdaFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /* Make the constructor private to disable instantiation */
+    private LambdaFactory() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create an instance of the given functional interface that invokes the given method.
+     * For instance methods the first parameter of the interface method is the invocation target.
+     *
+     * @throws IllegalArgumentException if the method is not accessible or the
+     *         given class is not an interface with a single abstract method.
+     */
+    static <F> F implement(Class<F> functionalInterface, Method method) {
+
+        try {
+            return implement(functionalInterface, LOOKUP.unreflect(method));
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to access method " + method, e);
+        }
+    }
+
+    /**
+     * Create an instance of the given functional interface that invokes the given method handle.
+     * Only direct method handles can be implemented through {@link LambdaMetafactory}.
+     *
+     * @throws IllegalArgumentException if the given class is not an
+     *         interface with a single abstract method.
+     */
+    @SuppressWarnings("unchecked")
+    static <F> F implement(Class<F> functionalInterface, MethodHandle target) {
+
+        Method sam = getFunctionalMethod(functionalInterface);
+        MethodType samType = MethodType.methodType(sam.getReturnType(), sam.getParameterTypes());
+
+        if (isVisible(functionalInterface) && isVisible(target.type()))
+        {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, sam.getName(),
+                        MethodType.methodType(functionalInterface), samType, target,
+                        getInstantiatedType(samType, target.type()));
+
+                return (F) site.getTarget().invoke();
+            }
+            /* Not a direct or accessible method handle, use the fallback */
+            catch (Throwable t) {
+                if (t instanceof VirtualMachineError) throw (VirtualMachineError) t;
+            }
+        }
+        return MethodHandleProxies.asInterfaceInstance(functionalInterface, target);
+    }
+
+    /**
+     * @return the single abstract method declared by the given functional interface.
+     * @throws IllegalArgumentException if the given class is not a functional interface.
+     */
+    private static Method getFunctionalMethod(Class<?> functionalInterface) {
+
+        Method result = null;
+        if (functionalInterface.isInterface())
+        {
+            for (Method method : functionalInterface.getMethods())
+            {
+                if (Modifier.isAbstract(method.getModifiers()))
+                {
+                    if (result != null) {
+                        result = null;
+                        break;
+                    }
+                    result = method;
+                }
+            }
+        }
+        if (result == null) {
+            throw new IllegalArgumentException(functionalInterface + " is not a functional interface");
+        }
+        return result;
+    }
+
+    /**
+     * The instantiated method type is the functional method type specialized with the
+     * actual types of the implementation, boxing primitives where the functional method
+     * expects reference types.
+     */
+    private static MethodType getInstantiatedType(MethodType samType, MethodType implType) {
+
+        Class<?>[] params = new Class<?>[samType.parameterCount()];
+        for (int i = 0; i < params.length; i++)
+        {
+            Class<?> samParam = samType.parameterType(i);
+            params[i] = samParam.isPrimitive() ? samParam : ClassUtils.primitiveToWrapper(implType.parameterType(i));
+        }
+        Class<?> samReturn = samType.returnType();
+        Class<?> returnType = samReturn.isPrimitive() ? samReturn : ClassUtils.primitiveToWrapper(implType.returnType());
+        return MethodType.methodType(returnType, params);
+    }
+
+    private static boolean isVisible(MethodType type) {
+
+        if (!isVisible(type.returnType())) {
+            return false;
+        }
+        for (Class<?> param : type.parameterArray()) {
+            if (!isVisible(param)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generated lambda classes are defined in the class loader of this library so they
+     * can only link against public types that the same class loader is able to resolve.
+     */
+    private static boolean isVisible(Class<?> type) {
+
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive()) {
+            return true;
+        }
+        for (Class<?> c = type; c != null; c = c.getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, LambdaFactory.class.getClassLoader()) == type;
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,433 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * <p>Hash map with {@code long} keys and {@code Object} values that avoids boxing.</p>
+ * <p>
+ *     Entries are stored in flat arrays using open addressing with linear probing, so adding
+ *     entries never allocates objects unless the table has to grow. Removed entries are
+ *     deleted by shifting later entries of the same probe sequence back, leaving no tombstones
+ *     behind that would slow down lookups over time.
+ * </p>
+ * Iterating is done through a {@link Cursor} that walks the table without allocating
+ * entry objects. This class is not thread-safe.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class LongObjectMap<V> {
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask, size, threshold;
+
+    /* Key 0 marks free slots so its entry is stored separately */
+    private boolean hasFreeKey;
+    private @Nullable V freeValue;
+
+    /**
+     * Create a new empty map with the default expected size and load factor.
+     */
+    public LongObjectMap() {
+        this(PrimitiveHashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Create a new empty map able to hold the given number of entries without growing.
+     */
+    public LongObjectMap(@PositiveOrZero int expectedSize) {
+        this(expectedSize, PrimitiveHashing.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Create a new empty map able to hold the given number of entries without growing.
+     *
+     * @param expectedSize number of entries the map is expected to hold
+     * @param loadFactor ratio of occupied table slots at which the table grows, higher values
+     *                   use less memory at the cost of longer probe sequences.
+     * @throws IllegalArgumentException if the expected size is negative or
+     *         the load factor is not a value between {@code 0} and {@code 1}.
+     */
+    public LongObjectMap(@PositiveOrZero int expectedSize, float loadFactor) {
+
+        this.loadFactor = loadFactor;
+        allocate(PrimitiveHashing.tableSize(expectedSize, loadFactor));
+    }
+
+    /**
+     * @return the number of entries in this map.
+     */
+    @Contract(pure = true)
+    public int size() {
+        return size;
+    }
+
+    @Contract(pure = true)
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return {@code true} if this map contains an entry with the given key.
+     */
+    @Contract(pure = true)
+    public boolean containsKey(long key) {
+        return key == 0 ? hasFreeKey : find(key) >= 0;
+    }
+
+    /**
+     * @return the value mapped to the given key or {@code null}
+     *         if this map does not contain an entry with the given key.
+     */
+    @Contract(pure = true)
+    public @Nullable V get(long key) {
+
+        if (key == 0) {
+            return hasFreeKey ? freeValue : null;
+        }
+        int slot = find(key);
+        return slot >= 0 ? cast(values[slot]) : null;
+    }
+
+    /**
+     * @return the value mapped to the given key or the given value if
+     *         this map does not contain an entry with the given key.
+     */
+    @Contract(pure = true)
+    public V getOrDefault(long key, V defaultValue) {
+
+        if (key == 0) {
+            return hasFreeKey ? freeValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot >= 0 ? cast(values[slot]) : defaultValue;
+    }
+
+    /**
+     * Map the given key to the given value replacing the previous value.
+     * @return the previous value mapped to the given key or {@code null} if there was none.
+     */
+    public @Nullable V put(long key, V value) {
+
+        if (key == 0) {
+            return putFreeKey(value);
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            V previous = cast(values[slot]);
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, key, value);
+        return null;
+    }
+
+    /**
+     * Map the given key to the value produced by the given function unless the key
+     * is already mapped to a value. Nothing is added if the function returns {@code null}.
+     *
+     * @return the current value mapped to the given key after this call.
+     */
+    public @Nullable V computeIfAbsent(long key, java.util.function.LongFunction<? extends V> function) {
+
+        if (key == 0)
+        {
+            if (!hasFreeKey) {
+                V value = function.apply(key);
+                if (value != null) putFreeKey(value);
+                return value;
+            }
+            return freeValue;
+        }
+        int slot = find(key);
+        if (slot >= 0) {
+            return cast(values[slot]);
+        }
+        V value = function.apply(key);
+        if (value != null) {
+            insert(~slot, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Remove the entry with the given key from this map.
+     * @return the value that was mapped to the given key or {@code null} if there was none.
+     */
+    public @Nullable V remove(long key) {
+
+        if (key == 0)
+        {
+            if (!hasFreeKey) {
+                return null;
+            }
+            V previous = freeValue;
+            hasFreeKey = false;
+            freeValue = null;
+            size--;
+            return previous;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = cast(values[slot]);
+        removeSlot(slot);
+        return previous;
+    }
+
+    /**
+     * Remove all entries from this map while keeping the allocated table.
+     */
+    public void clear() {
+
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(values, null);
+        freeValue = null;
+        hasFreeKey = false;
+        size = 0;
+    }
+
+    /**
+     * Grow the table to hold the given number of entries without further growing.
+     * Use this before adding a large number of entries to avoid repeated rehashing.
+     */
+    public void ensureCapacity(@PositiveOrZero int expectedSize) {
+
+        int capacity = PrimitiveHashing.tableSize(expectedSize, loadFactor);
+        if (capacity > keys.length) {
+            rehash(capacity);
+        }
+    }
+
+    /**
+     * @return a new array holding all keys of this map in no particular order.
+     */
+    @Contract(pure = true)
+    public long[] keys() {
+
+        long[] result = new long[size];
+        int index = 0;
+        if (hasFreeKey) {
+            index++;
+        }
+        for (long key : keys) {
+            if (key != 0) result[index++] = key;
+        }
+        return result;
+    }
+
+    /**
+     * @return a new cursor positioned before the first entry of this map.
+     */
+    @Contract(pure = true)
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public String toString() {
+
+        StringBuilder sb = new StringBuilder().append('{');
+        for (Cursor cursor = cursor(); cursor.advance();)
+        {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(cursor.key()).append('=').append(cursor.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * @return the slot holding the given non-zero key, or the bitwise complement
+     *         of the free slot where the key would be inserted if it's not present.
+     */
+    private int find(long key) {
+
+        int slot = PrimitiveHashing.mix(key) & mask;
+        for (long current; (current = keys[slot]) != 0; slot = (slot + 1) & mask) {
+            if (current == key) return slot;
+        }
+        return ~slot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    private @Nullable V putFreeKey(V value) {
+
+        V previous = hasFreeKey ? freeValue : null;
+        if (!hasFreeKey) {
+            hasFreeKey = true;
+            size++;
+        }
+        freeValue = value;
+        return previous;
+    }
+
+    private void insert(int slot, long key, V value) {
+
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash(PrimitiveHashing.grow(keys.length));
+        }
+    }
+
+    /**
+     * Remove the entry in the given slot and shift back following entries of the probe
+     * sequence that would otherwise become unreachable, see Knuth's Algorithm R.
+     */
+    private void removeSlot(int slot) {
+
+        size--;
+        for (int last = slot;; last = slot)
+        {
+            long key;
+            for (slot = (last + 1) & mask;; slot = (slot + 1) & mask)
+            {
+                if ((key = keys[slot]) == 0) {
+                    keys[last] = 0;
+                    values[last] = null;
+                    return;
+                }
+                int ideal = PrimitiveHashing.mix(key) & mask;
+                /* Entry can fill the gap if its ideal slot is not between the gap and its slot */
+                if (last <= slot ? last >= ideal || ideal > slot : last >= ideal && ideal > slot) {
+                    break;
+                }
+            }
+            keys[last] = key;
+            values[last] = values[slot];
+        }
+    }
+
+    private void allocate(int capacity) {
+
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = PrimitiveHashing.threshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            long key = oldKeys[i];
+            if (key != 0)
+            {
+                int slot = PrimitiveHashing.mix(key) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * <p>Cursor walking over entries of the map without allocating objects.</p>
+     * <p>
+     *     The cursor is initially positioned before the first entry and {@link #advance()}
+     *     has to be called before reading each entry. The map must not be modified while
+     *     a cursor is in use except through {@link Cursor#setValue}.
+     * </p>
+     */
+    public final class Cursor {
+
+        private final long[] table = keys;
+        private int slot = table.length;
+
+        private Cursor() {}
+
+        /**
+         * Move the cursor to the next entry.
+         * @return {@code true} if the cursor points to an entry, {@code false} if there are no more entries.
+         * @throws java.util.ConcurrentModificationException if the table was rebuilt.
+         */
+        public boolean advance() {
+
+            if (table != keys) {
+                throw new java.util.ConcurrentModificationException();
+            }
+            if (slot < 0) {
+                return false;
+            }
+            while (--slot >= 0) {
+                if (table[slot] != 0) return true;
+            }
+            /* Slot -1 points to the entry with key 0 */
+            return hasFreeKey;
+        }
+
+        /**
+         * @return the key of the current entry.
+         * @throws IllegalStateException if the cursor does not point to an entry.
+         */
+        public long key() {
+
+            checkPosition();
+            return slot < 0 ? 0 : table[slot];
+        }
+
+        /**
+         * @return the value of the current entry.
+         * @throws IllegalStateException if the cursor does not point to an entry.
+         */
+        public V value() {
+
+            checkPosition();
+            return slot < 0 ? freeValue : cast(values[slot]);
+        }
+
+        /**
+         * Replace the value of the current entry.
+         * @throws IllegalStateException if the cursor does not point to an entry.
+         */
+        public void setValue(V value) {
+
+            checkPosition();
+            if (slot < 0) {
+                freeValue = value;
+            }
+            else values[slot] = value;
+        }
+
+        private void checkPosition() {
+
+            if (slot == table.length || (slot < 0 && !hasFreeKey)) {
+                throw new IllegalStateException("Cursor does not point to an entry");
+            }
+        }
+    }
+}
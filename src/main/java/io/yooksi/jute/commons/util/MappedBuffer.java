@@ -0,0 +1,243 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Internal base of primitive arrays stored in memory mapped files.</p>
+ * <p>
+ *     Files start with a header holding the element type, byte order, chunk size and length
+ *     of the array followed by the elements themselves. Elements are stored in the byte order
+ *     of the platform that created the file and are mapped in chunks, so opening an array only
+ *     maps the file without reading or converting any elements.
+ * </p>
+ * Files grow by whole chunks when the array grows, the unused part of the last chunk
+ * is left empty and takes no disk space on file systems supporting sparse files.
+ */
+@MethodsNotNull
+abstract class MappedBuffer extends ChunkedBuffer {
+
+    /** Default chunk size of mapped files is 64 MiB */
+    static final int DEFAULT_MAPPED_CHUNK_SHIFT = 26;
+
+    /* Header occupies a whole page so chunks stay page aligned */
+    private static final int HEADER_SIZE = 4096;
+
+    private static final int MAGIC = 0x4A555445;
+    private static final short VERSION = 1;
+
+    private static final int VERSION_OFFSET = 4;
+    private static final int KIND_OFFSET = 6;
+    private static final int ORDER_OFFSET = 7;
+    private static final int CHUNK_SHIFT_OFFSET = 8;
+    private static final int LENGTH_OFFSET = 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer header;
+    private final ByteOrder order;
+    private final int elementShift;
+
+    MappedBuffer(Mapping mapping, int elementShift) {
+
+        super(mapping.chunks, mapping.length, elementShift, mapping.chunkShift);
+        this.channel = mapping.channel;
+        this.header = mapping.header;
+        this.order = mapping.order;
+        this.elementShift = elementShift;
+    }
+
+    /**
+     * Create a new file holding a zero filled array of the given length.
+     *
+     * @param kind identifies the element type stored in the file
+     * @throws java.nio.file.FileAlreadyExistsException if the file already exists.
+     * @throws IOException if the file could not be created or mapped.
+     */
+    static Mapping create(Path file, byte kind, int elementShift, long length, int chunkShift) throws IOException {
+
+        if (length < 0) {
+            throw new IllegalArgumentException("Length cannot be negative: " + length);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteOrder order = ByteOrder.nativeOrder();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(0, MAGIC).putShort(VERSION_OFFSET, VERSION).put(KIND_OFFSET, kind)
+                    .put(ORDER_OFFSET, (byte) (order == ByteOrder.LITTLE_ENDIAN ? 1 : 0))
+                    .putInt(CHUNK_SHIFT_OFFSET, chunkShift).putLong(LENGTH_OFFSET, length);
+
+            ByteBuffer[] chunks = map(channel, new ByteBuffer[0], length << elementShift, chunkShift, order);
+            return new Mapping(channel, header, chunks, length, chunkShift, order);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Open an existing file holding an array.
+     *
+     * @param kind identifies the element type stored in the file
+     * @throws IOException if the file could not be opened or does not hold a valid array of the given kind.
+     */
+    static Mapping open(Path file, byte kind, int elementShift) throws IOException {
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Invalid mapped array header in " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Invalid mapped array header in " + file);
+            }
+            short version = header.getShort(VERSION_OFFSET);
+            if (version != VERSION) {
+                throw new IOException("Unsupported mapped array version " + version);
+            }
+            if (header.get(KIND_OFFSET) != kind) {
+                throw new IOException("File " + file + " holds a different element type");
+            }
+            ByteOrder order = header.get(ORDER_OFFSET) == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            int chunkShift = header.getInt(CHUNK_SHIFT_OFFSET);
+            long length = header.getLong(LENGTH_OFFSET);
+
+            if (chunkShift < elementShift || chunkShift > 30 || length < 0 ||
+                    length > (channel.size() - HEADER_SIZE) >> elementShift) {
+                throw new IOException("Corrupted mapped array in " + file);
+            }
+            ByteBuffer[] chunks = map(channel, new ByteBuffer[0], length << elementShift, chunkShift, order);
+            return new Mapping(channel, header, chunks, length, chunkShift, order);
+        }
+        catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map additional whole chunks so that the given number of bytes fits into the mapped chunks.
+     * Mapping a region beyond the end of the file grows the file.
+     */
+    private static ByteBuffer[] map(FileChannel channel, ByteBuffer[] chunks,
+                                    long bytes, int chunkShift, ByteOrder order) throws IOException {
+
+        int count = Math.toIntExact((bytes + (1L << chunkShift) - 1) >>> chunkShift);
+        if (count <= chunks.length) {
+            return chunks;
+        }
+        ByteBuffer[] mapped = java.util.Arrays.copyOf(chunks, count);
+        for (int i = chunks.length; i < count; i++)
+        {
+            long position = HEADER_SIZE + ((long) i << chunkShift);
+            mapped[i] = channel.map(FileChannel.MapMode.READ_WRITE, position, 1L << chunkShift).order(order);
+        }
+        return mapped;
+    }
+
+    /**
+     * Change the length of this array mapping additional chunks if needed.
+     * The new length is written to the file header right away.
+     */
+    final void setLength(long length) throws IOException {
+
+        resize(map(channel, getChunks(), length << elementShift, getChunkShift(), order), length);
+        header.putLong(LENGTH_OFFSET, length);
+    }
+
+    /**
+     * Grow this array in place by adding zero elements at both ends.
+     */
+    final void expandInPlace(long back, long front) throws IOException {
+
+        if (back < 0 || front < 0) {
+            throw new IllegalArgumentException("Expansion cannot be negative");
+        }
+        long length = length();
+        setLength(Math.addExact(length, Math.addExact(back, front)));
+        if (back > 0) {
+            move(0, back, length);
+            clear(0, Math.min(back, length));
+        }
+    }
+
+    /**
+     * Write changes of all mapped chunks and the header to the storage device.
+     * Without forcing changes are written back by the operating system at some point,
+     * so they survive closing the array or a crash of the process, but not a system crash.
+     *
+     * @throws IllegalStateException if this array was closed.
+     */
+    public void force() {
+
+        for (ByteBuffer chunk : getChunks()) {
+            ((MappedByteBuffer) chunk).force();
+        }
+        header.force();
+    }
+
+    /**
+     * Unmap all chunks and the header and close the file.
+     */
+    @Override
+    void release(ByteBuffer[] chunks) {
+
+        super.release(chunks);
+        clean(header);
+        try {
+            channel.close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mapped regions of a file used to construct a buffer.
+     */
+    static final class Mapping {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer header;
+        private final ByteBuffer[] chunks;
+        private final long length;
+        private final int chunkShift;
+        private final ByteOrder order;
+
+        private Mapping(FileChannel channel, MappedByteBuffer header, ByteBuffer[] chunks,
+                        long length, int chunkShift, ByteOrder order) {
+
+            this.channel = channel;
+            this.header = header;
+            this.chunks = chunks;
+            this.length = length;
+            this.chunkShift = chunkShift;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+
+import javax.validation.constraints.PositiveOrZero;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * <p>Array of {@code double} values stored in a memory mapped file.</p>
+ * <p>
+ *     Elements are read and written directly in the mapped file, so the content of the array
+ *     persists after it's closed and opening the file again with {@link #open(Path)} makes the
+ *     elements available right away without reading or deserializing them. Elements are addressed
+ *     with {@code long} indices and the array can hold more than {@code 2^31} elements.
+ * </p><p>
+ *     Unlike {@link ArrayUtils} and the off-heap {@link LongArray}, operations that change the length of the
+ *     array, like {@link #expand(long, long)} and {@link #append(double)}, grow the file in place.
+ *     The file is extended in chunks of 64 MiB, so appending is done in amortized constant time,
+ *     while prepending moves all elements of the array.
+ * </p>
+ * The file is unmapped and closed when the array is closed. Arrays are not thread-safe
+ * and must not be accessed after closing. See {@link #force()} for durability guarantees.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class MappedDoubleArray extends MappedBuffer {
+
+    /* Identifies the element type in the file header */
+    private static final byte KIND = 3;
+
+    private MappedDoubleArray(Mapping mapping) {
+        super(mapping, 3);
+    }
+
+    /**
+     * Create a new file holding a zero filled array of the given length.
+     *
+     * @throws java.nio.file.FileAlreadyExistsException if the file already exists.
+     * @throws IOException if the file could not be created or mapped.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public static MappedDoubleArray create(Path file, @PositiveOrZero long length) throws IOException {
+        return create(file, length, DEFAULT_MAPPED_CHUNK_SHIFT);
+    }
+
+    static MappedDoubleArray create(Path file, long length, int chunkShift) throws IOException {
+        return new MappedDoubleArray(create(file, KIND, 3, length, chunkShift));
+    }
+
+    /**
+     * Open an array stored in the given file by a previous call to {@link #create(Path, long)}.
+     * @throws IOException if the file could not be opened or does not hold an array of {@code double} values.
+     */
+    public static MappedDoubleArray open(Path file) throws IOException {
+        return new MappedDoubleArray(open(file, KIND, 3));
+    }
+
+    /**
+     * @return the element with the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    @Contract(pure = true)
+    public double get(long index) {
+        return chunk(index).getDouble(offset(index));
+    }
+
+    /**
+     * Replace the element with the given index.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public void set(long index, double value) {
+        chunk(index).putDouble(offset(index), value);
+    }
+
+    /**
+     * Grow this array in place by adding zero elements at both ends, so that the
+     * current content ends up in the same position as with {@link ArrayUtils#expandArray(double[], int, int)}.
+     *
+     * @param back amount of slots to expand to the left <i>(has to be positive value)</i>
+     * @param front amount of slots to expand to the right <i>(has to be positive value)</i>
+     * @throws IOException if the file could not be grown.
+     */
+    public void expand(@PositiveOrZero long back, @PositiveOrZero long front) throws IOException {
+        expandInPlace(back, front);
+    }
+
+    /**
+     * Insert the given element at index 0 moving all other elements by one index.
+     * @throws IOException if the file could not be grown.
+     */
+    public void prepend(double element) throws IOException {
+
+        expandInPlace(1, 0);
+        set(0, element);
+    }
+
+    /**
+     * Add the given element at the end of this array.
+     * @throws IOException if the file could not be grown.
+     */
+    public void append(double element) throws IOException {
+
+        long index = length();
+        setLength(index + 1);
+        set(index, element);
+    }
+
+    /**
+     * Copy elements of the given heap array into this array starting at the given index.
+     * @throws IndexOutOfBoundsException if the elements do not fit into this array.
+     */
+    public void copyFrom(double[] array, long index) {
+        copyFromArray(array, array.length, index);
+    }
+
+    /**
+     * Copy elements of this array starting at the given index into the given heap array.
+     * @throws IndexOutOfBoundsException if this array does not hold enough elements.
+     */
+    public void copyTo(long index, double[] array) {
+        copyToArray(index, array, array.length);
+    }
+
+    /**
+     * @return a new heap array holding all elements of this array.
+     * @throws IllegalStateException if this array is too large to fit into a heap array.
+     */
+    @Contract(pure = true)
+    public double[] toArray() {
+
+        if (length() > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Array is too large to be copied to heap: " + length());
+        }
+        double[] array = new double[(int) length()];
+        copyTo(0, array);
+        return array;
+    }
+
+    @Override
+    void put(ByteBuffer chunk, Object array, int offset, int count) {
+        chunk.asDoubleBuffer().put((double[]) array, offset, count);
+    }
+
+    @Override
+    void get(ByteBuffer chunk, Object array, int offset, int count) {
+        chunk.asDoubleBuffer().get((double[]) array, offset, count);
+    }
+
+    @Override
+    public String toString() {
+        return "MappedDoubleArray[length=" + length() + (isClosed() ? ", closed]" : "]");
+    }
+}
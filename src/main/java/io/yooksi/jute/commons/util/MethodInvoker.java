@@ -0,0 +1,331 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.apache.commons.lang3.ClassUtils;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+
+/**
+ * <p>Cached invoker of a single method through a method handle.</p>
+ * <p>
+ *     Methods are resolved only once for each combination of class, method name and parameter
+ *     types, including overloads resolved from argument types with {@link #resolve(Class, String, Object...)}.
+ *     Invoking a method after that is a method handle invocation instead of a reflective call.
+ * </p>
+ * Callers that know the method signature can invoke the exact-typed handle returned by
+ * {@link #getHandle()} or implement functional interfaces with {@link #implement(Class)},
+ * which are the fastest ways to repeatedly call the same method.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class MethodInvoker {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /**
+     * Method invokers of classes mapped to method signatures. Signatures of methods
+     * resolved from argument types are stored separately from declared signatures.
+     */
+    private static final ClassValue<java.util.Map<Signature, MethodInvoker>> INVOKERS =
+            new ClassValue<java.util.Map<Signature, MethodInvoker>>() {
+        @Override
+        protected java.util.Map<Signature, MethodInvoker> computeValue(Class<?> type) {
+            return new java.util.concurrent.ConcurrentHashMap<>();
+        }
+    };
+
+    private final Method method;
+
+    /**
+     * Direct method handle of the exact method type, {@code (D,P...)R} for instance
+     * methods where {@code D} is the declaring class and {@code (P...)R} for static methods.
+     */
+    private final MethodHandle exactHandle;
+
+    /** Method handle of type {@code (Object,Object[])Object} */
+    private final MethodHandle handle;
+
+    private MethodInvoker(Method method) {
+
+        this.method = method;
+        this.exactHandle = unreflect(method);
+
+        MethodHandle handle = exactHandle;
+        /* Static methods do not take a target so drop it to keep a common signature */
+        if (Modifier.isStatic(method.getModifiers())) {
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        this.handle = handle.asSpreader(Object[].class, method.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+    }
+
+    /**
+     * Methods found by {@link ReflectionUtils#findMethod(Class, String, Class[])} or through
+     * {@link java.beans.Introspector} are cached and shared so they are never made accessible.
+     * When the method cannot be accessed directly a private copy of the method is made accessible instead.
+     *
+     * @throws IllegalStateException if the method could not be accessed.
+     */
+    static MethodHandle unreflect(Method method) {
+
+        try {
+            return LOOKUP.unreflect(method);
+        }
+        catch (IllegalAccessException e)
+        {
+            try {
+                for (Method copy : method.getDeclaringClass().getDeclaredMethods())
+                {
+                    if (copy.equals(method)) {
+                        copy.setAccessible(true);
+                        return LOOKUP.unreflect(copy);
+                    }
+                }
+            }
+            catch (IllegalAccessException | SecurityException e2) {
+                e.addSuppressed(e2);
+            }
+            throw new IllegalStateException("Unable to access method " + method, e);
+        }
+    }
+
+    /**
+     * Get a cached invoker for the method with the given name and parameter types declared by
+     * the given class or one of its superclasses or interfaces. Non-public methods are included.
+     *
+     * @throws IllegalArgumentException if no such method could be found.
+     * @see ReflectionUtils#findMethod(Class, String, Class[])
+     */
+    public static MethodInvoker of(Class<?> type, String name, Class<?>...paramTypes) {
+
+        java.util.Map<Signature, MethodInvoker> invokers = INVOKERS.get(type);
+        Signature signature = new Signature(name, paramTypes, false);
+
+        MethodInvoker invoker = invokers.get(signature);
+        if (invoker == null)
+        {
+            /* Copy the parameter types so changes to the given array do not corrupt the cache */
+            signature = new Signature(name, paramTypes.clone(), false);
+            invoker = invokers.computeIfAbsent(signature, s -> {
+                Method method = ReflectionUtils.findMethod(type, name, paramTypes);
+                if (method == null) {
+                    throw new IllegalArgumentException(String.format("Unable to find method %s%s in class %s",
+                            name, Arrays.toString(paramTypes), type.getName()));
+                }
+                return new MethodInvoker(method);
+            });
+        }
+        return invoker;
+    }
+
+    /**
+     * <p>Get a cached invoker for the most specific method with the given name declared by the given
+     * class, its superclasses or interfaces that can be invoked with the given arguments.</p>
+     * Overloads are resolved once for each combination of argument classes, taking boxing and
+     * widening conversions into account. A {@code null} argument matches any reference type.
+     * Variable arity methods are only matched when their array argument is passed explicitly.
+     *
+     * @throws IllegalArgumentException if no applicable method was found
+     *         or the most specific method is ambiguous.
+     */
+    public static MethodInvoker resolve(Class<?> type, String name, @Nullable Object...args) {
+
+        if (args == null) {
+            args = ArrayUtils.EMPTY_OBJECT_ARRAY;
+        }
+        Class<?>[] argTypes = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argTypes[i] = args[i] != null ? args[i].getClass() : null;
+        }
+        java.util.Map<Signature, MethodInvoker> invokers = INVOKERS.get(type);
+        Signature signature = new Signature(name, argTypes, true);
+
+        MethodInvoker invoker = invokers.get(signature);
+        if (invoker == null) {
+            invoker = invokers.computeIfAbsent(signature, s -> new MethodInvoker(findApplicableMethod(type, name, argTypes)));
+        }
+        return invoker;
+    }
+
+    /**
+     * Find the most specific applicable method in two phases like the compiler does,
+     * first without unboxing arguments and then with unboxing and widening conversions.
+     */
+    private static Method findApplicableMethod(Class<?> type, String name, Class<?>[] argTypes) {
+
+        Method[] methods = ReflectionUtils.getUniqueDeclaredMethods(type);
+        java.util.List<Method> candidates = new java.util.ArrayList<>();
+
+        for (int phase = 0; phase < 2 && candidates.isEmpty(); phase++)
+        {
+            for (Method method : methods)
+            {
+                if (method.getName().equals(name) && method.getParameterCount() == argTypes.length &&
+                        isApplicable(method.getParameterTypes(), argTypes, phase == 1)) {
+                    candidates.add(method);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            throw new IllegalArgumentException(String.format("Unable to find method %s%s in class %s",
+                    name, Arrays.toString(argTypes), type.getName()));
+        }
+        for (Method candidate : candidates)
+        {
+            boolean mostSpecific = true;
+            for (Method other : candidates) {
+                if (other != candidate && !isApplicable(other.getParameterTypes(), candidate.getParameterTypes(), false)) {
+                    mostSpecific = false;
+                    break;
+                }
+            }
+            if (mostSpecific) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException(String.format("Ambiguous method %s%s in class %s",
+                name, Arrays.toString(argTypes), type.getName()));
+    }
+
+    /**
+     * @return {@code true} if values of the given argument types can be passed as the given parameter types.
+     */
+    private static boolean isApplicable(Class<?>[] paramTypes, Class<?>[] argTypes, boolean autoboxing) {
+
+        for (int i = 0; i < paramTypes.length; i++)
+        {
+            if (argTypes[i] == null) {
+                if (paramTypes[i].isPrimitive()) return false;
+            }
+            else if (!ClassUtils.isAssignable(argTypes[i], paramTypes[i], autoboxing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the method invoked by this invoker.
+     */
+    @Contract(pure = true)
+    public Method getMethod() {
+        return method;
+    }
+
+    /**
+     * <p>Get the direct method handle of the exact method type.</p>
+     * The handle type is {@code (D,P...)R} for instance methods where {@code D} is the declaring
+     * class and {@code (P...)R} for static methods. Invoking it with {@code invokeExact} from a
+     * call site of the same type avoids boxing and spreading arguments into an array.
+     */
+    @Contract(pure = true)
+    public MethodHandle getHandle() {
+        return exactHandle;
+    }
+
+    /**
+     * Invoke the method on the given target object with the given arguments.
+     * The target object is ignored when invoking static methods. Arguments
+     * are spread from the array and primitive values are boxed.
+     *
+     * @return the value returned by the method or {@code null} if the method is {@code void}.
+     * @throws ClassCastException if the target or arguments are not of the expected types.
+     * @throws UndeclaredThrowableException if the method threw a checked exception.
+     */
+    public @Nullable Object invoke(@Nullable Object target, @Nullable Object...args) {
+        try {
+            return handle.invokeExact(target, args);
+        }
+        catch (RuntimeException | Error e) {
+            throw e;
+        }
+        catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+
+    /**
+     * Invoke the method on the given target object and cast the returned value to the given type.
+     * @see #invoke(Object, Object...)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @Nullable T invoke(@Nullable Object target, Class<T> returnType, @Nullable Object...args) {
+        return (T) ClassUtils.primitiveToWrapper(returnType).cast(invoke(target, args));
+    }
+
+    /**
+     * <p>Create an instance of the given functional interface that invokes the method.</p>
+     * For instance methods the first parameter of the interface method is the invocation target.
+     *
+     * @throws IllegalArgumentException if the given class is not a functional interface.
+     */
+    public <F> F implement(Class<F> functionalInterface) {
+        return LambdaFactory.implement(functionalInterface, exactHandle);
+    }
+
+    @Override
+    public String toString() {
+        return "MethodInvoker[" + method + ']';
+    }
+
+    /**
+     * Method name and parameter or argument types used as a cache key.
+     */
+    static final class Signature {
+
+        private final String name;
+        private final @Nullable Class<?>[] types;
+        private final boolean resolved;
+        private final int hash;
+
+        Signature(String name, @Nullable Class<?>[] types, boolean resolved) {
+
+            this.name = name;
+            this.types = types;
+            this.resolved = resolved;
+            this.hash = 31 * (31 * name.hashCode() + Arrays.hashCode(types)) + Boolean.hashCode(resolved);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            if (this == obj) {
+                return true;
+            }
+            else if (!(obj instanceof Signature)) {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            return hash == other.hash && resolved == other.resolved &&
+                    name.equals(other.name) && Arrays.equals(types, other.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+
+/**
+ * <p>Internal helper used by {@link ArrayUtils} to split bulk array operations across the common fork-join pool.</p>
+ * <p>
+ *     Arrays shorter than {@link ArrayUtils#PARALLEL_THRESHOLD} are processed sequentially in the calling
+ *     thread. Larger arrays are split into ranges of equal size aligned to the start of the array, the
+ *     number of ranges being a small multiple of the pool parallelism to balance uneven workloads.
+ * </p>
+ */
+@MethodsNotNull
+final class ParallelArrays {
+
+    /* Ranges smaller than this are not worth the overhead of forking */
+    private static final int MIN_RANGE_SIZE = 1 << 13;
+
+    /* Make the constructor private to disable instantiation */
+    private ParallelArrays() {
+        throw new UnsupportedOperationException();
+    }
+
+    @FunctionalInterface
+    interface RangeAction {
+        void apply(int from, int to);
+    }
+
+    @FunctionalInterface
+    interface RangeFunction<R> {
+        R apply(int from, int to);
+    }
+
+    @FunctionalInterface
+    interface RangeSearch {
+        /**
+         * @return index of the first matching element in the range or {@code -1} if none matched.
+         */
+        int find(int from, int to);
+    }
+
+    /**
+     * @return size of ranges the array with the given length is split into,
+     *         or the length itself if the array should be processed sequentially.
+     */
+    static int rangeSize(int length) {
+
+        if (length < ArrayUtils.PARALLEL_THRESHOLD) {
+            return Math.max(1, length);
+        }
+        int ranges = ForkJoinPool.getCommonPoolParallelism() * 4;
+        return Math.max(MIN_RANGE_SIZE, (length + ranges - 1) / ranges);
+    }
+
+    /**
+     * Apply the given action to all ranges of an array with the given length.
+     * Each range is processed by exactly one thread in no particular order.
+     */
+    static void forEachRange(int length, RangeAction action) {
+
+        int rangeSize = rangeSize(length);
+        if (rangeSize >= length) {
+            action.apply(0, length);
+        }
+        else ForkJoinPool.commonPool().invoke(new RangeTask(action, 0, length, rangeSize));
+    }
+
+    /**
+     * Compute a result for each range of an array with the given length and combine
+     * the results of adjacent ranges in index order with the given combiner.
+     */
+    static <R> R reduce(int length, RangeFunction<R> function, BinaryOperator<R> combiner) {
+
+        int rangeSize = rangeSize(length);
+        if (rangeSize >= length) {
+            return function.apply(0, length);
+        }
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(function, combiner, 0, length, rangeSize));
+    }
+
+    /**
+     * @return the lowest index found by searching ranges of an array with the given length,
+     *         or {@code -1} if no range contained a match. Ranges located after an already
+     *         found match are skipped.
+     */
+    static int indexOf(int length, RangeSearch search) {
+
+        if (rangeSize(length) >= length) {
+            return search.find(0, length);
+        }
+        AtomicInteger found = new AtomicInteger(Integer.MAX_VALUE);
+        forEachRange(length, (from, to) ->
+        {
+            if (from < found.get())
+            {
+                int index = search.find(from, to);
+                if (index >= 0) {
+                    found.accumulateAndGet(index, Math::min);
+                }
+            }
+        });
+        int index = found.get();
+        return index == Integer.MAX_VALUE ? -1 : index;
+    }
+
+    /**
+     * @return index splitting the given range in two halves aligned to the range size.
+     */
+    private static int split(int from, int to, int rangeSize) {
+
+        int ranges = (int) (((long) to - from + rangeSize - 1) / rangeSize);
+        return from + (ranges >>> 1) * rangeSize;
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeAction action;
+        private final int from, to, rangeSize;
+
+        private RangeTask(RangeAction action, int from, int to, int rangeSize) {
+
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        protected void compute() {
+
+            if (to - from <= rangeSize) {
+                action.apply(from, to);
+                return;
+            }
+            int middle = split(from, to, rangeSize);
+            invokeAll(new RangeTask(action, from, middle, rangeSize), new RangeTask(action, middle, to, rangeSize));
+        }
+    }
+
+    private static final class ReduceTask<R> extends RecursiveTask<R> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeFunction<R> function;
+        private final BinaryOperator<R> combiner;
+        private final int from, to, rangeSize;
+
+        private ReduceTask(RangeFunction<R> function, BinaryOperator<R> combiner, int from, int to, int rangeSize) {
+
+            this.function = function;
+            this.combiner = combiner;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+        }
+
+        @Override
+        protected R compute() {
+
+            if (to - from <= rangeSize) {
+                return function.apply(from, to);
+            }
+            int middle = split(from, to, rangeSize);
+            ReduceTask<R> right = new ReduceTask<>(function, combiner, middle, to, rangeSize);
+            right.fork();
+
+            R left = new ReduceTask<>(function, combiner, from, middle, rangeSize).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+/**
+ * <p>Internal helper shared by the open addressing primitive hash collections.</p>
+ * <p>
+ *     Tables have a power of two capacity and resolve collisions with linear probing, so keys
+ *     are scrambled with a multiplicative hash first to spread sequential keys across the table.
+ *     Key {@code 0} marks free slots and is stored outside of the table by each collection.
+ * </p>
+ */
+final class PrimitiveHashing {
+
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    /* Make the constructor private to disable instantiation */
+    private PrimitiveHashing() {
+        throw new UnsupportedOperationException();
+    }
+
+    static int mix(int key) {
+
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * @return smallest power of two table capacity able to hold the expected
+     *         number of entries without exceeding the given load factor.
+     * @throws IllegalArgumentException if the expected size is negative or
+     *         the load factor is not a value between {@code 0} and {@code 1}.
+     */
+    static int tableSize(int expectedSize, float loadFactor) {
+
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        }
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be between 0 and 1: " + loadFactor);
+        }
+        long needed = (long) Math.ceil(expectedSize / (double) loadFactor) + 1;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException("Hash table cannot hold " + expectedSize + " entries");
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * @return maximum number of entries the table can hold before it has to grow,
+     *         always leaving at least one free slot to terminate probe sequences.
+     */
+    static int threshold(int capacity, float loadFactor) {
+        return Math.min((int) (capacity * loadFactor), capacity - 1);
+    }
+
+    static int grow(int capacity) {
+
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Hash table reached maximum capacity");
+        }
+        return capacity << 1;
+    }
+}
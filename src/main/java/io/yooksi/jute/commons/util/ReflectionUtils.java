@@ -16,18 +16,31 @@
 package io.yooksi.jute.commons.util;
 
 import io.yooksi.jute.commons.define.MethodsNotNull;
-import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.Nullable;
 
 import javax.validation.constraints.Positive;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 
 @MethodsNotNull
 @SuppressWarnings("unused")
 public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
 
+    /**
+     * Methods found by {@link #findMethod(Class, String, Class[])} mapped to their signatures.
+     * Methods that could not be found are mapped to {@link #NO_METHOD}.
+     */
+    private static final ClassValue<java.util.Map<MethodInvoker.Signature, Object>> METHODS =
+            new ClassValue<java.util.Map<MethodInvoker.Signature, Object>>() {
+        @Override
+        protected java.util.Map<MethodInvoker.Signature, Object> computeValue(Class<?> type) {
+            return new java.util.concurrent.ConcurrentHashMap<>();
+        }
+    };
+
+    private static final Object NO_METHOD = new Object();
+
     /**
      * Read the named {@link Field} in target object and return
      * the value cast to {@code clazz} parameter using reflection.
@@ -76,8 +89,9 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
     }
 
     /**
-     * Use Apache Commons Language library to read the named {@link Field} in target
-     * object and return the value cast to {@code clazz} parameter using reflection.
+     * Read the named {@link Field} in target object and return the value cast to
+     * {@code clazz} parameter using a cached {@link FieldAccessor}. The field is
+     * resolved with Apache Commons Language library only on the first call.
      *
      * @param target the object to reflect, must not be {@code null}
      * @param fieldName the field name to obtain
@@ -90,7 +104,7 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
      * @throws IllegalStateException if the field is not found or is not accessible,
      * the return value cannot be cast to class parameter or a security related error occurred.
      *
-     * @see FieldUtils#readField(Field, Object, boolean)
+     * @see FieldAccessor#of(Class, String, boolean)
      */
     @Contract(pure = true)
     @SuppressWarnings("ConstantConditions")
@@ -98,7 +112,7 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
 
         Object value = null;
         try {
-             value = FieldUtils.readField(target, fieldName, forceAccess);
+             value = FieldAccessor.of(target.getClass(), fieldName, forceAccess).get(target);
              return clazz.cast(value);
         }
         catch (ClassCastException e)
@@ -106,7 +120,7 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
             String log = "Parameter %s does not match target field class %s";
             throw new IllegalStateException(String.format(log, clazz, value.getClass()), e);
         }
-        catch (IllegalAccessException | SecurityException e)
+        catch (SecurityException e)
         {
             String log = "Unable to access field \"%s\" in object %s";
             throw new IllegalStateException(String.format(log, fieldName, target), e);
@@ -137,6 +151,8 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
      *     <li>{@code index 0} - returns the class that is calling this method.</li>
      *     <li>{@code index 1} - returns the actual caller of that class.</li>
      * </ul>
+     * <p>On Java 9 and later stack frames are walked lazily only up to
+     * the requested caller, earlier versions capture the entire stacktrace.</p>
      * @param index {@code Nth} unique calling class to return
      * from the current thread stacktrace starting from the
      * calling class of the method that called us.
@@ -161,35 +177,7 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
         if (index < 0)
             throw new IllegalArgumentException("Parameter index needs to be a positive value");
 
-        StackTraceElement[] stElements = Thread.currentThread().getStackTrace();
-
-        try {
-            String callingClass = stElements[1].getClassName();
-            int searchIndex = index + 1;
-            /*
-             * The first two elements of stacktrace will always be
-             * java.lang.Thread and the current class that holds the method
-             * so access with index at 2 to get the caller of the calling method
-             */
-            for (int i = 2; i < stElements.length; i++)
-            {
-                if (!stElements[i].getClassName().equals(callingClass))
-                {
-                    if ((searchIndex -= 1) == 0) {
-                        return ClassUtils.getClass(stElements[i].getClassName(), false);
-                    }
-                    else callingClass = stElements[i].getClassName();
-                }
-            }
-            throw new IndexOutOfBoundsException("Unable to find caller class in current" +
-                    " thread stacktrace when searching with index " + index);
-        }
-        /* This should never happen as all class names listed in the
-         * stacktrace are considered real callers and need to exist
-         */
-        catch (ClassNotFoundException e) {
-            throw new IllegalStateException("Unable to find caller class, fatal error occurred!", e);
-        }
+        return CallerResolver.getCallerClass(index);
     }
 
     /**
@@ -201,4 +189,63 @@ public class ReflectionUtils extends org.springframework.util.ReflectionUtils {
     public static Class getCallerClass() {
         return getCallerClass(1);
     }
+
+    /**
+     * Attempt to find a {@link Method} on the supplied class with the supplied name
+     * and no parameters. Searches all superclasses up to {@code Object}.
+     *
+     * @return the Method object, or {@code null} if none found.
+     * @see #findMethod(Class, String, Class[])
+     */
+    public static @Nullable Method findMethod(Class<?> clazz, String name) {
+        return findMethod(clazz, name, new Class<?>[0]);
+    }
+
+    /**
+     * <p>Attempt to find a {@link Method} on the supplied class with the supplied name and
+     * parameter types. Searches all superclasses up to {@code Object}.</p>
+     * Unlike the Spring implementation the search result is cached
+     * so repeated lookups of the same method are map reads.
+     *
+     * @param clazz the class to introspect
+     * @param name the name of the method
+     * @param paramTypes the parameter types of the method,
+     *        may be {@code null} to indicate any signature
+     * @return the Method object, or {@code null} if none found.
+     */
+    public static @Nullable Method findMethod(Class<?> clazz, String name, @Nullable Class<?>... paramTypes) {
+
+        java.util.Map<MethodInvoker.Signature, Object> methods = METHODS.get(clazz);
+        Object method = methods.get(new MethodInvoker.Signature(name, paramTypes, false));
+        if (method == null)
+        {
+            method = org.springframework.util.ReflectionUtils.findMethod(clazz, name, paramTypes);
+            Class<?>[] types = paramTypes != null ? paramTypes.clone() : null;
+            methods.put(new MethodInvoker.Signature(name, types, false), method != null ? method : NO_METHOD);
+        }
+        return method != NO_METHOD ? (Method) method : null;
+    }
+
+    /**
+     * <p>Invoke the most specific method with the given name that can be invoked
+     * on the given target object with the given arguments.</p>
+     * The method is resolved only once for each combination of target and argument classes.
+     *
+     * @return the value returned by the method or {@code null} if the method is {@code void}.
+     * @throws IllegalArgumentException if no applicable method was found or the method is ambiguous.
+     * @see MethodInvoker#resolve(Class, String, Object...)
+     */
+    public static @Nullable Object invoke(Object target, String name, @Nullable Object...args) {
+        return MethodInvoker.resolve(target.getClass(), name, args).invoke(target, args);
+    }
+
+    /**
+     * Invoke the most specific static method with the given name declared
+     * by the given class that can be invoked with the given arguments.
+     *
+     * @see #invoke(Object, String, Object...)
+     */
+    public static @Nullable Object invokeStatic(Class<?> clazz, String name, @Nullable Object...args) {
+        return MethodInvoker.resolve(clazz, name, args).invoke(null, args);
+    }
 }
@@ -0,0 +1,1387 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+/**
+ * <p>Operations on primitive arrays sorted in ascending order that keep the result sorted.</p>
+ * <p>
+ *     All operations allocate new arrays instead of modifying the given arrays and run in linear
+ *     time or better. Results are undefined if the given arrays are not sorted. Floating point
+ *     elements are ordered like {@link java.util.Arrays#sort(double[])} orders them, that is
+ *     {@code -0.0} is smaller than {@code 0.0} and {@code NaN} is larger than any other value.
+ * </p>
+ * Note that the length of a merged array cannot exceed the maximum length of a Java array.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class SortedArrayUtils {
+
+    /**
+     * <p>Find the first index at or after the given index holding an element that is not smaller than the key.</p>
+     * <p>
+     *     The search first probes elements at exponentially growing distances from the start index, then
+     *     binary searches the last probed range. This takes {@code O(log d)} time where {@code d} is the
+     *     distance to the result, which beats a plain binary search when results are expected to be close
+     *     to the start index, like when repeatedly searching for increasing keys.
+     * </p>
+     * Floating point elements are ordered like {@link java.util.Arrays#sort(double[])} orders them.
+     *
+     * @param array sorted array to search
+     * @param from index to start searching at
+     * @param key value to search for
+     * @return index of the first element not smaller than the key, or the length
+     *         of the array if all elements after the start index are smaller.
+     * @throws IndexOutOfBoundsException if the start index is negative or larger than the array length
+     */
+    public static int gallopingSearch(byte[] array, int from, byte key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && array[(int) index] < key; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * <p>Insert the given value into a copy of the given sorted array keeping it sorted.</p>
+     * The value is inserted after all equal elements and the array is copied only once.
+     *
+     * @param array sorted array to insert into
+     * @param value value to insert
+     * @return a new sorted array one element longer than the given array
+     */
+    public static byte[] insertSorted(byte[] array, byte value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        byte[] result = new byte[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * <p>Merge two sorted arrays into a new sorted array holding the elements of both arrays.</p>
+     * Runs in linear time allocating only the resulting array. Equal elements
+     * of the first array are placed before equal elements of the second array.
+     *
+     * @return a new sorted array holding all elements of both arrays
+     */
+    public static byte[] mergeSorted(byte[] a, byte[] b) {
+
+        byte[] result = new byte[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * <p>Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.</p>
+     * <p>
+     *     Arrays are merged in a single pass using a binary heap holding the index of each array that
+     *     still has elements left, ordered by the next element of the array. This takes
+     *     {@code O(n log k)} time for {@code n} elements in {@code k} arrays, and apart from the
+     *     resulting array allocates only two {@code int} arrays of length {@code k}.
+     * </p>
+     *
+     * @return a new sorted array holding all elements of the given arrays
+     */
+    public static byte[] mergeSorted(byte[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        byte[] result = new byte[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * <p>Find elements present in both sorted arrays.</p>
+     * <p>
+     *     Elements appearing multiple times are included as many times as they appear in both arrays.
+     *     Each element of the shorter array is located in the longer array with a
+     *     {@link #gallopingSearch(byte[], int, byte) galloping search}, so intersecting a short array with a
+     *     long one takes {@code O(m log(n / m))} time instead of {@code O(n + m)}.
+     * </p>
+     *
+     * @return a new sorted array holding elements present in both arrays
+     */
+    public static byte[] intersectSorted(byte[] a, byte[] b) {
+
+        byte[] small = a.length <= b.length ? a : b;
+        byte[] large = small == a ? b : a;
+        byte[] result = new byte[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && large[j] == small[i]) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * <p>Find elements present in either of the sorted arrays.</p>
+     * Elements appearing multiple times are included as many times as they appear in the
+     * array holding more of them. Runs in linear time and allocates at most two arrays.
+     *
+     * @return a new sorted array holding elements present in either of the arrays
+     */
+    public static byte[] unionSorted(byte[] a, byte[] b) {
+
+        byte[] result = new byte[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            }
+            else if (b[j] < a[i]) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(byte[] array, int low, int high, byte key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] < key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(byte[] array, int low, int high, byte key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] <= key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(byte[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        byte head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && arrays[heap[child + 1]][positions[heap[child + 1]]] < arrays[heap[child]][positions[heap[child]]]) {
+                child++;
+            }
+            if (!(arrays[heap[child]][positions[heap[child]]] < head)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(short[] array, int from, short key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && array[(int) index] < key; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static short[] insertSorted(short[] array, short value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        short[] result = new short[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static short[] mergeSorted(short[] a, short[] b) {
+
+        short[] result = new short[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static short[] mergeSorted(short[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        short[] result = new short[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static short[] intersectSorted(short[] a, short[] b) {
+
+        short[] small = a.length <= b.length ? a : b;
+        short[] large = small == a ? b : a;
+        short[] result = new short[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && large[j] == small[i]) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static short[] unionSorted(short[] a, short[] b) {
+
+        short[] result = new short[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            }
+            else if (b[j] < a[i]) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(short[] array, int low, int high, short key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] < key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(short[] array, int low, int high, short key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] <= key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(short[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        short head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && arrays[heap[child + 1]][positions[heap[child + 1]]] < arrays[heap[child]][positions[heap[child]]]) {
+                child++;
+            }
+            if (!(arrays[heap[child]][positions[heap[child]]] < head)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(int[] array, int from, int key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && array[(int) index] < key; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static int[] insertSorted(int[] array, int value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        int[] result = new int[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static int[] mergeSorted(int[] a, int[] b) {
+
+        int[] result = new int[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static int[] mergeSorted(int[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        int[] result = new int[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static int[] intersectSorted(int[] a, int[] b) {
+
+        int[] small = a.length <= b.length ? a : b;
+        int[] large = small == a ? b : a;
+        int[] result = new int[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && large[j] == small[i]) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static int[] unionSorted(int[] a, int[] b) {
+
+        int[] result = new int[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            }
+            else if (b[j] < a[i]) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(int[] array, int low, int high, int key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] < key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(int[] array, int low, int high, int key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] <= key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(int[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        int head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && arrays[heap[child + 1]][positions[heap[child + 1]]] < arrays[heap[child]][positions[heap[child]]]) {
+                child++;
+            }
+            if (!(arrays[heap[child]][positions[heap[child]]] < head)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(long[] array, int from, long key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && array[(int) index] < key; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static long[] insertSorted(long[] array, long value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        long[] result = new long[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static long[] mergeSorted(long[] a, long[] b) {
+
+        long[] result = new long[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static long[] mergeSorted(long[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        long[] result = new long[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static long[] intersectSorted(long[] a, long[] b) {
+
+        long[] small = a.length <= b.length ? a : b;
+        long[] large = small == a ? b : a;
+        long[] result = new long[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && large[j] == small[i]) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static long[] unionSorted(long[] a, long[] b) {
+
+        long[] result = new long[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            }
+            else if (b[j] < a[i]) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(long[] array, int low, int high, long key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] < key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(long[] array, int low, int high, long key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] <= key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(long[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        long head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && arrays[heap[child + 1]][positions[heap[child + 1]]] < arrays[heap[child]][positions[heap[child]]]) {
+                child++;
+            }
+            if (!(arrays[heap[child]][positions[heap[child]]] < head)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(float[] array, int from, float key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && Float.compare(array[(int) index], key) < 0; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static float[] insertSorted(float[] array, float value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        float[] result = new float[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static float[] mergeSorted(float[] a, float[] b) {
+
+        float[] result = new float[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = Float.compare(a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static float[] mergeSorted(float[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        float[] result = new float[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static float[] intersectSorted(float[] a, float[] b) {
+
+        float[] small = a.length <= b.length ? a : b;
+        float[] large = small == a ? b : a;
+        float[] result = new float[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && Float.compare(large[j], small[i]) == 0) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static float[] unionSorted(float[] a, float[] b) {
+
+        float[] result = new float[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (Float.compare(a[i], b[j]) < 0) {
+                result[k++] = a[i++];
+            }
+            else if (Float.compare(b[j], a[i]) < 0) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(float[] array, int low, int high, float key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (Float.compare(array[middle], key) < 0) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(float[] array, int low, int high, float key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (Float.compare(array[middle], key) <= 0) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(float[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        float head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && Float.compare(arrays[heap[child + 1]][positions[heap[child + 1]]], arrays[heap[child]][positions[heap[child]]]) < 0) {
+                child++;
+            }
+            if (!(Float.compare(arrays[heap[child]][positions[heap[child]]], head) < 0)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(double[] array, int from, double key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && Double.compare(array[(int) index], key) < 0; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static double[] insertSorted(double[] array, double value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        double[] result = new double[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static double[] mergeSorted(double[] a, double[] b) {
+
+        double[] result = new double[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = Double.compare(a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static double[] mergeSorted(double[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        double[] result = new double[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static double[] intersectSorted(double[] a, double[] b) {
+
+        double[] small = a.length <= b.length ? a : b;
+        double[] large = small == a ? b : a;
+        double[] result = new double[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && Double.compare(large[j], small[i]) == 0) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static double[] unionSorted(double[] a, double[] b) {
+
+        double[] result = new double[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (Double.compare(a[i], b[j]) < 0) {
+                result[k++] = a[i++];
+            }
+            else if (Double.compare(b[j], a[i]) < 0) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(double[] array, int low, int high, double key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(array[middle], key) < 0) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(double[] array, int low, int high, double key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (Double.compare(array[middle], key) <= 0) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(double[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        double head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && Double.compare(arrays[heap[child + 1]][positions[heap[child + 1]]], arrays[heap[child]][positions[heap[child]]]) < 0) {
+                child++;
+            }
+            if (!(Double.compare(arrays[heap[child]][positions[heap[child]]], head) < 0)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    /**
+     * Find the first index at or after the given index holding an element that is not smaller than the key.
+     * @see #gallopingSearch(byte[], int, byte)
+     */
+    public static int gallopingSearch(char[] array, int from, char key) {
+
+        if (from < 0 || from > array.length) {
+            throw new IndexOutOfBoundsException("Index: " + from + ", Length: " + array.length);
+        }
+        int low = from;
+        long bound = 1;
+        for (long index = from; index < array.length && array[(int) index] < key; index = from + bound) {
+            low = (int) index + 1;
+            bound <<= 1;
+        }
+        int high = (int) Math.min(array.length, from + bound);
+        return lowerBound(array, low, high, key);
+    }
+
+    /**
+     * Insert the given value into a copy of the given sorted array keeping it sorted.
+     * @see #insertSorted(byte[], byte)
+     */
+    public static char[] insertSorted(char[] array, char value) {
+
+        int index = upperBound(array, 0, array.length, value);
+        char[] result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, index);
+        result[index] = value;
+        System.arraycopy(array, index, result, index + 1, array.length - index);
+        return result;
+    }
+
+    /**
+     * Merge two sorted arrays into a new sorted array holding the elements of both arrays.
+     * @see #mergeSorted(byte[], byte[])
+     */
+    public static char[] mergeSorted(char[] a, char[] b) {
+
+        char[] result = new char[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            result[k++] = a[i] <= b[j] ? a[i++] : b[j++];
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        System.arraycopy(b, j, result, k + a.length - i, b.length - j);
+        return result;
+    }
+
+    /**
+     * Merge any number of sorted arrays into a new sorted array holding the elements of all arrays.
+     * @see #mergeSorted(byte[][])
+     */
+    public static char[] mergeSorted(char[]... arrays) {
+
+        if (arrays.length == 1) {
+            return arrays[0].clone();
+        }
+        if (arrays.length == 2) {
+            return mergeSorted(arrays[0], arrays[1]);
+        }
+        long length = 0;
+        int[] heap = new int[arrays.length];
+        int size = 0;
+        for (int i = 0; i < arrays.length; i++)
+        {
+            length += arrays[i].length;
+            if (arrays[i].length > 0) {
+                heap[size++] = i;
+            }
+        }
+        char[] result = new char[checkedLength(length)];
+        int[] positions = new int[arrays.length];
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(arrays, positions, heap, size, i);
+        }
+        for (int k = 0; size > 0; k++)
+        {
+            int top = heap[0];
+            result[k] = arrays[top][positions[top]++];
+            if (positions[top] == arrays[top].length) {
+                heap[0] = heap[--size];
+            }
+            if (size > 0) {
+                siftDown(arrays, positions, heap, size, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find elements present in both sorted arrays.
+     * @see #intersectSorted(byte[], byte[])
+     */
+    public static char[] intersectSorted(char[] a, char[] b) {
+
+        char[] small = a.length <= b.length ? a : b;
+        char[] large = small == a ? b : a;
+        char[] result = new char[small.length];
+        int k = 0;
+        for (int i = 0, j = 0; i < small.length && j < large.length; i++)
+        {
+            j = gallopingSearch(large, j, small[i]);
+            if (j < large.length && large[j] == small[i]) {
+                result[k++] = large[j++];
+            }
+        }
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * Find elements present in either of the sorted arrays.
+     * @see #unionSorted(byte[], byte[])
+     */
+    public static char[] unionSorted(char[] a, char[] b) {
+
+        char[] result = new char[checkedLength((long) a.length + b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length)
+        {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            }
+            else if (b[j] < a[i]) {
+                result[k++] = b[j++];
+            }
+            else {
+                result[k++] = a[i++];
+                j++;
+            }
+        }
+        System.arraycopy(a, i, result, k, a.length - i);
+        k += a.length - i;
+        System.arraycopy(b, j, result, k, b.length - j);
+        k += b.length - j;
+        return k == result.length ? result : java.util.Arrays.copyOf(result, k);
+    }
+
+    /**
+     * @return index of the first element in the given range not smaller than the key.
+     */
+    private static int lowerBound(char[] array, int low, int high, char key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] < key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    /**
+     * @return index of the first element in the given range larger than the key.
+     */
+    private static int upperBound(char[] array, int low, int high, char key) {
+
+        while (low < high)
+        {
+            int middle = (low + high) >>> 1;
+            if (array[middle] <= key) {
+                low = middle + 1;
+            }
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static void siftDown(char[][] arrays, int[] positions, int[] heap, int size, int index) {
+
+        int node = heap[index];
+        char head = arrays[node][positions[node]];
+        for (int child; (child = (index << 1) + 1) < size; index = child)
+        {
+            if (child + 1 < size && arrays[heap[child + 1]][positions[heap[child + 1]]] < arrays[heap[child]][positions[heap[child]]]) {
+                child++;
+            }
+            if (!(arrays[heap[child]][positions[heap[child]]] < head)) {
+                break;
+            }
+            heap[index] = heap[child];
+        }
+        heap[index] = node;
+    }
+
+    private static int checkedLength(long length) {
+
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Merged array length exceeds maximum array length: " + length);
+        }
+        return (int) length;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>Thread-safe map that compares keys by identity instead of equality and holds
+ * them through weak references, so that mapping an object does not prevent it from
+ * being garbage collected.</p>
+ * Entries with collected keys are purged lazily whenever the map is accessed.
+ *
+ * @param <K> type of keys maintained by this map
+ * @param <V> type of mapped values
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class WeakIdentityMap<K, V> {
+
+    private final ConcurrentHashMap<IdentityKey, V> map = new ConcurrentHashMap<>();
+    private final ReferenceQueue<K> queue = new ReferenceQueue<>();
+
+    /**
+     * @return the value mapped to the given key or {@code null} if there is no mapping.
+     */
+    public @Nullable V get(K key) {
+
+        expungeStaleEntries();
+        return map.get(new LookupKey(key));
+    }
+
+    /**
+     * Map the given value to the given key.
+     *
+     * @return the previous value mapped to the key or {@code null} if there was no mapping.
+     */
+    public @Nullable V put(K key, V value) {
+
+        expungeStaleEntries();
+        return map.put(new WeakKey<>(key, queue), value);
+    }
+
+    /**
+     * Return the value mapped to the given key and if there is no mapping
+     * compute the value with the given function and map it to the key.
+     *
+     * @see ConcurrentHashMap#computeIfAbsent(Object, Function)
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+
+        V value = get(key);
+        return value != null ? value : map.computeIfAbsent(new WeakKey<>(key, queue),
+                k -> mappingFunction.apply(key));
+    }
+
+    /**
+     * Remove the mapping for the given key if present.
+     *
+     * @return the value that was mapped to the key or {@code null} if there was no mapping.
+     */
+    public @Nullable V remove(K key) {
+
+        expungeStaleEntries();
+        return map.remove(new LookupKey(key));
+    }
+
+    /**
+     * @return the number of entries in this map, excluding already purged stale entries.
+     */
+    public int size() {
+
+        expungeStaleEntries();
+        return map.size();
+    }
+
+    /**
+     * Remove all entries from this map.
+     */
+    public void clear() {
+
+        map.clear();
+        while (queue.poll() != null) {
+            /* The entries are already gone, just drain the queue */
+        }
+    }
+
+    private void expungeStaleEntries() {
+
+        for (Reference<? extends K> ref; (ref = queue.poll()) != null;) {
+            map.remove(ref);
+        }
+    }
+
+    /**
+     * Map key that compares the referenced object by identity.
+     */
+    private interface IdentityKey {
+
+        @Nullable Object referent();
+
+        /**
+         * Keys are equal if they are the same key or both reference the same live object.
+         * Collected keys are only equal to themselves so they can still be removed.
+         */
+        static boolean equals(IdentityKey key, @Nullable Object other) {
+
+            if (key == other) return true;
+            if (!(other instanceof IdentityKey)) return false;
+            Object referent = key.referent();
+            return referent != null && referent == ((IdentityKey) other).referent();
+        }
+    }
+
+    /**
+     * Key stored in the map that does not prevent its referent from being collected.
+     */
+    private static final class WeakKey<K> extends WeakReference<K> implements IdentityKey {
+
+        private final int hash;
+
+        private WeakKey(K referent, ReferenceQueue<K> queue) {
+            super(referent, queue);
+            hash = System.identityHashCode(referent);
+        }
+
+        @Override
+        public @Nullable Object referent() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            return IdentityKey.equals(this, other);
+        }
+    }
+
+    /**
+     * Short-lived key used only to query the map.
+     */
+    private static final class LookupKey implements IdentityKey {
+
+        private final Object referent;
+
+        private LookupKey(Object referent) {
+            this.referent = referent;
+        }
+
+        @Override
+        public Object referent() {
+            return referent;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(referent);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object other) {
+            return IdentityKey.equals(this, other);
+        }
+    }
+}
@@ -15,11 +15,13 @@
  */
 package io.yooksi.jute.commons.validator;
 
+import io.yooksi.jute.commons.define.ImmutableBean;
 import io.yooksi.jute.commons.define.MethodsNotNull;
 
 import io.yooksi.jute.commons.logger.LibraryLogger;
 import io.yooksi.jute.commons.util.AnnotationUtils;
 import io.yooksi.jute.commons.util.StringUtils;
+import io.yooksi.jute.commons.util.WeakIdentityMap;
 
 import javafx.util.Pair;
 import org.aopalliance.intercept.MethodInvocation;
@@ -28,6 +30,7 @@ import org.apache.logging.log4j.Level;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.TestOnly;
 
+import javax.validation.constraints.Positive;
 import javax.validation.groups.Default;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validation;
@@ -38,6 +41,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -45,10 +49,6 @@ import java.util.regex.Pattern;
 @SuppressWarnings({"unused", "WeakerAccess"})
 public final class BeanValidator {
 
-    private static final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
-    private static final ExecutableValidator exeValidator = factory.getValidator().forExecutables();
-    private static final Validator validator = factory.getValidator();
-
     private static final char REGEX_KEY = '$';
 
     /**
@@ -68,11 +68,99 @@ public final class BeanValidator {
     @TestOnly
     public static final java.util.Set <ConstraintViolation> recentViolations = new java.util.HashSet<>();
 
+    /**
+     * Tells us if the instances of a class are marked as immutable and can be cached once validated.
+     * @see ImmutableBean
+     */
+    private static final ClassValue<Boolean> IMMUTABLE_TYPES = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return type.isAnnotationPresent(ImmutableBean.class);
+        }
+    };
+
+    /**
+     * Instances of {@link ImmutableBean} types that were successfully validated,
+     * mapped to the validation groups they were validated against.
+     */
+    private static final WeakIdentityMap<Object, ValidatedGroups> validatedInstances = new WeakIdentityMap<>();
+
+    /**
+     * <p>Validation groups an immutable instance was successfully validated against.</p>
+     * Constraint attributes can be overridden at runtime so the groups are only valid
+     * for the version of attribute overrides that was current when validation started.
+     *
+     * @see AnnotationUtils#getAttributeOverridesVersion()
+     */
+    private static final class ValidatedGroups {
+
+        private final long overridesVersion;
+        private final java.util.Set<Class<?>> groups = java.util.concurrent.ConcurrentHashMap.newKeySet();
+
+        private ValidatedGroups(long overridesVersion) {
+            this.overridesVersion = overridesVersion;
+        }
+    }
+
+    /**
+     * Default minimum number of elements a cascaded container needs to hold to
+     * have its elements validated in parallel by {@link #checkParallel(Object, Class[])}.
+     */
+    public static final int PARALLEL_THRESHOLD = 1000;
+
     /* Make the constructor private to disable instantiation */
     private BeanValidator() {
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * <p>Lazily initialized holder of the validator factory and validators.</p>
+     * Building the default validator factory is expensive so it's deferred until
+     * the first validation is requested or a warm-up is started, instead of
+     * happening whenever {@code BeanValidator} class is first referenced.
+     *
+     * @see #warmUp(Class[])
+     */
+    private static final class ValidatorHolder {
+
+        private static final ValidatorFactory factory = Validation.buildDefaultValidatorFactory();
+        private static final Validator validator = factory.getValidator();
+        private static final ExecutableValidator exeValidator = validator.forExecutables();
+    }
+
+    /**
+     * <p>Initialize the validator factory and build constraint metadata of the given
+     * bean classes in a background daemon thread, off the caller's critical path.</p>
+     * Validations requested while the warm-up is still running simply wait for the
+     * validator factory to finish initializing, they will never fail because of it.
+     *
+     * @param beanClasses list of bean classes to build constraint metadata for
+     * @return future that completes when the warm-up finishes, or completes exceptionally
+     *         if the validator factory or the constraint metadata could not be built.
+     */
+    public static java.util.concurrent.CompletableFuture<Void> warmUp(Class<?>...beanClasses) {
+
+        java.util.concurrent.CompletableFuture<Void> future = new java.util.concurrent.CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                /* Referencing the holder initializes the validator factory */
+                Validator validator = ValidatorHolder.validator;
+                for (Class<?> beanClass : beanClasses) {
+                    validator.getConstraintsForClass(beanClass);
+                }
+                LibraryLogger.debug("Validator warm-up completed for %d bean classes", beanClasses.length);
+                future.complete(null);
+            }
+            catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }, "BeanValidator-WarmUp");
+
+        thread.setDaemon(true);
+        thread.start();
+        return future;
+    }
+
     /**
      * Validate and process all constraints on object.
      *
@@ -87,11 +175,148 @@ public final class BeanValidator {
      */
     public static <T> T validate(T object, Class<?>...groups) {
 
+        check(object, groups);
+        return object;
+    }
+
+    /**
+     * <p>Validate and process all constraints on object and return the validation outcome.</p>
+     * Violations are processed the same way as they are in {@link #validate(Object, Class[])}
+     * but are also returned to the caller so they can be handled programmatically. A successful
+     * validation always returns the shared {@link ValidationResult#valid()} instance.
+     *
+     * @param groups the group or list of groups targeted for validation (defaults to {@link Default})
+     * @param object instance of the object to validate
+     * @param <T> object type being validated
+     * @return result of the validation holding all produced constraint violations
+     * @throws javax.validation.UnexpectedTypeException No validator could be found for constraint
+     * given to object being validated. This happens when the object data type doesn't match the
+     * data type the validator was intended to validate.
+     * @see #processViolation(ConstraintViolation)
+     */
+    public static <T> ValidationResult<T> check(T object, Class<?>...groups) {
+
         LibraryLogger.debug("Validating object %s", object);
-        for (ConstraintViolation violation : validator.validate(object, groups)) {
+        /*
+         * Instances of immutable types cannot change state once they pass validation
+         * so there is no need to validate them again for the same validation groups
+         */
+        boolean immutable = object != null && IMMUTABLE_TYPES.get(object.getClass());
+        long overridesVersion = immutable ? AnnotationUtils.getAttributeOverridesVersion() : 0L;
+        if (immutable && isValidated(object, overridesVersion, groups)) {
+            return ValidationResult.valid();
+        }
+        ValidationStatistics statistics = ValidationStatistics.get();
+        boolean record = statistics.isEnabled();
+        long start = record ? System.nanoTime() : 0L;
+
+        java.util.Set<ConstraintViolation<T>> violations = ValidatorHolder.validator.validate(object, groups);
+        if (record) {
+            statistics.record(object.getClass(), System.nanoTime() - start, violations);
+        }
+        ValidationResult<T> result = processViolations(violations);
+        if (immutable && result.isValid())
+        {
+            ValidatedGroups validated = validatedInstances.computeIfAbsent(object, o -> new ValidatedGroups(overridesVersion));
+            if (validated.overridesVersion != overridesVersion)
+            {
+                /* Groups validated with different attribute overrides are no longer valid */
+                validated = new ValidatedGroups(overridesVersion);
+                validatedInstances.put(object, validated);
+            }
+            if (groups.length == 0) {
+                validated.groups.add(Default.class);
+            }
+            else java.util.Collections.addAll(validated.groups, groups);
+        }
+        return result;
+    }
+
+    /**
+     * <p>Validate and process all constraints on object, validating large cascaded containers in parallel.</p>
+     * Fields of the object that cascade validation with {@link javax.validation.Valid} into a collection,
+     * map or array holding at least {@link #PARALLEL_THRESHOLD} elements are split across the common
+     * fork-join pool. If no such container is found the object is validated sequentially.
+     *
+     * @param groups the group or list of groups targeted for validation (defaults to {@link Default})
+     * @param object instance of the object to validate
+     * @return result of the validation holding all produced constraint violations
+     *
+     * @see #checkParallel(Object, int, ForkJoinPool, Class[])
+     */
+    public static ValidationResult<?> checkParallel(Object object, Class<?>...groups) {
+        return checkParallel(object, PARALLEL_THRESHOLD, ForkJoinPool.commonPool(), groups);
+    }
+
+    /**
+     * <p>Validate and process all constraints on object, validating large cascaded containers in parallel.</p>
+     * <p>
+     *     Fields of the object that cascade validation with {@link javax.validation.Valid} into a collection,
+     *     map or array holding at least {@code threshold} elements are excluded from the validation of the
+     *     object itself. Elements of those containers are instead validated as independent subgraphs split
+     *     across the given fork-join pool. If no such container is found the object is validated sequentially.
+     * </p><p>
+     *     Violations are processed in a deterministic order, starting with violations of the object
+     *     followed by violations of container elements in field and element order. Violations of
+     *     container elements are reported with the object as their root bean and property paths
+     *     that include the container and element position, like {@code items[3].name}.
+     * </p>
+     * @param groups the group or list of groups targeted for validation (defaults to {@link Default})
+     * @param object instance of the object to validate
+     * @param threshold minimum number of container elements to validate in parallel
+     * @param pool fork-join pool used to validate container elements
+     * @return result of the validation holding all produced constraint violations
+     *
+     * @throws IllegalArgumentException if {@code object} is {@code null}
+     *         or {@code threshold} is not a positive value
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static ValidationResult<?> checkParallel(Object object, @Positive int threshold,
+                                                    ForkJoinPool pool, Class<?>...groups) {
+        /* Reject null the same way validators do for sequential validation */
+        if (object == null) {
+            throw new IllegalArgumentException("The object to be validated must not be null");
+        }
+        else if (threshold <= 0) {
+            throw new IllegalArgumentException("Parallel validation threshold needs to be a positive value");
+        }
+        LibraryLogger.debug("Validating object %s in parallel", object);
+        ValidationStatistics statistics = ValidationStatistics.get();
+        boolean record = statistics.isEnabled();
+        long start = record ? System.nanoTime() : 0L;
+
+        java.util.List<ConstraintViolation<?>> violations = ParallelCascadeValidator.validate(
+                ValidatorHolder.factory, object, threshold, pool, groups);
+
+        if (violations == null) {
+            return check(object, groups);
+        }
+        else if (record) {
+            statistics.record(object.getClass(), System.nanoTime() - start, violations);
+        }
+        for (ConstraintViolation<?> violation : violations) {
             processViolation(violation);
         }
-        return object;
+        return ValidationResult.of((java.util.List) violations);
+    }
+
+    /**
+     * @return {@code true} if the given instance was already successfully validated against
+     *         all of the given validation groups with the given version of attribute overrides.
+     */
+    private static boolean isValidated(Object object, long overridesVersion, Class<?>...groups) {
+
+        ValidatedGroups validated = validatedInstances.get(object);
+        if (validated == null || validated.overridesVersion != overridesVersion) {
+            return false;
+        }
+        else if (groups.length == 0) {
+            return validated.groups.contains(Default.class);
+        }
+        for (Class<?> group : groups) {
+            if (!validated.groups.contains(group)) return false;
+        }
+        return true;
     }
 
     /**
@@ -106,10 +331,7 @@ public final class BeanValidator {
      */
     @Contract(pure = true)
     public static <T> void validateMethod(Method method, T object, Object...params) {
-
-        for (ConstraintViolation violation : exeValidator.validateParameters(object, method, params)) {
-            processViolation(violation);
-        }
+        processViolations(ValidatorHolder.exeValidator.validateParameters(object, method, params));
     }
 
     /**
@@ -151,10 +373,7 @@ public final class BeanValidator {
      * @param value the value returned by the given method
      */
     private static void validateMethodReturnValue(Object object, Method method, Object value) {
-
-        for (ConstraintViolation violation : exeValidator.validateReturnValue(object, method, value)) {
-            processViolation(violation);
-        }
+        processViolations(ValidatorHolder.exeValidator.validateReturnValue(object, method, value));
     }
 
     /**
@@ -180,39 +399,93 @@ public final class BeanValidator {
     @SuppressWarnings("unchecked")
     private static <T> T construct(Class<? super T> parentClass, Class<T> childClass, boolean child, Object[] params) {
 
-        /* Bean constraint validation doesn't seem to process parent constructors
-         * so we have to manually validate their parameters first
-         */
-        Constructor<T> prentConstructor = getConstructor(parentClass, params);
+        ConstructionPlan plan = getConstructionPlan(parentClass, childClass, params);
         /*
          * We have to create a new array for parent constructor parameters and populate it
          * with the least amount of common parameters in the natural order from left to right
          * in case the child constructor requires more additional parameters
          */
-        Object[] parentParams = new Object[prentConstructor.getParameterCount()];
-        System.arraycopy(params, 0, parentParams, 0, prentConstructor.getParameterCount());
-
-        java.util.Set<ConstraintViolation<T>> parentViolations = validateConstructorParams(prentConstructor, parentParams);
-
-        Constructor<T> childConstructor = getConstructor(childClass, params);
-        java.util.Set<ConstraintViolation<T>> childViolations = validateConstructorParams(childConstructor, params);
-
+        Object[] parentParams = params;
+        if (plan.parentParamCount != params.length) {
+            parentParams = new Object[plan.parentParamCount];
+            System.arraycopy(params, 0, parentParams, 0, plan.parentParamCount);
+        }
+        /* Bean constraint validation doesn't seem to process parent constructors
+         * so we have to manually validate their parameters first
+         */
+        java.util.BitSet violatedParams = null;
+        if (plan.validateParentParams)
+        {
+            for (ConstraintViolation<?> violation : validateConstructorParams(plan.parentConstructor, parentParams))
+            {
+                int index = getParameterIndex(violation);
+                if (index >= 0) {
+                    if (violatedParams == null) {
+                        violatedParams = new java.util.BitSet(plan.parentParamCount);
+                    }
+                    violatedParams.set(index);
+                }
+                processViolation(violation);
+            }
+        }
         /* In case both child and parent constructor produced constraint violations
-         * on the same method parameters we need to filter the child constructor
+         * on the same constructor parameters we need to filter the child constructor
          * violations to exclude the duplicates so we don't do double prints
          */
-        java.util.Set<Object> violationValues = new java.util.HashSet<>();
-        parentViolations.forEach(v -> violationValues.add(v.getInvalidValue()));
-        for (ConstraintViolation v : childViolations) {
-            if (!violationValues.contains(v.getInvalidValue()))
-                parentViolations.add(v);
+        if (plan.validateChildParams)
+        {
+            for (ConstraintViolation<?> violation : validateConstructorParams(plan.childConstructor, params))
+            {
+                int index = getParameterIndex(violation);
+                if (index < 0 || violatedParams == null || !violatedParams.get(index)) processViolation(violation);
+            }
         }
-        /* Both parent and child violations will be processed here
-         */
-        for (ConstraintViolation violation : parentViolations) {
-            processViolation(violation);
+        return child ? (T) construct(plan.childConstructor, plan.validateChildInstance, params) :
+                (T) construct(plan.parentConstructor, plan.validateParentInstance, parentParams);
+    }
+
+    /**
+     * Get a cached construction plan for the given parent and child class and constructor
+     * parameters, or resolve and cache a new plan if one does not exist yet.
+     *
+     * @throws IllegalArgumentException when no child or parent constructor
+     *                                  with the supplied parameters could be found
+     */
+    private static ConstructionPlan getConstructionPlan(Class<?> parentClass, Class<?> childClass, Object[] params) {
+
+        java.util.Map<Class<?>, java.util.Map<ConstructionPlan.Key, ConstructionPlan>> parentPlans =
+                ConstructionPlan.CACHE.get(childClass);
+
+        java.util.Map<ConstructionPlan.Key, ConstructionPlan> plans = parentPlans.get(parentClass);
+        if (plans == null) {
+            plans = parentPlans.computeIfAbsent(parentClass, c -> new java.util.concurrent.ConcurrentHashMap<>());
+        }
+        ConstructionPlan.Key key = new ConstructionPlan.Key(getParameterClasses(params));
+        ConstructionPlan plan = plans.get(key);
+        if (plan == null)
+        {
+            Constructor<?> parentConstructor = getConstructor(parentClass, key.paramClasses, params);
+            Constructor<?> childConstructor = getConstructor(childClass, key.paramClasses, params);
+
+            plan = new ConstructionPlan(parentConstructor, childConstructor);
+            plans.putIfAbsent(key, plan);
         }
-        return construct(child ? childConstructor : prentConstructor, params);
+        return plan;
+    }
+
+    /**
+     * @return index of the constructor parameter that the violation was reported for,
+     *         or {@code -1} if the violation is not bound to a single parameter.
+     */
+    private static int getParameterIndex(ConstraintViolation<?> violation) {
+
+        for (javax.validation.Path.Node node : violation.getPropertyPath())
+        {
+            if (node.getKind() == javax.validation.ElementKind.PARAMETER) {
+                return node.as(javax.validation.Path.ParameterNode.class).getParameterIndex();
+            }
+        }
+        return -1;
     }
 
     /**
@@ -270,15 +543,32 @@ public final class BeanValidator {
      * @param params list of constructor parameters
      */
     public static <T> Constructor getConstructor(Class<T> clazz, Object...params) {
+        return getConstructor(clazz, getParameterClasses(params), params);
+    }
 
-        Class[] paramClasses = new Class[params.length];
+    /**
+     * @return an array of classes of the given constructor parameters.
+     */
+    private static Class<?>[] getParameterClasses(Object[] params) {
+
+        Class<?>[] paramClasses = new Class[params.length];
         for (int i = 0; i < params.length; i++) {
             paramClasses[i] = params[i].getClass();
         }
+        return paramClasses;
+    }
+
+    /**
+     * Find the constructor object for a declared class constructor with the specified parameter classes.
+     * @see #getConstructor(Class, Object...)
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> getConstructor(Class<T> clazz, Class<?>[] paramClasses, Object[] params) {
+
         /* Use Apache method of finding an accessible constructor as it
          * is a more flexible search than the normal exact matching algorithm.
          */
-        Constructor c = ConstructorUtils.getMatchingAccessibleConstructor(clazz, paramClasses);
+        Constructor<T> c = ConstructorUtils.getMatchingAccessibleConstructor(clazz, paramClasses);
         if (c == null)
         {
             /* If we were unable to find a constructor that exactly matches the
@@ -287,7 +577,7 @@ public final class BeanValidator {
              */
             for (int i1 = 0; i1 < paramClasses.length; i1++)
             {
-                Class[] commonClasses = new Class[i1 + 1];
+                Class<?>[] commonClasses = new Class[i1 + 1];
                 System.arraycopy(paramClasses, 0, commonClasses, 0, i1 + 1);
                 c = ConstructorUtils.getMatchingAccessibleConstructor(clazz, commonClasses);
                 if (c != null) return c;
@@ -303,19 +593,39 @@ public final class BeanValidator {
      * This is a helper method to create, initialize and <b>validate</b> a new instance of the
      * constructor's declaring class, with the specified initialization parameters.
      *
+     * @param validate whether to validate the newly constructed object
      * @param params initialization parameters
      * @return newly constructed and validated object
      */
-    private static <T> T construct(Constructor<T> constructor, Object...params) {
+    private static <T> T construct(Constructor<T> constructor, boolean validate, Object...params) {
 
         try {
-            return validate(constructor.newInstance(params));
+            T instance = constructor.newInstance(params);
+            return validate ? validate(instance) : instance;
         }
         catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
             throw new IllegalArgumentException(e);
         }
     }
 
+    /**
+     * Process all given violations and wrap them in a validation result.
+     * Empty violation sets are not iterated and produce the shared
+     * {@link ValidationResult#valid()} instance.
+     *
+     * @see #processViolation(ConstraintViolation)
+     */
+    private static <T> ValidationResult<T> processViolations(java.util.Set<ConstraintViolation<T>> violations) {
+
+        if (violations.isEmpty()) {
+            return ValidationResult.valid();
+        }
+        for (ConstraintViolation<T> violation : violations) {
+            processViolation(violation);
+        }
+        return ValidationResult.of(violations);
+    }
+
     /**
      * <p>This method gets called whenever new violations are returned by validators.</p>
      * It will parse the constraint message and print it with the appropriate level.
@@ -361,6 +671,86 @@ public final class BeanValidator {
     }
 
     private static <T> java.util.Set<ConstraintViolation<T>> validateConstructorParams(Constructor<T> c, Object...p) {
-        return exeValidator.validateConstructorParameters(c, p);
+        return ValidatorHolder.exeValidator.validateConstructorParameters(c, p);
+    }
+
+    /**
+     * <p>Precomputed plan for constructing and validating instances of a parent and child class.</p>
+     * Plans are cached per child class, parent class and constructor parameter classes. Each plan
+     * knows which constructors actually declare parameter constraints and which classes declare
+     * bean constraints so that validations that cannot produce any violations are skipped.
+     */
+    private static final class ConstructionPlan {
+
+        /**
+         * Plans attached to child classes and mapped to parent classes, so that
+         * cached plans never prevent class loaders from being garbage collected.
+         */
+        private static final ClassValue<java.util.Map<Class<?>, java.util.Map<Key, ConstructionPlan>>> CACHE =
+                new ClassValue<java.util.Map<Class<?>, java.util.Map<Key, ConstructionPlan>>>() {
+            @Override
+            protected java.util.Map<Class<?>, java.util.Map<Key, ConstructionPlan>> computeValue(Class<?> type) {
+                return new java.util.concurrent.ConcurrentHashMap<>();
+            }
+        };
+
+        private final Constructor<?> parentConstructor, childConstructor;
+        private final int parentParamCount;
+
+        private final boolean validateParentParams, validateChildParams;
+        private final boolean validateParentInstance, validateChildInstance;
+
+        private ConstructionPlan(Constructor<?> parentConstructor, Constructor<?> childConstructor) {
+
+            this.parentConstructor = parentConstructor;
+            this.childConstructor = childConstructor;
+            this.parentParamCount = parentConstructor.getParameterCount();
+
+            validateParentParams = hasConstrainedParameters(parentConstructor);
+            validateChildParams = hasConstrainedParameters(childConstructor);
+            validateParentInstance = isBeanConstrained(parentConstructor.getDeclaringClass());
+            validateChildInstance = isBeanConstrained(childConstructor.getDeclaringClass());
+        }
+
+        private static boolean hasConstrainedParameters(Constructor<?> constructor) {
+
+            javax.validation.metadata.ConstructorDescriptor descriptor = ValidatorHolder.validator
+                    .getConstraintsForClass(constructor.getDeclaringClass())
+                    .getConstraintsForConstructor(constructor.getParameterTypes());
+
+            return descriptor != null && descriptor.hasConstrainedParameters();
+        }
+
+        private static boolean isBeanConstrained(Class<?> clazz) {
+            return ValidatorHolder.validator.getConstraintsForClass(clazz).isBeanConstrained();
+        }
+
+        /**
+         * Classes of constructor parameters a plan was resolved for.
+         */
+        private static final class Key {
+
+            private final Class<?>[] paramClasses;
+            private final int hash;
+
+            private Key(Class<?>[] paramClasses) {
+
+                this.paramClasses = paramClasses;
+                this.hash = java.util.Arrays.hashCode(paramClasses);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+
+                if (this == obj) return true;
+                if (!(obj instanceof Key)) return false;
+                return java.util.Arrays.equals(paramClasses, ((Key) obj).paramClasses);
+            }
+        }
     }
 }
@@ -0,0 +1,647 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.validator;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Path;
+import javax.validation.TraversableResolver;
+import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.lang.annotation.ElementType;
+import java.lang.reflect.AnnotatedParameterizedType;
+import java.lang.reflect.AnnotatedType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Internal helper used by {@link BeanValidator} to validate large object graphs in parallel.</p>
+ * <p>
+ *     Fields of the root object that cascade validation with {@link Valid} into a collection,
+ *     map or array holding at least {@code threshold} elements are excluded from the validation
+ *     of the root object. Elements of those containers are instead validated as independent
+ *     subgraphs split across a fork-join pool.
+ * </p><p>
+ *     Violations are ordered deterministically: violations of the root object come first followed
+ *     by violations of container elements in field declaration and element iteration order.
+ *     Violations of each validated bean are sorted by property path and message.
+ * </p>
+ * Cycle detection is preserved in the following way:
+ * <ul>
+ *     <li>Elements never cascade back into the root object as it's validated separately.</li>
+ *     <li>Elements appearing multiple times in containers are validated only once.</li>
+ * </ul>
+ * Violations of container elements are reported the same way sequential validation reports them,
+ * with the root object as their root bean and property paths starting with the container field and
+ * the index or key of the element, like {@code items[3].name}. Elements appearing multiple times are
+ * reported at their first position. Note that objects shared between different elements are validated
+ * once per element referencing them.
+ */
+@MethodsNotNull
+final class ParallelCascadeValidator {
+
+    /**
+     * Orders violations of a single bean validation by property path and message.
+     */
+    private static final Comparator<ConstraintViolation<?>> VIOLATION_ORDER =
+            Comparator.<ConstraintViolation<?>, String>comparing(v -> String.valueOf(v.getPropertyPath()))
+                    .thenComparing(ConstraintViolation::getMessage);
+
+    /**
+     * <p>Fields of a class that cascade validation into a container.</p>
+     * Fields that share their name with another field in the class hierarchy are excluded
+     * since traversable resolvers identify properties only by name and would not be able
+     * to tell them apart. Such containers are always validated together with the root object.
+     */
+    private static final ClassValue<Field[]> CASCADED_CONTAINERS = new ClassValue<Field[]>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+
+            List<Field> declared = new ArrayList<>();
+            Map<String, Integer> names = new java.util.HashMap<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass())
+            {
+                for (Field field : c.getDeclaredFields())
+                {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        names.merge(field.getName(), 1, Integer::sum);
+                        declared.add(field);
+                    }
+                }
+            }
+            List<Field> fields = new ArrayList<>();
+            for (Field field : declared)
+            {
+                if (names.get(field.getName()) == 1 && isCascadedContainer(field)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    /* Make the constructor private to disable instantiation */
+    private ParallelCascadeValidator() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Validate the given root object splitting large cascaded containers across the given pool.
+     *
+     * @param factory factory used to create validators with custom traversable resolvers
+     * @param root root object to validate
+     * @param threshold minimum number of container elements to validate in parallel
+     * @param pool fork-join pool used to validate container elements
+     * @param groups the group or list of groups targeted for validation
+     * @return ordered list of all violations or {@code null} if none of the
+     *         cascaded containers exceeded the threshold and nothing was validated.
+     */
+    static @Nullable List<ConstraintViolation<?>> validate(ValidatorFactory factory, Object root,
+                                                           int threshold, ForkJoinPool pool, Class<?>...groups) {
+
+        Field[] fields = CASCADED_CONTAINERS.get(root.getClass());
+        Set<Field> splitFields = new java.util.HashSet<>();
+        List<Container> containers = new ArrayList<>();
+
+        for (Field field : fields)
+        {
+            Container container = Container.of(field, readField(field, root));
+            if (container != null && container.elements.length >= threshold) {
+                splitFields.add(field);
+                containers.add(container);
+            }
+        }
+        if (splitFields.isEmpty()) {
+            return null;
+        }
+        TraversableResolver delegate = factory.getTraversableResolver();
+        Validator rootValidator = factory.usingContext().traversableResolver(
+                new SplitTraversableResolver(delegate, root, splitFields)).getValidator();
+
+        List<ConstraintViolation<?>> violations = sorted(rootValidator.validate(root, groups));
+        /*
+         * Elements are validated as separate subgraphs that are not
+         * allowed to reach back into the already validated root object
+         */
+        Validator elementValidator = factory.usingContext().traversableResolver(
+                new SplitTraversableResolver(delegate, root, null)).getValidator();
+
+        Set<Object> validated = java.util.Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Container container : containers)
+        {
+            int[] positions = new int[container.elements.length];
+            int count = 0;
+            for (int i = 0; i < container.elements.length; i++)
+            {
+                Object element = container.elements[i];
+                if (element != null && element != root && validated.add(element)) {
+                    positions[count++] = i;
+                }
+            }
+            ElementValidation validation = new ElementValidation(elementValidator, root, container, groups);
+            int batchSize = Math.max(1, count / (pool.getParallelism() * 4));
+            violations.addAll(pool.invoke(new ElementTask(validation, positions, 0, count, batchSize)));
+        }
+        return violations;
+    }
+
+    /**
+     * @return {@code true} if the given field cascades validation into a container
+     *         either directly or through an annotated container element type.
+     */
+    private static boolean isCascadedContainer(Field field) {
+
+        Class<?> type = field.getType();
+        if (!Collection.class.isAssignableFrom(type) && !Map.class.isAssignableFrom(type) &&
+                (!type.isArray() || type.getComponentType().isPrimitive())) {
+            return false;
+        }
+        if (field.isAnnotationPresent(Valid.class)) {
+            return true;
+        }
+        AnnotatedType annotatedType = field.getAnnotatedType();
+        if (annotatedType instanceof AnnotatedParameterizedType)
+        {
+            AnnotatedType[] arguments = ((AnnotatedParameterizedType) annotatedType).getAnnotatedActualTypeArguments();
+            /* Map values are the last type argument, collections have a single one */
+            return arguments.length > 0 && arguments[arguments.length - 1].isAnnotationPresent(Valid.class);
+        }
+        return false;
+    }
+
+    private static @Nullable Object readField(Field field, Object target) {
+        try {
+            return field.get(target);
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to read cascaded field " + field.getName(), e);
+        }
+    }
+
+    /**
+     * Snapshot of the elements of a cascaded container together with their positions.
+     */
+    private static final class Container {
+
+        private final Field field;
+        private final Object[] elements;
+        /* Keys of map values or null if elements are not mapped */
+        private final @Nullable Object[] keys;
+        private final boolean indexed;
+
+        private Container(Field field, Object[] elements, @Nullable Object[] keys, boolean indexed) {
+
+            this.field = field;
+            this.elements = elements;
+            this.keys = keys;
+            this.indexed = indexed;
+        }
+
+        /**
+         * @return snapshot of container elements or {@code null} if the value is not a container.
+         */
+        private static @Nullable Container of(Field field, @Nullable Object value) {
+
+            if (value instanceof Collection) {
+                return new Container(field, ((Collection<?>) value).toArray(), null, value instanceof List);
+            }
+            else if (value instanceof Map)
+            {
+                Map<?, ?> map = (Map<?, ?>) value;
+                Object[] elements = new Object[map.size()], keys = new Object[map.size()];
+                int i = 0;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    keys[i] = entry.getKey();
+                    elements[i++] = entry.getValue();
+                }
+                /* Concurrent maps can shrink while being copied */
+                return i == elements.length ? new Container(field, elements, keys, false) :
+                        new Container(field, java.util.Arrays.copyOf(elements, i), java.util.Arrays.copyOf(keys, i), false);
+            }
+            else if (value instanceof Object[]) {
+                return new Container(field, (Object[]) value, null, true);
+            }
+            return null;
+        }
+    }
+
+    private static List<ConstraintViolation<?>> sorted(Set<? extends ConstraintViolation<?>> violations) {
+
+        List<ConstraintViolation<?>> list = new ArrayList<>(violations);
+        if (list.size() > 1) {
+            list.sort(VIOLATION_ORDER);
+        }
+        return list;
+    }
+
+    /**
+     * Validation of the elements of a single container shared by all element tasks.
+     */
+    private static final class ElementValidation {
+
+        private final Validator validator;
+        private final Object root;
+        private final Container container;
+        private final Class<?>[] groups;
+
+        private ElementValidation(Validator validator, Object root, Container container, Class<?>[] groups) {
+
+            this.validator = validator;
+            this.root = root;
+            this.container = container;
+            this.groups = groups;
+        }
+
+        /**
+         * @return sorted violations of the element at the given container position
+         *         reported relative to the root object.
+         */
+        private List<ConstraintViolation<?>> validate(int position) {
+
+            List<ConstraintViolation<?>> violations = sorted(validator.validate(container.elements[position], groups));
+            for (int i = 0; i < violations.size(); i++) {
+                violations.set(i, new ElementViolation(root, container, position, violations.get(i)));
+            }
+            return violations;
+        }
+    }
+
+    /**
+     * Validates a range of container elements, recursively splitting
+     * the range in halves until it's smaller then the batch size.
+     */
+    private static final class ElementTask extends RecursiveTask<List<ConstraintViolation<?>>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ElementValidation validation;
+        private final int[] positions;
+        private final int from, to, batchSize;
+
+        private ElementTask(ElementValidation validation, int[] positions, int from, int to, int batchSize) {
+
+            this.validation = validation;
+            this.positions = positions;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected List<ConstraintViolation<?>> compute() {
+
+            if (to - from <= batchSize)
+            {
+                List<ConstraintViolation<?>> violations = new ArrayList<>();
+                for (int i = from; i < to; i++) {
+                    violations.addAll(validation.validate(positions[i]));
+                }
+                return violations;
+            }
+            int middle = (from + to) >>> 1;
+            ElementTask right = new ElementTask(validation, positions, middle, to, batchSize);
+            right.fork();
+            /*
+             * Join the right half after the left half to keep
+             * the violations ordered by element index
+             */
+            List<ConstraintViolation<?>> violations =
+                    new ElementTask(validation, positions, from, middle, batchSize).compute();
+
+            violations.addAll(right.join());
+            return violations;
+        }
+    }
+
+    /**
+     * Violation of a container element reported relative to the root object.
+     */
+    private static final class ElementViolation implements ConstraintViolation<Object> {
+
+        private final Object root;
+        private final ConstraintViolation<?> violation;
+        private final Path path;
+
+        private ElementViolation(Object root, Container container, int position, ConstraintViolation<?> violation) {
+
+            this.root = root;
+            this.violation = violation;
+            this.path = new ElementPath(container, position, violation.getPropertyPath());
+        }
+
+        @Override
+        public String getMessage() {
+            return violation.getMessage();
+        }
+
+        @Override
+        public String getMessageTemplate() {
+            return violation.getMessageTemplate();
+        }
+
+        @Override
+        public Object getRootBean() {
+            return root;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Class<Object> getRootBeanClass() {
+            return (Class<Object>) root.getClass();
+        }
+
+        @Override
+        public Object getLeafBean() {
+            return violation.getLeafBean();
+        }
+
+        @Override
+        public Object @Nullable [] getExecutableParameters() {
+            return null;
+        }
+
+        @Override
+        public @Nullable Object getExecutableReturnValue() {
+            return null;
+        }
+
+        @Override
+        public Path getPropertyPath() {
+            return path;
+        }
+
+        @Override
+        public @Nullable Object getInvalidValue() {
+            return violation.getInvalidValue();
+        }
+
+        @Override
+        public javax.validation.metadata.ConstraintDescriptor<?> getConstraintDescriptor() {
+            return violation.getConstraintDescriptor();
+        }
+
+        @Override
+        public <U> U unwrap(Class<U> type) {
+            return type.isInstance(this) ? type.cast(this) : violation.unwrap(type);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ElementViolation{interpolatedMessage='%s', propertyPath=%s, rootBeanClass=%s}",
+                    getMessage(), path, root.getClass().getName());
+        }
+    }
+
+    /**
+     * Property path of an element violation starting with the container field followed by
+     * the nodes of the element path, the first of which is placed in the container.
+     */
+    private static final class ElementPath implements Path {
+
+        private final List<Node> nodes = new ArrayList<>();
+
+        private ElementPath(Container container, int position, Path elementPath) {
+
+            Class<?> containerClass = container.field.getType();
+            Integer typeArgument = containerClass.isArray() ? null : container.keys != null ? 1 : 0;
+
+            nodes.add(new ContainerNode(container.field.getName()));
+            java.util.Iterator<Node> iterator = elementPath.iterator();
+            nodes.add(new ElementNode(iterator.next(), containerClass, typeArgument,
+                    container.indexed ? position : null, container.keys != null ? container.keys[position] : null));
+
+            iterator.forEachRemaining(nodes::add);
+        }
+
+        @Override
+        public java.util.Iterator<Node> iterator() {
+            return java.util.Collections.unmodifiableList(nodes).iterator();
+        }
+
+        /**
+         * @return path in the same format used by validators, like {@code items[3].name}.
+         */
+        @Override
+        public String toString() {
+
+            StringBuilder builder = new StringBuilder();
+            for (Node node : nodes)
+            {
+                if (node.isInIterable()) {
+                    builder.append('[').append(node.getIndex() != null ? node.getIndex() :
+                            node.getKey() != null ? node.getKey() : "").append(']');
+                }
+                if (node.getName() != null) {
+                    builder.append(builder.length() > 0 ? "." : "").append(node.getName());
+                }
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Property node of the container field in the root object.
+     */
+    private static final class ContainerNode implements Path.PropertyNode {
+
+        private final String name;
+
+        private ContainerNode(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public boolean isInIterable() {
+            return false;
+        }
+
+        @Override
+        public @Nullable Integer getIndex() {
+            return null;
+        }
+
+        @Override
+        public @Nullable Object getKey() {
+            return null;
+        }
+
+        @Override
+        public javax.validation.ElementKind getKind() {
+            return javax.validation.ElementKind.PROPERTY;
+        }
+
+        @Override
+        public <T extends Path.Node> T as(Class<T> nodeType) {
+            return nodeType.cast(this);
+        }
+
+        @Override
+        public @Nullable Class<?> getContainerClass() {
+            return null;
+        }
+
+        @Override
+        public @Nullable Integer getTypeArgumentIndex() {
+            return null;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    /**
+     * First node of an element path placed at the position of the element in the container.
+     * Element paths start with either a property or a bean node, which share the same methods.
+     */
+    private static final class ElementNode implements Path.PropertyNode, Path.BeanNode {
+
+        private final Path.Node node;
+        private final Class<?> containerClass;
+        private final @Nullable Integer typeArgument, index;
+        private final @Nullable Object key;
+
+        private ElementNode(Path.Node node, Class<?> containerClass, @Nullable Integer typeArgument,
+                            @Nullable Integer index, @Nullable Object key) {
+            this.node = node;
+            this.containerClass = containerClass;
+            this.typeArgument = typeArgument;
+            this.index = index;
+            this.key = key;
+        }
+
+        @Override
+        public @Nullable String getName() {
+            return node.getName();
+        }
+
+        @Override
+        public boolean isInIterable() {
+            return true;
+        }
+
+        @Override
+        public @Nullable Integer getIndex() {
+            return index;
+        }
+
+        @Override
+        public @Nullable Object getKey() {
+            return key;
+        }
+
+        @Override
+        public javax.validation.ElementKind getKind() {
+            return node.getKind();
+        }
+
+        @Override
+        public <T extends Path.Node> T as(Class<T> nodeType) {
+
+            if (!nodeType.isInstance(node)) {
+                throw new ClassCastException(String.format("Node of kind %s cannot be cast to %s",
+                        getKind(), nodeType.getName()));
+            }
+            return nodeType.cast(this);
+        }
+
+        @Override
+        public Class<?> getContainerClass() {
+            return containerClass;
+        }
+
+        @Override
+        public @Nullable Integer getTypeArgumentIndex() {
+            return typeArgument;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(node);
+        }
+    }
+
+    /**
+     * Traversable resolver that prevents cascading from the root object into split containers.
+     * When no split fields are defined the resolver prevents reaching the root object entirely.
+     */
+    private static final class SplitTraversableResolver implements TraversableResolver {
+
+        private final TraversableResolver delegate;
+        private final Object root;
+        private final @Nullable Set<Field> splitFields;
+
+        private SplitTraversableResolver(TraversableResolver delegate, Object root, @Nullable Set<Field> splitFields) {
+
+            this.delegate = delegate;
+            this.root = root;
+            this.splitFields = splitFields;
+        }
+
+        @Override
+        public boolean isReachable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+                                   Path pathToTraversableObject, ElementType elementType) {
+
+            return (splitFields != null || traversableObject != root) && delegate.isReachable(traversableObject,
+                    traversableProperty, rootBeanType, pathToTraversableObject, elementType);
+        }
+
+        @Override
+        public boolean isCascadable(Object traversableObject, Path.Node traversableProperty, Class<?> rootBeanType,
+                                    Path pathToTraversableObject, ElementType elementType) {
+
+            if (traversableObject == root && (splitFields == null ||
+                    (elementType == ElementType.FIELD && isSplitField(traversableProperty.getName())))) {
+                return false;
+            }
+            return delegate.isCascadable(traversableObject, traversableProperty,
+                    rootBeanType, pathToTraversableObject, elementType);
+        }
+
+        /**
+         * @return {@code true} if the root object field with the given name was split.
+         *         Split field names are unique in the root class hierarchy.
+         */
+        private boolean isSplitField(String name) {
+
+            for (Field field : java.util.Objects.requireNonNull(splitFields)) {
+                if (field.getName().equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
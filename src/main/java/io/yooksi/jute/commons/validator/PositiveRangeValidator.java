@@ -16,12 +16,17 @@
 package io.yooksi.jute.commons.validator;
 
 import io.yooksi.jute.commons.define.PositiveRange;
+import io.yooksi.jute.commons.util.AnnotationUtils;
 
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 public class PositiveRangeValidator implements ConstraintValidator<PositiveRange, Number> {
 
+    /* Read the maximum value through an accessor so runtime overrides are respected */
+    private static final AnnotationUtils.DoubleAttribute<PositiveRange> MAX =
+            AnnotationUtils.getDoubleAttribute(PositiveRange.class, "max");
+
     private PositiveRange constraint;
 
     @Override
@@ -33,6 +38,6 @@ public class PositiveRangeValidator implements ConstraintValidator<PositiveRange
     public boolean isValid(Number value, ConstraintValidatorContext ctx) {
 
         double number = value != null ? value.doubleValue() : 0;
-        return value != null && number >= 0 && number <= constraint.max();
+        return value != null && number >= 0 && number <= MAX.get(constraint);
     }
 }
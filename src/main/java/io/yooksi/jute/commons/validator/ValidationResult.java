@@ -0,0 +1,104 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.validator;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import org.jetbrains.annotations.Contract;
+
+import javax.validation.ConstraintViolation;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Immutable outcome of a bean validation performed by {@link BeanValidator}.</p>
+ * Successful validations are always represented by the same shared instance returned
+ * by {@link #valid()} so that the success path does not allocate anything. Failed
+ * validations hold a compact, unmodifiable list of the produced constraint violations.
+ *
+ * @param <T> type of the root bean that was validated
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ValidationResult<T> {
+
+    /**
+     * Shared instance representing a validation that produced no violations.
+     */
+    private static final ValidationResult<?> VALID = new ValidationResult<>(Collections.emptyList());
+
+    private final List<ConstraintViolation<T>> violations;
+
+    private ValidationResult(List<ConstraintViolation<T>> violations) {
+        this.violations = violations;
+    }
+
+    /**
+     * @return the shared instance representing a successful validation.
+     */
+    @SuppressWarnings("unchecked")
+    @Contract(pure = true)
+    public static <T> ValidationResult<T> valid() {
+        return (ValidationResult<T>) VALID;
+    }
+
+    /**
+     * Create a new result that holds the given violations. The violations are copied
+     * into an unmodifiable list so the result is not affected by later changes to the
+     * given collection.
+     *
+     * @param violations constraint violations produced by the validation
+     * @return the shared {@link #valid()} instance if the collection is empty,
+     *         otherwise a new result holding the given violations.
+     */
+    public static <T> ValidationResult<T> of(java.util.Collection<ConstraintViolation<T>> violations) {
+
+        if (violations.isEmpty()) {
+            return valid();
+        }
+        return new ValidationResult<>(Collections.unmodifiableList(new java.util.ArrayList<>(violations)));
+    }
+
+    /**
+     * @return {@code true} if the validation did not produce any violations.
+     */
+    @Contract(pure = true)
+    public boolean isValid() {
+        return this == VALID;
+    }
+
+    /**
+     * @return an unmodifiable list of violations produced by the validation,
+     *         or an empty list if the validation was successful.
+     */
+    @Contract(pure = true)
+    public List<ConstraintViolation<T>> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return the number of violations produced by the validation.
+     */
+    @Contract(pure = true)
+    public int getViolationCount() {
+        return violations.size();
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "ValidationResult[valid]" :
+                String.format("ValidationResult[violations=%d]", violations.size());
+    }
+}
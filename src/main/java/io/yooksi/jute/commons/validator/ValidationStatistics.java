@@ -0,0 +1,264 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.validator;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+import io.yooksi.jute.commons.logger.LibraryLogger;
+import org.jetbrains.annotations.Contract;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.validation.ConstraintViolation;
+import java.beans.ConstructorProperties;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Records per bean class and per constraint statistics of validations performed by {@link BeanValidator}.</p>
+ * <p>
+ *     Recording is disabled by default and can be toggled at runtime either programmatically
+ *     or over JMX once the statistics are {@link #register() registered} with the platform
+ *     MBean server. All counters are striped {@link LongAdder} instances so recording from
+ *     many threads at the same time does not contend on a single memory location.
+ * </p>
+ * Validation times are tracked in a histogram with power-of-two nanosecond buckets,
+ * so reported percentiles are the upper bound of the bucket they fall into.
+ */
+@MethodsNotNull
+@SuppressWarnings({"unused", "WeakerAccess"})
+public final class ValidationStatistics implements ValidationStatisticsMXBean {
+
+    /**
+     * Name under which the statistics are registered with the platform MBean server.
+     */
+    public static final String OBJECT_NAME = "io.yooksi.jute.commons:type=ValidationStatistics";
+
+    private static final ValidationStatistics INSTANCE = new ValidationStatistics();
+
+    /* One bucket for each possible power of two of a positive long value */
+    private static final int BUCKET_COUNT = 64;
+
+    private final Map<Class<?>, BeanCounters> beanCounters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, LongAdder> constraintViolations = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+
+    private ValidationStatistics() {}
+
+    /**
+     * @return the statistics instance used by {@link BeanValidator}.
+     */
+    @Contract(pure = true)
+    public static ValidationStatistics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register the statistics with the platform MBean server if they are not already registered.
+     *
+     * @throws IllegalStateException if the statistics could not be registered.
+     * @see #OBJECT_NAME
+     */
+    public static void register() {
+
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+                LibraryLogger.debug("Registered validation statistics MXBean %s", OBJECT_NAME);
+            }
+        }
+        catch (InstanceAlreadyExistsException e) {
+            /* Registered concurrently by another thread */
+        }
+        catch (JMException e) {
+            throw new IllegalStateException("Unable to register validation statistics MXBean", e);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Record a single validation of the given bean class.
+     *
+     * @param beanClass class of the validated bean
+     * @param nanos time spent validating in nanoseconds
+     * @param violations constraint violations produced by the validation
+     */
+    void record(Class<?> beanClass, long nanos, Collection<? extends ConstraintViolation<?>> violations) {
+
+        BeanCounters counters = beanCounters.get(beanClass);
+        if (counters == null) {
+            counters = beanCounters.computeIfAbsent(beanClass, c -> new BeanCounters());
+        }
+        counters.record(nanos, violations.size());
+
+        for (ConstraintViolation<?> violation : violations)
+        {
+            Class<?> constraint = violation.getConstraintDescriptor().getAnnotation().annotationType();
+            LongAdder adder = constraintViolations.get(constraint);
+            if (adder == null) {
+                adder = constraintViolations.computeIfAbsent(constraint, c -> new LongAdder());
+            }
+            adder.increment();
+        }
+    }
+
+    @Override
+    public Map<String, BeanStatistics> getBeanStatistics() {
+
+        Map<String, BeanStatistics> statistics = new TreeMap<>();
+        beanCounters.forEach((beanClass, counters) -> statistics.put(beanClass.getName(), counters.snapshot()));
+        return statistics;
+    }
+
+    @Override
+    public Map<String, Long> getConstraintViolations() {
+
+        Map<String, Long> violations = new TreeMap<>();
+        constraintViolations.forEach((constraint, adder) -> violations.put(constraint.getName(), adder.sum()));
+        return violations;
+    }
+
+    @Override
+    public void reset() {
+
+        beanCounters.clear();
+        constraintViolations.clear();
+    }
+
+    /**
+     * Striped counters of a single bean class.
+     */
+    private static final class BeanCounters {
+
+        private final LongAdder validations = new LongAdder();
+        private final LongAdder violations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder[] histogram = new LongAdder[BUCKET_COUNT];
+
+        private BeanCounters() {
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                histogram[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos, int violationCount) {
+
+            long time = Math.max(0, nanos);
+            validations.increment();
+            totalNanos.add(time);
+            if (violationCount > 0) {
+                violations.add(violationCount);
+            }
+            histogram[BUCKET_COUNT - 1 - Long.numberOfLeadingZeros(time | 1)].increment();
+        }
+
+        private BeanStatistics snapshot() {
+
+            long[] buckets = new long[BUCKET_COUNT];
+            long count = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                count += buckets[i] = histogram[i].sum();
+            }
+            return new BeanStatistics(validations.sum(), violations.sum(), totalNanos.sum(),
+                    percentile(buckets, count, 0.5), percentile(buckets, count, 0.9),
+                    percentile(buckets, count, 0.99), percentile(buckets, count, 1.0));
+        }
+
+        /**
+         * @return upper bound of the histogram bucket holding the given percentile.
+         */
+        private static long percentile(long[] buckets, long count, double percentile) {
+
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(count * percentile);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                if ((seen += buckets[i]) >= rank) {
+                    return i == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                }
+            }
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Immutable snapshot of validation statistics for a single bean class.
+     * All times are expressed in nanoseconds.
+     */
+    public static final class BeanStatistics {
+
+        private final long validations, violations, totalTime;
+        private final long medianTime, p90Time, p99Time, maxTime;
+
+        @ConstructorProperties({ "validations", "violations", "totalTime",
+                "medianTime", "p90Time", "p99Time", "maxTime" })
+        public BeanStatistics(long validations, long violations, long totalTime,
+                              long medianTime, long p90Time, long p99Time, long maxTime) {
+
+            this.validations = validations;
+            this.violations = violations;
+            this.totalTime = totalTime;
+            this.medianTime = medianTime;
+            this.p90Time = p90Time;
+            this.p99Time = p99Time;
+            this.maxTime = maxTime;
+        }
+
+        public long getValidations() {
+            return validations;
+        }
+        public long getViolations() {
+            return violations;
+        }
+        public long getTotalTime() {
+            return totalTime;
+        }
+        public long getMeanTime() {
+            return validations > 0 ? totalTime / validations : 0;
+        }
+        public long getMedianTime() {
+            return medianTime;
+        }
+        public long getP90Time() {
+            return p90Time;
+        }
+        public long getP99Time() {
+            return p99Time;
+        }
+        public long getMaxTime() {
+            return maxTime;
+        }
+    }
+}
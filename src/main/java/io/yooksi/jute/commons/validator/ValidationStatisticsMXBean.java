@@ -0,0 +1,50 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.validator;
+
+/**
+ * Management interface exposing {@link BeanValidator} validation statistics over JMX.
+ * @see ValidationStatistics#register()
+ */
+@SuppressWarnings("unused")
+public interface ValidationStatisticsMXBean {
+
+    /**
+     * @return {@code true} if validation statistics are being recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Start or stop recording validation statistics.
+     * Already recorded statistics are retained when recording is stopped.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * @return validation statistics mapped to names of validated bean classes.
+     */
+    java.util.Map<String, ValidationStatistics.BeanStatistics> getBeanStatistics();
+
+    /**
+     * @return number of reported violations mapped to names of violated constraint annotations.
+     */
+    java.util.Map<String, Long> getConstraintViolations();
+
+    /**
+     * Discard all recorded statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Internal helper that searches byte arrays for {@link ArrayUtils}.</p>
+ * This implementation is used on Java 9 and later. It reads eight bytes at a time as a single
+ * {@code long} value through a byte array view {@link VarHandle} and finds matching bytes with
+ * bitwise arithmetic, so a single branch covers eight elements.
+ */
+@MethodsNotNull
+final class ByteSearch {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    /* Make the constructor private to disable instantiation */
+    private ByteSearch() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return index of the first occurrence of the given value in the given
+     *         index range of the array or {@code -1} if it was not found.
+     */
+    static int indexOf(byte[] array, byte value, int from, int to) {
+
+        long pattern = (value & 0xFFL) * LOW_BITS;
+        int i = from;
+        for (int end = to - Long.BYTES; i <= end; i += Long.BYTES)
+        {
+            /* Matching bytes become zero bytes, the lowest flagged zero byte is always exact */
+            long word = (long) LONGS.get(array, i) ^ pattern;
+            long zeros = (word - LOW_BITS) & ~word & HIGH_BITS;
+            if (zeros != 0) {
+                return i + (Long.numberOfTrailingZeros(zeros) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (array[i] == value) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.MethodsNotNull;
+
+import java.util.Iterator;
+
+/**
+ * <p>Internal helper that resolves calling classes for {@link ReflectionUtils#getCallerClass(int)}.</p>
+ * This implementation is used on Java 9 and later. It walks stack frames lazily with
+ * {@link StackWalker} and stops as soon as the requested caller is found, taking the class
+ * directly from the stack frame instead of resolving it by name. Note that reflection
+ * frames are not visible to the stack walker and are never considered callers.
+ */
+@MethodsNotNull
+final class CallerResolver {
+
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    /* Make the constructor private to disable instantiation */
+    private CallerResolver() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @param index {@code Nth} unique calling class to return starting
+     *              from the class calling {@code ReflectionUtils}
+     * @throws IndexOutOfBoundsException when the calling class could not be found.
+     */
+    static Class<?> getCallerClass(int index) {
+
+        Class<?> caller = WALKER.walk(frames -> {
+
+            Iterator<StackWalker.StackFrame> iterator = frames.iterator();
+            Class<?> callingClass = ReflectionUtils.class;
+            int searchIndex = index + 1;
+            /*
+             * Skip frames of this class, after that keep counting
+             * consecutive frames of different classes
+             */
+            while (iterator.hasNext())
+            {
+                Class<?> frameClass = iterator.next().getDeclaringClass();
+                if (frameClass != CallerResolver.class && frameClass != callingClass)
+                {
+                    if ((searchIndex -= 1) == 0) {
+                        return frameClass;
+                    }
+                    else callingClass = frameClass;
+                }
+            }
+            return null;
+        });
+        if (caller == null) {
+            throw new IndexOutOfBoundsException("Unable to find caller class in current" +
+                    " thread stacktrace when searching with index " + index);
+        }
+        return caller;
+    }
+}
@@ -21,6 +21,18 @@ import org.junit.jupiter.api.function.Executable;
 @SuppressWarnings("WeakerAccess")
 public class TestUtils {
 
+    /* Classes in other packages can access the public field only through reflection */
+    static class PackagePrivateData {
+        public int value = 5;
+    }
+
+    /**
+     * @return new instance of a package-private class declaring a public field named {@code value}.
+     */
+    public static Object newPackagePrivateData() {
+        return new PackagePrivateData();
+    }
+
     public static void assertThrowCause(Throwable t, Class<? extends Throwable> c) {
         Assertions.assertEquals(c, t.getCause().getClass());
     }
@@ -0,0 +1,279 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.LibraryAnnotation;
+import io.yooksi.jute.commons.define.PositiveRange;
+import io.yooksi.jute.commons.index.AnnotationIndex;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class AnnotationUtilsTests {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface PublicAnnotation {
+        boolean flag();
+        short number() default 3;
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface PrivateAnnotation {
+        long number();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @PublicAnnotation(flag = true)
+    public @interface ComposedAnnotation {}
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @ComposedAnnotation
+    @LibraryAnnotation
+    public @interface NestedComposedAnnotation {}
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @NestedComposedAnnotation
+    public @interface TransitiveLibraryAnnotation {}
+
+    @NestedComposedAnnotation
+    private interface AnnotatedInterface {}
+    private static class BaseClass implements AnnotatedInterface {}
+    private static class ChildClass extends BaseClass {}
+
+    @PositiveRange(max = 10, level = "WARN")
+    private final int annotatedField = 5;
+
+    @PositiveRange(max = 10, level = "WARN")
+    private final int equallyAnnotatedField = 5;
+
+    @TransitiveLibraryAnnotation
+    private final int transitiveField = 0;
+
+    private static void annotatedMethod(String name, @PositiveRange(max = 10) int value) {}
+
+    @PublicAnnotation(flag = true)
+    @PrivateAnnotation(number = 7)
+    private final int multiAnnotatedField = 5;
+
+    private static Annotation getFieldAnnotation() {
+        return getFieldAnnotation("annotatedField", PositiveRange.class);
+    }
+
+    private static <A extends Annotation> A getFieldAnnotation(String field, Class<A> type) {
+        try {
+            return AnnotationUtilsTests.class.getDeclaredField(field).getAnnotation(type);
+        }
+        catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    public void testGetAnnotationAttributes() throws NoSuchMethodException {
+
+        Annotation annotation = getFieldAnnotation();
+        java.util.Map<String, Object> attributes = AnnotationUtils.getAttributes(annotation);
+
+        Assertions.assertEquals(10.0, attributes.get("max"));
+        Assertions.assertEquals("WARN", attributes.get("level"));
+        Assertions.assertSame(attributes, AnnotationUtils.getAttributes(annotation));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> attributes.put("level", "INFO"));
+
+        Assertions.assertEquals("max", AnnotationUtils.getAttribute(annotation, "max").getKey().getName());
+        Assertions.assertThrows(NoSuchMethodException.class, () -> AnnotationUtils.getAttribute(annotation, "min"));
+
+        Assertions.assertEquals(10.0, AnnotationUtils.getAttributeValue(annotation, "max", double.class));
+        Assertions.assertEquals("WARN", AnnotationUtils.getAttributeValue(annotation, "level", String.class));
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> AnnotationUtils.getAttributeValue(annotation, "level", Integer.class));
+    }
+
+    @Test
+    public void testTypedAttributeAccessors() {
+
+        PositiveRange range = getFieldAnnotation("annotatedField", PositiveRange.class);
+        AnnotationUtils.DoubleAttribute<PositiveRange> max = AnnotationUtils.getDoubleAttribute(PositiveRange.class, "max");
+        AnnotationUtils.Attribute<PositiveRange, String> level =
+                AnnotationUtils.getAttributeAccessor(PositiveRange.class, "level", String.class);
+
+        Assertions.assertEquals(10.0, max.get(range));
+        Assertions.assertEquals("WARN", level.get(range));
+        Assertions.assertSame(max, AnnotationUtils.getDoubleAttribute(PositiveRange.class, "max"));
+
+        PublicAnnotation publicAnnotation = getFieldAnnotation("multiAnnotatedField", PublicAnnotation.class);
+        Assertions.assertTrue(AnnotationUtils.getBooleanAttribute(PublicAnnotation.class, "flag").get(publicAnnotation));
+        Assertions.assertEquals(3, AnnotationUtils.getIntAttribute(PublicAnnotation.class, "number").get(publicAnnotation));
+        Assertions.assertEquals(3L, AnnotationUtils.getLongAttribute(PublicAnnotation.class, "number").get(publicAnnotation));
+
+        /* Boxed and primitive accessors of the same attribute are cached separately */
+        AnnotationUtils.Attribute<PublicAnnotation, Boolean> boxedFlag =
+                AnnotationUtils.getAttributeAccessor(PublicAnnotation.class, "flag", boolean.class);
+        Assertions.assertEquals(Boolean.TRUE, boxedFlag.get(publicAnnotation));
+        Assertions.assertSame(boxedFlag, AnnotationUtils.getAttributeAccessor(PublicAnnotation.class, "flag", Boolean.class));
+        Assertions.assertSame(AnnotationUtils.getBooleanAttribute(PublicAnnotation.class, "flag"),
+                AnnotationUtils.getBooleanAttribute(PublicAnnotation.class, "flag"));
+
+        /* Accessors for non-public annotations use a slower fallback implementation */
+        PrivateAnnotation privateAnnotation = getFieldAnnotation("multiAnnotatedField", PrivateAnnotation.class);
+        Assertions.assertEquals(7L, AnnotationUtils.getLongAttribute(PrivateAnnotation.class, "number").get(privateAnnotation));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AnnotationUtils.getIntAttribute(PrivateAnnotation.class, "number"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AnnotationUtils.getBooleanAttribute(PositiveRange.class, "min"));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> AnnotationUtils.getAttributeAccessor(PositiveRange.class, "level", Integer.class));
+    }
+
+    @Test
+    public void testAnnotationIndex() throws java.io.IOException {
+
+        java.util.List<AnnotationIndex.Entry> entries = AnnotationUtils.getIndexedElements(PositiveRange.class);
+        Assertions.assertTrue(entries.contains(new AnnotationIndex.Entry(AnnotationIndex.Kind.FIELD,
+                PositiveRange.class.getName(), AnnotationUtilsTests.class.getName(), "annotatedField")));
+
+        /* Parameters are recorded by position as names are not always available */
+        Assertions.assertTrue(entries.contains(new AnnotationIndex.Entry(AnnotationIndex.Kind.PARAMETER,
+                PositiveRange.class.getName(), AnnotationUtilsTests.class.getName(), "annotatedMethod(java.lang.String,int):1")));
+
+        Assertions.assertTrue(AnnotationUtils.getIndexedClasses(PositiveRange.class).contains(AnnotationUtilsTests.class));
+        Assertions.assertTrue(AnnotationUtils.getIndexedElements(Test.class).isEmpty());
+
+        /* Annotations composed with library annotations are indexed transitively */
+        Assertions.assertTrue(AnnotationUtils.getIndexedElements(TransitiveLibraryAnnotation.class).contains(
+                new AnnotationIndex.Entry(AnnotationIndex.Kind.FIELD, TransitiveLibraryAnnotation.class.getName(),
+                        AnnotationUtilsTests.class.getName(), "transitiveField")));
+
+        java.io.ByteArrayOutputStream stream = new java.io.ByteArrayOutputStream();
+        AnnotationIndex.write(stream, entries);
+        byte[] bytes = stream.toByteArray();
+        Assertions.assertEquals(entries, AnnotationIndex.read(new java.io.ByteArrayInputStream(bytes)));
+
+        /* Corrupted references into the string table are reported as I/O errors */
+        bytes[bytes.length - 1] = 0x7F;
+        Assertions.assertThrows(java.io.IOException.class,
+                () -> AnnotationIndex.read(new java.io.ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void testMetaAnnotationResolution() {
+
+        Assertions.assertTrue(AnnotationUtils.isMetaAnnotated(PositiveRange.class, LibraryAnnotation.class));
+        Assertions.assertTrue(AnnotationUtils.isMetaAnnotated(NestedComposedAnnotation.class, PublicAnnotation.class));
+        Assertions.assertTrue(AnnotationUtils.isMetaAnnotated(NestedComposedAnnotation.class, Retention.class));
+        Assertions.assertFalse(AnnotationUtils.isMetaAnnotated(ComposedAnnotation.class, LibraryAnnotation.class));
+        Assertions.assertTrue(AnnotationUtils.isLibraryAnnotation(getFieldAnnotation()));
+
+        PublicAnnotation meta = AnnotationUtils.getMetaAnnotation(NestedComposedAnnotation.class, PublicAnnotation.class);
+        Assertions.assertNotNull(meta);
+        Assertions.assertTrue(meta.flag());
+
+        Assertions.assertNotNull(AnnotationUtils.findAnnotation(ChildClass.class, NestedComposedAnnotation.class));
+        Assertions.assertSame(meta, AnnotationUtils.findAnnotation(ChildClass.class, PublicAnnotation.class));
+        Assertions.assertSame(meta, AnnotationUtils.findAnnotation(ChildClass.class, PublicAnnotation.class));
+        Assertions.assertTrue(AnnotationUtils.isAnnotated(BaseClass.class, ComposedAnnotation.class));
+        Assertions.assertFalse(AnnotationUtils.isAnnotated(ChildClass.class, PositiveRange.class));
+        Assertions.assertFalse(AnnotationUtils.isAnnotated(ChildClass.class, PositiveRange.class));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void testAttributeOverrides() throws NoSuchFieldException {
+
+        java.lang.reflect.Field field = AnnotationUtilsTests.class.getDeclaredField("annotatedField");
+        java.lang.reflect.Field equalField = AnnotationUtilsTests.class.getDeclaredField("equallyAnnotatedField");
+        PositiveRange range = field.getAnnotation(PositiveRange.class);
+
+        AnnotationUtils.DoubleAttribute<PositiveRange> max = AnnotationUtils.getDoubleAttribute(PositiveRange.class, "max");
+        AnnotationUtils.Attribute<PositiveRange, String> level =
+                AnnotationUtils.getAttributeAccessor(PositiveRange.class, "level", String.class);
+        try {
+            Assertions.assertEquals("WARN", AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "level", "INFO"));
+            Assertions.assertEquals("INFO", AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "level", "DEBUG"));
+            Assertions.assertEquals(10.0, AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "max", 20.0));
+
+            Assertions.assertEquals("DEBUG", level.get(range));
+            Assertions.assertEquals(20.0, max.get(range));
+            Assertions.assertEquals("DEBUG", AnnotationUtils.getAttributes(range).get("level"));
+            Assertions.assertEquals(20.0, AnnotationUtils.getAttributeValue(range, "max", Double.class));
+            Assertions.assertEquals(20.0, AnnotationUtils.getAttributes(field, PositiveRange.class).get("max"));
+            /* Overrides never modify the annotation itself */
+            Assertions.assertEquals("WARN", range.level());
+
+            /* Overrides are found for copies of the element and its annotation */
+            java.lang.reflect.Field copy = AnnotationUtilsTests.class.getDeclaredField("annotatedField");
+            Assertions.assertEquals(20.0, AnnotationUtils.getAttributes(copy, PositiveRange.class).get("max"));
+
+            /* Equal annotations read through other elements are not affected */
+            Assertions.assertEquals("WARN", AnnotationUtils.getAttributes(equalField, PositiveRange.class).get("level"));
+            Assertions.assertEquals(10.0, AnnotationUtils.getAttributes(equalField, PositiveRange.class).get("max"));
+
+            java.lang.reflect.Field multiField = AnnotationUtilsTests.class.getDeclaredField("multiAnnotatedField");
+            AnnotationUtils.overrideAttributeValue(multiField, PublicAnnotation.class, "number", (short) 9);
+            Assertions.assertEquals(9L, AnnotationUtils.getLongAttribute(PublicAnnotation.class, "number")
+                    .get(multiField.getAnnotation(PublicAnnotation.class)));
+
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "max", "10"));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "min", 0.0));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AnnotationUtils.overrideAttributeValue(field, PublicAnnotation.class, "flag", false));
+            Assertions.assertThrows(UnsupportedOperationException.class,
+                    () -> AnnotationUtils.changeAnnotationValue(range, "level", "DEBUG"));
+
+            Assertions.assertTrue(AnnotationUtils.removeAttributeOverrides(copy, PositiveRange.class));
+            Assertions.assertFalse(AnnotationUtils.removeAttributeOverrides(field, PositiveRange.class));
+            Assertions.assertEquals("WARN", level.get(range));
+            Assertions.assertEquals(10.0, AnnotationUtils.getAttributes(range).get("max"));
+        }
+        finally {
+            AnnotationUtils.clearAttributeOverrides();
+        }
+    }
+
+    @Test
+    public void testParameterAttributeOverrides() throws NoSuchMethodException {
+
+        java.lang.reflect.Method method = AnnotationUtilsTests.class.getDeclaredMethod("annotatedMethod", String.class, int.class);
+        AnnotationUtils.DoubleAttribute<PositiveRange> max = AnnotationUtils.getDoubleAttribute(PositiveRange.class, "max");
+        try {
+            Assertions.assertEquals(10.0, AnnotationUtils.overrideAttributeValue(method, 1, PositiveRange.class, "max", 30.0));
+
+            /* Parameter annotations are parsed again on every lookup */
+            PositiveRange range = (PositiveRange) method.getParameterAnnotations()[1][0];
+            Assertions.assertNotSame(range, method.getParameterAnnotations()[1][0]);
+            Assertions.assertEquals(30.0, max.get(range));
+            Assertions.assertEquals(30.0, max.get(method.getParameters()[1].getAnnotation(PositiveRange.class)));
+            Assertions.assertEquals(30.0, AnnotationUtils.getAttributes(method, 1, PositiveRange.class).get("max"));
+
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AnnotationUtils.overrideAttributeValue(method, 0, PositiveRange.class, "max", 30.0));
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> AnnotationUtils.overrideAttributeValue(method, 2, PositiveRange.class, "max", 30.0));
+
+            Assertions.assertTrue(AnnotationUtils.removeAttributeOverrides(method, 1, PositiveRange.class));
+            Assertions.assertEquals(10.0, max.get(range));
+        }
+        finally {
+            AnnotationUtils.clearAttributeOverrides();
+        }
+    }
+}
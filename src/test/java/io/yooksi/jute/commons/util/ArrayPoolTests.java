@@ -0,0 +1,110 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class ArrayPoolTests {
+
+    @Test
+    public void testThreadLocalReuse() {
+
+        ArrayPool pool = new ArrayPool(1024, 2, 1);
+        byte[] bytes = pool.acquireBytes(100);
+        Assertions.assertEquals(128, bytes.length);
+        Assertions.assertEquals(16, pool.acquireChars(0).length);
+        Assertions.assertEquals(0, pool.getHitCount());
+        Assertions.assertEquals(2, pool.getMissCount());
+
+        pool.release(bytes);
+        Assertions.assertEquals(128, pool.getRetainedBytes());
+        Assertions.assertSame(bytes, pool.acquireBytes(65));
+        Assertions.assertEquals(0, pool.getRetainedBytes());
+        Assertions.assertEquals(1.0 / 3, pool.getHitRate());
+
+        /* Element types are pooled separately */
+        long[] longs = pool.acquireLongs(128);
+        pool.release(longs);
+        Assertions.assertEquals(128 * Long.BYTES, pool.getRetainedBytes());
+        Assertions.assertEquals(128, pool.acquireInts(128).length);
+        Assertions.assertSame(longs, pool.acquireLongs(100));
+
+        /* Arrays larger than the largest size class are never pooled */
+        int[] large = pool.acquireInts(5000);
+        Assertions.assertEquals(5000, large.length);
+        pool.release(large);
+        pool.release(new int[100]);
+        Assertions.assertEquals(2, pool.getDropCount());
+        Assertions.assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void testSharedTier() throws InterruptedException {
+
+        ArrayPool pool = new ArrayPool(64, 1, 2);
+        char[][] released = new char[4][];
+        for (int i = 0; i < released.length; i++) {
+            released[i] = pool.acquireChars(64);
+        }
+        /* One array fits into the thread cache, two into the shared tier */
+        for (char[] array : released) {
+            pool.release(array);
+        }
+        Assertions.assertEquals(1, pool.getDropCount());
+        Assertions.assertEquals(3 * 64 * Character.BYTES, pool.getRetainedBytes());
+
+        java.util.List<char[]> acquired = new java.util.ArrayList<>();
+        Thread thread = new Thread(() -> {
+            acquired.add(pool.acquireChars(33));
+            acquired.add(pool.acquireChars(33));
+            acquired.add(pool.acquireChars(33));
+        });
+        thread.start();
+        thread.join();
+
+        Assertions.assertSame(released[1], acquired.get(0));
+        Assertions.assertSame(released[2], acquired.get(1));
+        Assertions.assertNotSame(released[3], acquired.get(2));
+        Assertions.assertEquals(2, pool.getHitCount());
+
+        pool.clear();
+        Assertions.assertEquals(0, pool.getRetainedBytes());
+        Assertions.assertThrows(NegativeArraySizeException.class, () -> pool.acquireBytes(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ArrayPool(0, 1, 1));
+    }
+
+    @Test
+    public void testUnreachablePoolCollected() throws InterruptedException {
+
+        java.lang.ref.WeakReference<ArrayPool> reference = releaseToNewPool();
+        /* Thread caches of the current thread must not keep the pool reachable */
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(reference.get());
+    }
+
+    private static java.lang.ref.WeakReference<ArrayPool> releaseToNewPool() {
+
+        ArrayPool pool = new ArrayPool(64, 1, 0);
+        pool.release(pool.acquireInts(64));
+        Assertions.assertEquals(64 * Integer.BYTES, pool.getRetainedBytes());
+        return new java.lang.ref.WeakReference<>(pool);
+    }
+}
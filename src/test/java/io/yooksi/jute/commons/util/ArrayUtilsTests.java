@@ -17,6 +17,7 @@ package io.yooksi.jute.commons.util;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 
 @SuppressWarnings("WeakerAccess")
 public class ArrayUtilsTests {
@@ -79,4 +80,119 @@ public class ArrayUtilsTests {
         Integer[] emptyArray = ArrayUtils.expandArray(new Integer[]{}, back, front);
         Assertions.assertEquals(back + front, emptyArray.length);
     }
+
+    @Test
+    public void bulkArrayOperationsTest() {
+
+        int[] array = { 1, 2, 3, 4, 5 };
+        Assertions.assertArrayEquals(new int[] { 1, 5 }, ArrayUtils.removeRange(array, 1, 4));
+        Assertions.assertArrayEquals(array, ArrayUtils.removeRange(array, 2, 2));
+        Assertions.assertArrayEquals(new int[] { 1, 7, 5 }, ArrayUtils.splice(array, 1, 4, new int[] { 7 }));
+        Assertions.assertArrayEquals(new int[] { 7, 8, 9, 4, 5 }, ArrayUtils.splice(array, 0, 3, new int[] { 7, 8, 9 }));
+        /* Splicing an empty range inserts elements like the inherited insert does */
+        Assertions.assertArrayEquals(ArrayUtils.insert(2, array, 8, 9), ArrayUtils.splice(array, 2, 2, new int[] { 8, 9 }));
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArrayUtils.removeRange(array, 3, 2));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> ArrayUtils.splice(array, 0, 6, new int[0]));
+
+        String[] strings = { "a", "b", "c" };
+        String[] spliced = ArrayUtils.splice(strings, 1, 2, new String[] { "x", "y" });
+        Assertions.assertArrayEquals(new String[] { "a", "x", "y", "c" }, spliced);
+        Assertions.assertEquals(String[].class, spliced.getClass());
+        Assertions.assertArrayEquals(new String[] { "c" }, ArrayUtils.removeRange(strings, 0, 2));
+
+        Assertions.assertArrayEquals(new double[] { 0.5 }, ArrayUtils.removeRange(new double[] { 0.5, 1.5 }, 1, 2));
+    }
+
+    @Test
+    public void parallelArrayOperationsTest() {
+
+        /* Large enough to be split across multiple ranges with an uneven last range */
+        int length = ArrayUtils.PARALLEL_THRESHOLD * 5 + 123;
+        int[] ints = new int[length];
+        ArrayUtils.parallelFill(ints, 3);
+        Assertions.assertEquals(3L * length, ArrayUtils.parallelSum(ints));
+
+        ArrayUtils.parallelTransform(ints, i -> i - 2);
+        ArrayUtils.parallelPrefixSum(ints);
+        for (int i = 0; i < length; i++) {
+            Assertions.assertEquals(i + 1, ints[i]);
+        }
+        Assertions.assertEquals(1, ArrayUtils.parallelMin(ints));
+        Assertions.assertEquals(length, ArrayUtils.parallelMax(ints));
+        Assertions.assertEquals(length - 1, ArrayUtils.parallelIndexOf(ints, length));
+        Assertions.assertFalse(ArrayUtils.parallelContains(ints, 0));
+
+        long[] longs = new long[length];
+        ArrayUtils.parallelFill(longs, 7L);
+        longs[40000] = 8L;
+        longs[length - 1] = 8L;
+        Assertions.assertEquals(40000, ArrayUtils.parallelIndexOf(longs, 8L));
+        Assertions.assertEquals(8L, ArrayUtils.parallelMax(longs));
+        Assertions.assertEquals(7L * length + 2, ArrayUtils.parallelSum(longs));
+
+        double[] doubles = new double[length];
+        ArrayUtils.parallelFill(doubles, 0.5);
+        ArrayUtils.parallelPrefixSum(doubles);
+        Assertions.assertEquals(length * 0.5, doubles[length - 1]);
+        Assertions.assertEquals(0.5, ArrayUtils.parallelMin(doubles));
+        Assertions.assertEquals(2, ArrayUtils.parallelIndexOf(doubles, 1.5));
+
+        /* Small arrays are processed sequentially */
+        int[] small = { 4, 2, 6 };
+        ArrayUtils.parallelPrefixSum(small);
+        Assertions.assertArrayEquals(new int[] { 4, 6, 12 }, small);
+        Assertions.assertEquals(ArrayUtils.INDEX_NOT_FOUND, ArrayUtils.parallelIndexOf(small, 5));
+        Assertions.assertEquals(0, ArrayUtils.parallelSum(new double[0]));
+        Assertions.assertDoesNotThrow(() -> ArrayUtils.parallelPrefixSum(new int[0]));
+        Assertions.assertDoesNotThrow(() -> ArrayUtils.parallelPrefixSum(new long[0]));
+        Assertions.assertDoesNotThrow(() -> ArrayUtils.parallelPrefixSum(new double[0]));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ArrayUtils.parallelMin(new long[0]));
+    }
+
+    @Test
+    public void searchAndCompareTest() {
+
+        java.util.Random random = new java.util.Random(3);
+        byte[] bytes = new byte[259];
+        random.nextBytes(bytes);
+
+        /* Results have to match the inherited commons-lang implementation */
+        for (int start = -1; start <= bytes.length + 1; start++)
+        {
+            for (int value = Byte.MIN_VALUE; value <= Byte.MAX_VALUE; value += 17) {
+                Assertions.assertEquals(org.apache.commons.lang3.ArrayUtils.indexOf(bytes, (byte) value, start),
+                        ArrayUtils.indexOf(bytes, (byte) value, start));
+            }
+            Assertions.assertEquals(org.apache.commons.lang3.ArrayUtils.indexOf(bytes, bytes[bytes.length - 1], start),
+                    ArrayUtils.indexOf(bytes, bytes[bytes.length - 1], start));
+        }
+        /* Neighbours differing only in the lowest or highest bit must not be matched */
+        for (byte neighbour : new byte[] { 1, (byte) 0x80, (byte) 0x81, -1 })
+        {
+            byte[] array = new byte[19];
+            java.util.Arrays.fill(array, neighbour);
+            Assertions.assertFalse(ArrayUtils.contains(array, (byte) 0));
+            for (int i = 0; i < array.length; i++)
+            {
+                array[i] = 0;
+                Assertions.assertEquals(i, ArrayUtils.indexOf(array, (byte) 0));
+                Assertions.assertEquals(ArrayUtils.INDEX_NOT_FOUND, ArrayUtils.indexOf(array, (byte) 0, i + 1));
+                array[i] = neighbour;
+            }
+        }
+        Assertions.assertEquals(ArrayUtils.INDEX_NOT_FOUND, ArrayUtils.indexOf((byte[]) null, (byte) 0));
+
+        Assertions.assertTrue(ArrayUtils.isEquals(new double[] { 1, Double.NaN }, new double[] { 1, Double.NaN }));
+        Assertions.assertFalse(ArrayUtils.isEquals(new int[] { 1, 2 }, new int[] { 1, 3 }));
+        Assertions.assertTrue(ArrayUtils.isEquals((byte[]) null, null));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "jute.test.java9", matches = "true")
+    public void multiReleaseSearchTest() {
+
+        /* The Java 9 search reads eight bytes at a time through a byte array view */
+        Assertions.assertDoesNotThrow(() -> ByteSearch.class.getDeclaredField("LONGS"));
+    }
 }
@@ -0,0 +1,198 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import io.yooksi.jute.commons.define.PositiveRange;
+import io.yooksi.jute.commons.validator.BeanValidator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class BeanCopierTests {
+
+    public static class Entity {
+
+        private String name = "entity";
+        private int quantity = 5;
+        private Integer price;
+        private long created = 1000L;
+        private String secret = "secret";
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public int getQuantity() { return quantity; }
+        public void setQuantity(int quantity) { this.quantity = quantity; }
+        public Integer getPrice() { return price; }
+        public void setPrice(Integer price) { this.price = price; }
+        public long getCreated() { return created; }
+        public String getSecret() { return secret; }
+    }
+
+    public static class Dto {
+
+        private String name;
+        @PositiveRange(max = 10)
+        private long amount;
+        private int price = -1;
+        private String created;
+        private String secret;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public long getAmount() { return amount; }
+        public void setAmount(long amount) { this.amount = amount; }
+        public int getPrice() { return price; }
+        public void setPrice(int price) { this.price = price; }
+        public String getCreated() { return created; }
+        public void setCreated(String created) { this.created = created; }
+        public String getSecret() { return secret; }
+        public void setSecret(String secret) { this.secret = secret; }
+    }
+
+    @Test
+    public void testBeanCopy() {
+
+        BeanCopier<Entity, Dto> copier = BeanCopier.create(Entity.class, Dto.class)
+                .map("quantity", "amount").ignore("secret")
+                .convert(long.class, String.class, String::valueOf).build();
+
+        Entity entity = new Entity();
+        Dto dto = copier.copy(entity);
+
+        Assertions.assertEquals("entity", dto.getName());
+        Assertions.assertEquals(5L, dto.getAmount());
+        Assertions.assertEquals("1000", dto.getCreated());
+        Assertions.assertNull(dto.getSecret());
+        /* Null values are not copied to primitive properties */
+        Assertions.assertEquals(-1, dto.getPrice());
+
+        entity.setPrice(20);
+        Assertions.assertEquals(20, copier.copy(entity, dto).getPrice());
+        Assertions.assertEquals(java.util.Arrays.asList("amount", "created", "name", "price"), copier.getCopiedProperties());
+    }
+
+    @Test
+    public void testBeanCopyConversion() {
+
+        BeanCopier<Entity, Dto> copier = BeanCopier.create(Entity.class, Dto.class)
+                .convert("name", (String name) -> name.toUpperCase()).map("created", "amount")
+                .convert("amount", (Long created) -> created / 100).build();
+
+        Dto dto = copier.copy(new Entity());
+        Assertions.assertEquals("ENTITY", dto.getName());
+        Assertions.assertEquals(10L, dto.getAmount());
+        Assertions.assertNull(dto.getCreated());
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BeanCopier.create(Entity.class, Dto.class).map("name", "amount").build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BeanCopier.create(Entity.class, Dto.class).map("missing", "amount").build());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> BeanCopier.create(Entity.class, Dto.class).convert("missing", v -> v).build());
+    }
+
+    public static class Source {
+
+        private int number = 100000;
+        private byte small = 7;
+        private char letter = 'a';
+        private float ratio = 0.5f;
+        private java.util.ArrayList<String> names = new java.util.ArrayList<>(java.util.Arrays.asList("a", "b"));
+
+        public int getNumber() { return number; }
+        public byte getSmall() { return small; }
+        public char getLetter() { return letter; }
+        public float getRatio() { return ratio; }
+        public java.util.ArrayList<String> getNames() { return names; }
+    }
+
+    public static class Target {
+
+        private Object number;
+        private short small;
+        private int letter;
+        private double ratio;
+        private java.util.List<String> names;
+
+        public Object getNumber() { return number; }
+        public void setNumber(Object number) { this.number = number; }
+        public short getSmall() { return small; }
+        public void setSmall(short small) { this.small = small; }
+        public int getLetter() { return letter; }
+        public void setLetter(int letter) { this.letter = letter; }
+        public double getRatio() { return ratio; }
+        public void setRatio(double ratio) { this.ratio = ratio; }
+        public java.util.List<String> getNames() { return names; }
+        public void setNames(java.util.List<String> names) { this.names = names; }
+    }
+
+    @Test
+    public void testBeanCopyAssignableTypes() {
+
+        BeanCopier<Source, Target> copier = BeanCopier.create(Source.class, Target.class).build();
+        Source source = new Source();
+
+        /* Primitive values copied to reference types are boxed but never converted */
+        Target target = copier.copy(source);
+        Assertions.assertEquals(100000, target.getNumber());
+        Assertions.assertEquals((short) 7, target.getSmall());
+        /* Widened by primitive accessors without boxing */
+        Assertions.assertEquals('a', target.getLetter());
+        Assertions.assertEquals(0.5d, target.getRatio());
+        /* Subtypes are copied to supertype properties as they are */
+        Assertions.assertSame(source.getNames(), target.getNames());
+        Assertions.assertSame(source.getNames(), copier.copy(source, target).getNames());
+    }
+
+    static class HiddenSource {
+
+        private int value = 3;
+        public int getValue() { return value; }
+    }
+
+    static class HiddenTarget {
+
+        private long value;
+        public long getValue() { return value; }
+        public void setValue(long value) { this.value = value; }
+    }
+
+    @Test
+    public void testBeanCopyInaccessibleTypes() throws java.beans.IntrospectionException {
+
+        BeanCopier<HiddenSource, HiddenTarget> copier = BeanCopier.create(HiddenSource.class, HiddenTarget.class).build();
+        Assertions.assertEquals(3L, copier.copy(new HiddenSource()).getValue());
+
+        /* Methods cached by the introspector must not be made accessible */
+        for (java.beans.PropertyDescriptor descriptor : java.beans.Introspector.getBeanInfo(
+                HiddenTarget.class, Object.class).getPropertyDescriptors()) {
+            Assertions.assertFalse(descriptor.getReadMethod().isAccessible());
+            Assertions.assertFalse(descriptor.getWriteMethod().isAccessible());
+        }
+    }
+
+    @Test
+    public void testBeanCopyValidation() {
+
+        BeanCopier<Entity, Dto> copier = BeanCopier.create(Entity.class, Dto.class)
+                .map("created", "amount").validate().build();
+
+        BeanValidator.recentViolations.clear();
+        copier.copy(new Entity());
+        Assertions.assertEquals(1, BeanValidator.recentViolations.size());
+        BeanValidator.recentViolations.clear();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class BitArrayTests {
+
+    @Test
+    public void testGrowAndConvert() {
+
+        java.util.Random random = new java.util.Random(13);
+        BitArray bits = new BitArray();
+        boolean[] expected = new boolean[0];
+        for (int i = 0; i < 500; i++)
+        {
+            boolean value = random.nextBoolean();
+            switch (random.nextInt(3))
+            {
+                case 0:
+                    bits.prepend(value);
+                    expected = ArrayUtils.prepend(value, expected);
+                    break;
+                case 1:
+                    bits.append(value);
+                    expected = ArrayUtils.add(expected, value);
+                    break;
+                default:
+                    int back = random.nextInt(70), front = random.nextInt(70);
+                    bits.expand(back, front);
+                    expected = ArrayUtils.expandArray(expected, back, front);
+            }
+            Assertions.assertEquals(expected.length, bits.length());
+        }
+        Assertions.assertArrayEquals(expected, bits.toBooleanArray());
+        Assertions.assertEquals(BitArray.of(expected), bits);
+        Assertions.assertEquals(BitArray.of(expected).hashCode(), bits.hashCode());
+
+        int cardinality = 0;
+        for (boolean value : expected) {
+            if (value) cardinality++;
+        }
+        Assertions.assertEquals(cardinality, bits.cardinality());
+
+        int visited = 0;
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            Assertions.assertTrue(expected[i]);
+            visited++;
+        }
+        Assertions.assertEquals(cardinality, visited);
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> bits.get(bits.length()));
+    }
+
+    @Test
+    public void testBulkOperations() {
+
+        BitArray a = BitArray.of(new boolean[] { true, true, false, false, true });
+        BitArray b = BitArray.of(new boolean[] { true, false, true });
+
+        BitArray and = a.copy();
+        and.and(b);
+        Assertions.assertEquals("10000", and.toString());
+
+        BitArray or = a.copy();
+        or.or(b);
+        Assertions.assertEquals("11101", or.toString());
+
+        BitArray xor = b.copy();
+        xor.xor(a);
+        Assertions.assertEquals("011", xor.toString());
+        Assertions.assertEquals(2, xor.cardinality());
+
+        BitArray andNot = a.copy();
+        andNot.andNot(b);
+        Assertions.assertEquals("01001", andNot.toString());
+
+        BitArray large = new BitArray(300);
+        large.fill(60, 200, true);
+        Assertions.assertEquals(140, large.cardinality());
+        Assertions.assertEquals(60, large.nextSetBit(0));
+        Assertions.assertEquals(200, large.nextClearBit(60));
+        Assertions.assertEquals(-1, large.nextSetBit(200));
+        large.fill(64, 128, false);
+        Assertions.assertEquals(128, large.nextSetBit(64));
+        large.flip(299);
+        Assertions.assertTrue(large.get(299));
+        Assertions.assertFalse(large.set(0, true));
+        Assertions.assertEquals(300, new BitArray(300).nextClearBit(300));
+
+        /* Bits of longer operands never leak beyond the length */
+        BitArray shorter = new BitArray(3);
+        shorter.or(large);
+        Assertions.assertEquals(1, shorter.cardinality());
+        shorter.append(false);
+        Assertions.assertEquals("1000", shorter.toString());
+
+        large.clear();
+        Assertions.assertTrue(large.isEmpty());
+        large.expand(0, 10);
+        Assertions.assertEquals(0, large.cardinality());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+@SuppressWarnings({"unused", "WeakerAccess"})
+public class CallerResolverTests {
+
+    private static class OuterCaller {
+
+        private static Class<?> getCaller(int index) {
+            return InnerCaller.getCaller(index);
+        }
+    }
+
+    private static class InnerCaller {
+
+        private static Class<?> getCaller(int index) {
+            return getCallerOfSameClass(index);
+        }
+        /* Consecutive frames of the same class are a single caller */
+        private static Class<?> getCallerOfSameClass(int index) {
+            return ReflectionUtils.getCallerClass(index);
+        }
+    }
+
+    @Test
+    public void testCallerResolution() {
+
+        Assertions.assertEquals(InnerCaller.class, OuterCaller.getCaller(0));
+        Assertions.assertEquals(OuterCaller.class, OuterCaller.getCaller(1));
+        Assertions.assertEquals(CallerResolverTests.class, OuterCaller.getCaller(2));
+
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> OuterCaller.getCaller(Short.MAX_VALUE));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "jute.test.java9", matches = "true")
+    public void testMultiReleaseResolver() {
+
+        /* The Java 9 resolver walks the stack with StackWalker instead of parsing a stacktrace */
+        Assertions.assertDoesNotThrow(() -> CallerResolver.class.getDeclaredField("WALKER"));
+        Assertions.assertEquals(OuterCaller.class, OuterCaller.getCaller(1));
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@SuppressWarnings("WeakerAccess")
+public class MappedArrayTests {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPersistence() throws IOException {
+
+        Path file = tempDir.resolve("longs.bin");
+        /* Use small chunks so that elements span multiple mappings */
+        try (MappedLongArray array = MappedLongArray.create(file, 100, 7))
+        {
+            for (long i = 0; i < array.length(); i++) {
+                Assertions.assertEquals(0, array.get(i));
+                array.set(i, i * i);
+            }
+            for (long i = 0; i < 50; i++) {
+                array.append(-i);
+            }
+            array.force();
+        }
+        Assertions.assertThrows(java.nio.file.FileAlreadyExistsException.class, () -> MappedLongArray.create(file, 1));
+
+        try (MappedLongArray array = MappedLongArray.open(file))
+        {
+            Assertions.assertEquals(150, array.length());
+            Assertions.assertEquals(99 * 99, array.get(99));
+            Assertions.assertEquals(-49, array.get(149));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> array.get(150));
+
+            long[] heap = array.toArray();
+            Assertions.assertEquals(4, heap[2]);
+        }
+        /* Element type is recorded in the header */
+        IOException e = Assertions.assertThrows(IOException.class, () -> MappedIntArray.open(file));
+        Assertions.assertTrue(e.getMessage().contains("different element type"));
+
+        Path invalid = java.nio.file.Files.write(tempDir.resolve("invalid.bin"), new byte[8192]);
+        Assertions.assertThrows(IOException.class, () -> MappedDoubleArray.open(invalid));
+    }
+
+    @Test
+    public void testExpandAndPrepend() throws IOException {
+
+        int[] expected = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+        MappedIntArray array = MappedIntArray.create(tempDir.resolve("ints.bin"), expected.length, 4);
+        array.copyFrom(expected, 0);
+
+        array.expand(3, 2);
+        expected = ArrayUtils.expandArray(expected, 3, 2);
+        Assertions.assertArrayEquals(expected, array.toArray());
+
+        /* Moving far enough for the source and destination to not overlap */
+        array.expand(40, 0);
+        expected = ArrayUtils.expandArray(expected, 40, 0);
+        Assertions.assertArrayEquals(expected, array.toArray());
+
+        array.prepend(42);
+        expected = ArrayUtils.prepend(42, expected);
+        Assertions.assertArrayEquals(expected, array.toArray());
+
+        array.close();
+        Assertions.assertEquals("MappedIntArray[length=56, closed]", array.toString());
+        Assertions.assertThrows(IllegalStateException.class, () -> array.get(0));
+
+        try (MappedIntArray reopened = MappedIntArray.open(tempDir.resolve("ints.bin"))) {
+            Assertions.assertArrayEquals(expected, reopened.toArray());
+        }
+        try (MappedDoubleArray doubles = MappedDoubleArray.create(tempDir.resolve("doubles.bin"), 0))
+        {
+            doubles.append(0.5);
+            doubles.prepend(-1.5);
+            Assertions.assertArrayEquals(new double[] { -1.5, 0.5 }, doubles.toArray());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class OffHeapArrayTests {
+
+    @Test
+    public void testLongArray() {
+
+        /* Use small chunks so that elements span multiple buffers */
+        try (LongArray array = LongArray.allocate(100, 6))
+        {
+            Assertions.assertEquals(100, array.length());
+            for (long i = 0; i < array.length(); i++) {
+                Assertions.assertEquals(0, array.get(i));
+                array.set(i, i * 3);
+            }
+            Assertions.assertEquals(297, array.get(99));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> array.get(100));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> array.set(-1, 0));
+
+            long[] heap = new long[] { -1, -2, -3, -4, -5, -6, -7, -8, -9, -10, -11 };
+            array.copyFrom(heap, 5);
+            long[] copy = new long[11];
+            array.copyTo(5, copy);
+            Assertions.assertArrayEquals(heap, copy);
+            Assertions.assertEquals(48, array.get(5 + heap.length));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> array.copyFrom(heap, 95));
+
+            try (LongArray prepended = array.prepend(42))
+            {
+                Assertions.assertEquals(101, prepended.length());
+                Assertions.assertEquals(42, prepended.get(0));
+                Assertions.assertEquals(array.get(0), prepended.get(1));
+                Assertions.assertEquals(array.get(99), prepended.get(100));
+            }
+            try (LongArray appended = array.append(42))
+            {
+                Assertions.assertEquals(42, appended.get(100));
+                Assertions.assertArrayEquals(array.toArray(), ArrayUtils.removeRange(appended.toArray(), 100, 101));
+            }
+            try (LongArray expanded = array.expand(13, 7))
+            {
+                long[] expected = ArrayUtils.expandArray(array.toArray(), 13, 7);
+                Assertions.assertArrayEquals(expected, expanded.toArray());
+            }
+            Assertions.assertThrows(IllegalArgumentException.class, () -> array.expand(-1, 0));
+        }
+    }
+
+    @Test
+    public void testDoubleAndByteArray() {
+
+        double[] doubles = new double[] { 0.5, -1.25, Double.MAX_VALUE, Double.NaN, 3.0 };
+        try (DoubleArray array = DoubleArray.allocate(doubles.length, 4))
+        {
+            array.copyFrom(doubles, 0);
+            Assertions.assertArrayEquals(doubles, array.toArray());
+            Assertions.assertEquals(-1.25, array.get(1));
+
+            try (DoubleArray expanded = array.expand(3, 0)) {
+                Assertions.assertArrayEquals(ArrayUtils.expandArray(doubles, 3, 0), expanded.toArray());
+            }
+        }
+        byte[] bytes = new byte[300];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) i;
+        }
+        ByteArray array = ByteArray.allocate(bytes.length, 5);
+        array.copyFrom(bytes, 0);
+        Assertions.assertEquals((byte) 255, array.get(255));
+
+        ByteArray prepended = array.prepend((byte) 7);
+        Assertions.assertArrayEquals(ArrayUtils.prepend((byte) 7, bytes), prepended.toArray());
+
+        array.close();
+        prepended.close();
+        Assertions.assertTrue(array.isClosed());
+        Assertions.assertThrows(IllegalStateException.class, () -> array.get(0));
+        Assertions.assertEquals("ByteArray[length=300, closed]", array.toString());
+    }
+}
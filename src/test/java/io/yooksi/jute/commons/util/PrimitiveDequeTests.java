@@ -0,0 +1,89 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class PrimitiveDequeTests {
+
+    @Test
+    public void testIntDeque() {
+
+        IntDeque deque = new IntDeque(2);
+        int[] expected = new int[0];
+        for (int i = 0; i < 100; i++)
+        {
+            if (i % 3 == 0) {
+                deque.addLast(i);
+                expected = ArrayUtils.add(expected, i);
+            }
+            else {
+                deque.addFirst(i);
+                expected = ArrayUtils.prepend(i, expected);
+            }
+        }
+        Assertions.assertEquals(100, deque.size());
+        Assertions.assertArrayEquals(expected, deque.toArray());
+        Assertions.assertEquals(expected[0], deque.getFirst());
+        Assertions.assertEquals(expected[99], deque.getLast());
+        Assertions.assertEquals(expected[50], deque.get(50));
+
+        Assertions.assertEquals(expected[0], deque.removeFirst());
+        Assertions.assertEquals(expected[99], deque.removeLast());
+        Assertions.assertEquals(expected[1], deque.set(0, -1));
+        Assertions.assertEquals(-1, deque.getFirst());
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> deque.get(98));
+
+        int[] sum = new int[1];
+        deque.forEach(e -> sum[0] += e);
+        Assertions.assertEquals(java.util.Arrays.stream(expected, 2, 99).sum() - 1, sum[0]);
+
+        deque.clear();
+        Assertions.assertTrue(deque.isEmpty());
+        Assertions.assertThrows(java.util.NoSuchElementException.class, deque::removeFirst);
+        Assertions.assertThrows(java.util.NoSuchElementException.class, deque::getLast);
+    }
+
+    @Test
+    public void testBulkDequeOperations() {
+
+        LongDeque deque = new LongDeque(new long[] { 3, 4 });
+        deque.addFirst(2);
+        deque.addAllFirst(new long[] { -1, 0, 1 });
+        deque.addAllLast(new long[] { 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17 });
+
+        long[] expected = new long[19];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i - 1;
+        }
+        Assertions.assertArrayEquals(expected, deque.toArray());
+
+        long[] copy = new long[21];
+        deque.copyTo(copy, 2);
+        Assertions.assertEquals(-1, copy[2]);
+        Assertions.assertEquals(17, copy[20]);
+
+        CharDeque chars = new CharDeque(0);
+        chars.addFirst('b');
+        chars.addFirst('a');
+        chars.addLast('c');
+        Assertions.assertEquals("[a, b, c]", chars.toString());
+        Assertions.assertArrayEquals(new char[] { 'a', 'b', 'c' }, chars.toArray());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new BooleanDeque(-1));
+    }
+}
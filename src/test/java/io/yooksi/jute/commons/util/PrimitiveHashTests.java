@@ -0,0 +1,170 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class PrimitiveHashTests {
+
+    @Test
+    public void testIntIntMap() {
+
+        java.util.Random random = new java.util.Random(7);
+        java.util.Map<Integer, Integer> expected = new java.util.HashMap<>();
+        IntIntMap map = new IntIntMap(0, 0.9f);
+        map.defaultReturnValue(-1);
+
+        /* Small key range causes many collisions and removals */
+        for (int i = 0; i < 100000; i++)
+        {
+            int key = random.nextInt(2000) - 1000;
+            int value = random.nextInt();
+            switch (random.nextInt(4))
+            {
+                case 0:
+                    Assertions.assertEquals(expected.getOrDefault(key, -1), map.remove(key));
+                    expected.remove(key);
+                    break;
+                case 1:
+                    Assertions.assertEquals(expected.getOrDefault(key, -1), map.addTo(key, 5));
+                    expected.put(key, expected.getOrDefault(key, -1) + 5);
+                    break;
+                default:
+                    Assertions.assertEquals(expected.getOrDefault(key, -1), map.put(key, value));
+                    expected.put(key, value);
+            }
+            Assertions.assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1000; key < 1000; key++) {
+            Assertions.assertEquals(expected.containsKey(key), map.containsKey(key));
+            Assertions.assertEquals(expected.getOrDefault(key, -1), map.get(key));
+        }
+        java.util.Map<Integer, Integer> visited = new java.util.HashMap<>();
+        for (IntIntMap.Cursor cursor = map.cursor(); cursor.advance();) {
+            Assertions.assertNull(visited.put(cursor.key(), cursor.value()));
+        }
+        Assertions.assertEquals(expected, visited);
+        Assertions.assertEquals(expected.size(), map.keys().length);
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertEquals(-1, map.get(0));
+        Assertions.assertFalse(map.cursor().advance());
+        Assertions.assertThrows(IllegalStateException.class, () -> map.cursor().key());
+    }
+
+    @Test
+    public void testLongLongMap() {
+
+        LongLongMap map = new LongLongMap();
+        for (long i = 0; i < 10000; i++) {
+            map.put(i << 32, i);
+        }
+        Assertions.assertEquals(10000, map.size());
+        Assertions.assertEquals(0, map.get(0));
+        Assertions.assertEquals(9999, map.get(9999L << 32));
+        Assertions.assertEquals(0, map.get(1));
+
+        for (long i = 0; i < 10000; i += 2) {
+            Assertions.assertEquals(i, map.remove(i << 32));
+        }
+        Assertions.assertEquals(5000, map.size());
+        Assertions.assertFalse(map.containsKey(0));
+        Assertions.assertTrue(map.containsKey(1L << 32));
+
+        long sum = 0;
+        for (LongLongMap.Cursor cursor = map.cursor(); cursor.advance();) {
+            cursor.setValue(cursor.value() * 2);
+            sum += cursor.value();
+        }
+        Assertions.assertEquals(2 * 25000000L, sum);
+        Assertions.assertEquals(2, map.get(1L << 32));
+    }
+
+    @Test
+    public void testObjectMaps() {
+
+        IntObjectMap<String> map = new IntObjectMap<>(4);
+        Assertions.assertNull(map.put(0, "zero"));
+        Assertions.assertNull(map.put(1, "one"));
+        Assertions.assertEquals("one", map.put(1, "uno"));
+        Assertions.assertEquals("zero", map.get(0));
+        Assertions.assertEquals("none", map.getOrDefault(2, "none"));
+        Assertions.assertEquals("2", map.computeIfAbsent(2, String::valueOf));
+        Assertions.assertEquals("2", map.computeIfAbsent(2, k -> "two"));
+        Assertions.assertNull(map.computeIfAbsent(3, k -> null));
+        Assertions.assertFalse(map.containsKey(3));
+        Assertions.assertTrue(map.toString().matches("\\{(\\d=\\w+(, )?){3}}"));
+        Assertions.assertEquals("[]", new IntSet().toString());
+
+        LongObjectMap<Object> objects = new LongObjectMap<>();
+        for (long i = -500; i < 500; i++) {
+            objects.put(i * 31, i);
+        }
+        for (long i = -500; i < 500; i++) {
+            Assertions.assertEquals(i, objects.remove(i * 31));
+        }
+        Assertions.assertTrue(objects.isEmpty());
+        Assertions.assertNull(objects.get(0));
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<>(10, 1.0f));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new IntObjectMap<>(-1));
+    }
+
+    @Test
+    public void testPrimitiveSets() {
+
+        java.util.Random random = new java.util.Random(11);
+        java.util.Set<Long> expected = new java.util.HashSet<>();
+        LongSet set = new LongSet();
+
+        for (int i = 0; i < 50000; i++)
+        {
+            long key = random.nextInt(1000) * 0x100000000L;
+            if (random.nextBoolean()) {
+                Assertions.assertEquals(expected.add(key), set.add(key));
+            }
+            else Assertions.assertEquals(expected.remove(key), set.remove(key));
+        }
+        Assertions.assertEquals(expected.size(), set.size());
+        java.util.Set<Long> visited = new java.util.HashSet<>();
+        for (LongSet.Cursor cursor = set.cursor(); cursor.advance();) {
+            Assertions.assertTrue(visited.add(cursor.key()));
+        }
+        Assertions.assertEquals(expected, visited);
+
+        IntSet ints = new IntSet(100);
+        ints.ensureCapacity(1000);
+        for (int i = 999; i >= 0; i--) {
+            Assertions.assertTrue(ints.add(i));
+        }
+        int[] array = ints.toArray();
+        java.util.Arrays.sort(array);
+        for (int i = 0; i < array.length; i++) {
+            Assertions.assertEquals(i, array[i]);
+        }
+        Assertions.assertFalse(ints.add(0));
+        Assertions.assertTrue(ints.contains(0));
+
+        IntSet.Cursor cursor = ints.cursor();
+        Assertions.assertTrue(cursor.advance());
+        ints.add(-1);
+        ints.ensureCapacity(100000);
+        Assertions.assertThrows(java.util.ConcurrentModificationException.class, cursor::advance);
+    }
+}
@@ -29,6 +29,40 @@ public class ReflectionUtilsTests {
     public TestData publicField = new TestData();
     private TestData privateField = new TestData();
 
+    private int intField = 5;
+    private short shortField = 3;
+    private static long staticField = 7L;
+    private final String finalField = "final";
+    private final int finalIntField = 1;
+
+    public interface OverloadCall {
+        String call(Overloads target, String arg);
+    }
+
+    private static class Overloads
+    {
+        private void none() {}
+
+        private String call(Object arg) {
+            return "object";
+        }
+        private String call(String arg) {
+            return "string";
+        }
+        private String call(long arg) {
+            return "long";
+        }
+        private String call(Integer arg) {
+            return "integer";
+        }
+        private static int sum(int a, int b) {
+            return a + b;
+        }
+        private void fail() throws java.io.IOException {
+            throw new java.io.IOException();
+        }
+    }
+
     private class Caller
     {
         private Class getCallerClass() {
@@ -70,4 +104,104 @@ public class ReflectionUtilsTests {
     private void testReadFieldClassCastException() {
         ReflectionUtils.readField(target, "publicField", false, ReflectionUtilsTests.class);
     }
+
+    @Test
+    public void testFieldAccessor() {
+
+        ReflectionUtilsTests target = new ReflectionUtilsTests();
+        FieldAccessor intAccessor = FieldAccessor.of(ReflectionUtilsTests.class, "intField", true);
+        Assertions.assertSame(intAccessor, FieldAccessor.of(ReflectionUtilsTests.class, "intField", true));
+
+        Assertions.assertEquals(5, intAccessor.getInt(target));
+        Assertions.assertEquals(5L, intAccessor.getLong(target));
+        Assertions.assertEquals(5.0, intAccessor.getDouble(target));
+        Assertions.assertEquals(5, intAccessor.get(target));
+        Assertions.assertEquals(Integer.valueOf(5), intAccessor.get(target, int.class));
+
+        intAccessor.setInt(target, 10);
+        Assertions.assertEquals(10, target.intField);
+        intAccessor.set(target, 15);
+        Assertions.assertEquals(15, target.intField);
+
+        FieldAccessor shortAccessor = FieldAccessor.of(ReflectionUtilsTests.class, "shortField", true);
+        shortAccessor.setByte(target, (byte) 4);
+        Assertions.assertEquals(4, shortAccessor.getInt(target));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> shortAccessor.setInt(target, 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> intAccessor.getShort(target));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> intAccessor.getBoolean(target));
+
+        FieldAccessor staticAccessor = FieldAccessor.of(ReflectionUtilsTests.class, "staticField", true);
+        Assertions.assertEquals(7L, staticAccessor.getLong(null));
+        staticAccessor.setLong(null, 8L);
+        Assertions.assertEquals(8L, staticField);
+        staticAccessor.setLong(null, 7L);
+
+        FieldAccessor finalAccessor = FieldAccessor.of(ReflectionUtilsTests.class, "finalField", true);
+        Assertions.assertEquals("final", finalAccessor.get(target, String.class));
+        Assertions.assertThrows(ClassCastException.class, () -> finalAccessor.get(target, Integer.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> intAccessor.set(target, "text"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> intAccessor.getInt(new Object()));
+
+        Assertions.assertThrows(IllegalStateException.class, () -> finalAccessor.set(target, "text"));
+        Assertions.assertThrows(IllegalStateException.class, () -> FieldAccessor.of(
+                ReflectionUtilsTests.class, "finalIntField", true).setInt(target, 1));
+
+        /* Public fields of non-public classes do not require forcing access */
+        Object data = newPackagePrivateData();
+        FieldAccessor publicAccessor = FieldAccessor.of(data.getClass(), "value", false);
+        Assertions.assertEquals(5, publicAccessor.getInt(data));
+        publicAccessor.setInt(data, 6);
+        Assertions.assertEquals(6, ReflectionUtils.readField(data, "value", false, Integer.class));
+
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> FieldAccessor.of(ReflectionUtilsTests.class, "intField", false));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> FieldAccessor.of(ReflectionUtilsTests.class, "missingField", true));
+    }
+
+    @Test
+    public void testMethodInvoker() {
+
+        Overloads target = new Overloads();
+        Assertions.assertEquals("string", ReflectionUtils.invoke(target, "call", "text"));
+        Assertions.assertEquals("integer", ReflectionUtils.invoke(target, "call", 1));
+        /* Arguments are boxed so methods accepting them without unboxing are preferred */
+        Assertions.assertEquals("object", ReflectionUtils.invoke(target, "call", (short) 1));
+        Assertions.assertEquals("object", ReflectionUtils.invoke(target, "call", new Object()));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReflectionUtils.invoke(target, "call", (Object) null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ReflectionUtils.invoke(target, "call", 1, 2));
+
+        Assertions.assertSame(MethodInvoker.resolve(Overloads.class, "call", 5),
+                MethodInvoker.resolve(Overloads.class, "call", 10));
+        Assertions.assertEquals(3, ReflectionUtils.invokeStatic(Overloads.class, "sum", 1, 2));
+
+        MethodInvoker invoker = MethodInvoker.of(Overloads.class, "call", long.class);
+        Assertions.assertSame(invoker, MethodInvoker.of(Overloads.class, "call", long.class));
+        Assertions.assertEquals("long", invoker.invoke(target, String.class, 5L));
+        Assertions.assertThrows(ClassCastException.class, () -> invoker.invoke(target, "text"));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> MethodInvoker.of(Overloads.class, "call", int.class));
+
+        java.lang.reflect.UndeclaredThrowableException e = Assertions.assertThrows(
+                java.lang.reflect.UndeclaredThrowableException.class, () -> ReflectionUtils.invoke(target, "fail"));
+        Assertions.assertTrue(e.getCause() instanceof java.io.IOException);
+
+        java.lang.reflect.Method method = ReflectionUtils.findMethod(Overloads.class, "call", String.class);
+        Assertions.assertNotNull(method);
+        Assertions.assertSame(method, ReflectionUtils.findMethod(Overloads.class, "call", String.class));
+        Assertions.assertNull(ReflectionUtils.findMethod(Overloads.class, "call", double.class));
+        Assertions.assertNull(ReflectionUtils.findMethod(Overloads.class, "call", double.class));
+
+        OverloadCall function = MethodInvoker.of(Overloads.class, "call", String.class).implement(OverloadCall.class);
+        Assertions.assertEquals("string", function.call(target, "text"));
+
+        /* Exact handles are typed with the declaring class and primitive parameters */
+        MethodInvoker sum = MethodInvoker.of(Overloads.class, "sum", int.class, int.class);
+        Assertions.assertEquals(java.lang.invoke.MethodType.methodType(int.class, int.class, int.class), sum.getHandle().type());
+        Assertions.assertEquals(java.lang.invoke.MethodType.methodType(String.class, Overloads.class, long.class),
+                invoker.getHandle().type());
+
+        /* Shared methods are never made accessible */
+        Assertions.assertFalse(ReflectionUtils.findMethod(Overloads.class, "call", long.class).isAccessible());
+        Assertions.assertNull(ReflectionUtils.invoke(target, "none", (Object[]) null));
+    }
 }
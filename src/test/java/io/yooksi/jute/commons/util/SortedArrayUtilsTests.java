@@ -0,0 +1,117 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("WeakerAccess")
+public class SortedArrayUtilsTests {
+
+    private static int[] randomSorted(java.util.Random random, int length, int bound) {
+
+        int[] array = new int[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = random.nextInt(bound);
+        }
+        java.util.Arrays.sort(array);
+        return array;
+    }
+
+    @Test
+    public void testGallopingSearch() {
+
+        int[] array = { 1, 3, 3, 3, 7, 9, 12, 15, 20, 21, 30 };
+        for (int from = 0; from <= array.length; from++)
+        {
+            for (int key = 0; key <= 31; key++)
+            {
+                int expected = from;
+                while (expected < array.length && array[expected] < key) {
+                    expected++;
+                }
+                Assertions.assertEquals(expected, SortedArrayUtils.gallopingSearch(array, from, key));
+            }
+        }
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> SortedArrayUtils.gallopingSearch(array, 12, 0));
+        Assertions.assertEquals(1, SortedArrayUtils.gallopingSearch(new double[] { -0.0, 0.0, Double.NaN }, 0, 0.0));
+        Assertions.assertEquals(2, SortedArrayUtils.gallopingSearch(new double[] { -0.0, 0.0, Double.NaN }, 0, Double.NaN));
+    }
+
+    @Test
+    public void testInsertAndMerge() {
+
+        Assertions.assertArrayEquals(new int[] { 1, 2, 3, 4 }, SortedArrayUtils.insertSorted(new int[] { 1, 2, 4 }, 3));
+        Assertions.assertArrayEquals(new char[] { 'a' }, SortedArrayUtils.insertSorted(new char[0], 'a'));
+        Assertions.assertArrayEquals(new float[] { 1f, 2f, Float.NaN },
+                SortedArrayUtils.insertSorted(new float[] { 1f, Float.NaN }, 2f));
+
+        java.util.Random random = new java.util.Random(5);
+        int[][] arrays = new int[50][];
+        int[] expected = new int[0];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = randomSorted(random, random.nextInt(40), 1000);
+            expected = ArrayUtils.addAll(expected, arrays[i]);
+        }
+        java.util.Arrays.sort(expected);
+        Assertions.assertArrayEquals(expected, SortedArrayUtils.mergeSorted(arrays));
+
+        int[] merged = SortedArrayUtils.mergeSorted(arrays[0], arrays[1]);
+        int[] concatenated = ArrayUtils.addAll(arrays[0], arrays[1]);
+        java.util.Arrays.sort(concatenated);
+        Assertions.assertArrayEquals(concatenated, merged);
+
+        Assertions.assertArrayEquals(new long[0], SortedArrayUtils.mergeSorted(new long[0][]));
+        Assertions.assertArrayEquals(new long[] { 1, 2 }, SortedArrayUtils.mergeSorted(new long[] { 1, 2 }));
+        Assertions.assertArrayEquals(new short[] { 1, 2, 3, 4, 5 }, SortedArrayUtils.mergeSorted(
+                new short[] { 2, 5 }, new short[0], new short[] { 1 }, new short[] { 3, 4 }));
+    }
+
+    @Test
+    public void testIntersectAndUnion() {
+
+        int[] a = { 1, 2, 2, 2, 5, 8, 13 };
+        int[] b = { 2, 2, 3, 5, 13, 21 };
+        Assertions.assertArrayEquals(new int[] { 2, 2, 5, 13 }, SortedArrayUtils.intersectSorted(a, b));
+        Assertions.assertArrayEquals(new int[] { 2, 2, 5, 13 }, SortedArrayUtils.intersectSorted(b, a));
+        Assertions.assertArrayEquals(new int[] { 1, 2, 2, 2, 3, 5, 8, 13, 21 }, SortedArrayUtils.unionSorted(a, b));
+        Assertions.assertArrayEquals(a, SortedArrayUtils.unionSorted(a, new int[0]));
+        Assertions.assertArrayEquals(new int[0], SortedArrayUtils.intersectSorted(a, new int[0]));
+
+        /* Short posting list against a long one exercises the galloping search */
+        java.util.Random random = new java.util.Random(9);
+        int[] large = randomSorted(random, 100000, 1000000);
+        int[] small = randomSorted(random, 100, 1000000);
+        java.util.List<Integer> expected = new java.util.ArrayList<>();
+        java.util.List<Integer> remaining = new java.util.ArrayList<>();
+        for (int value : large) {
+            remaining.add(value);
+        }
+        for (int value : small) {
+            int index = java.util.Collections.binarySearch(remaining, value);
+            if (index >= 0) {
+                expected.add(value);
+                remaining.remove(index);
+            }
+        }
+        Assertions.assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(),
+                SortedArrayUtils.intersectSorted(large, small));
+
+        Assertions.assertArrayEquals(new byte[] { 1, 3 }, SortedArrayUtils.intersectSorted(new byte[] { 1, 2, 3 }, new byte[] { 1, 3 }));
+        Assertions.assertArrayEquals(new double[] { -0.0, 0.0, Double.NaN },
+                SortedArrayUtils.unionSorted(new double[] { -0.0, Double.NaN }, new double[] { 0.0, Double.NaN }));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright [2019] [Matthew Cain]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.yooksi.jute.commons.util;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings({"WeakerAccess", "StringOperationCanBeSimplified"})
+public class WeakIdentityMapTests {
+
+    @Test
+    public void testIdentityKeyComparison() {
+
+        WeakIdentityMap<String, Integer> map = new WeakIdentityMap<>();
+        String key1 = new String("key");
+        String key2 = new String("key");
+
+        map.put(key1, 1);
+        Assertions.assertEquals(1, map.get(key1));
+        Assertions.assertNull(map.get(key2));
+
+        map.put(key2, 2);
+        Assertions.assertEquals(2, map.size());
+        Assertions.assertEquals(2, map.computeIfAbsent(key2, k -> 3));
+
+        Assertions.assertEquals(1, map.remove(key1));
+        Assertions.assertNull(map.get(key1));
+        Assertions.assertEquals(1, map.size());
+
+        map.clear();
+        Assertions.assertEquals(0, map.size());
+    }
+}
@@ -1,17 +1,25 @@
 package io.yooksi.jute.commons.validation;
 
 import io.yooksi.jute.commons.aop.AOPProxy;
+import io.yooksi.jute.commons.define.ImmutableBean;
 import io.yooksi.jute.commons.define.PositiveRange;
 import io.yooksi.jute.commons.logger.LibraryLogger;
+import io.yooksi.jute.commons.util.AnnotationUtils;
 import io.yooksi.jute.commons.util.ArrayUtils;
 import io.yooksi.jute.commons.validator.BeanValidator;
+import io.yooksi.jute.commons.validator.ValidationResult;
+import io.yooksi.jute.commons.validator.ValidationStatistics;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.Valid;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
 import javax.validation.groups.Default;
+import java.util.concurrent.ForkJoinPool;
 
 @SuppressWarnings({"unused", "WeakerAccess"})
 public class ValidationTests {
@@ -39,6 +47,92 @@ public class ValidationTests {
         }
     }
 
+    public static class FourthChild extends Parent {
+
+        public FourthChild(@PositiveOrZero int a, @NotEmpty @NotNull String b) {
+            super(a, b);
+        }
+    }
+
+    /* Constructor parameter indexes are not limited to 64 */
+    public static class WideParent {
+
+        public WideParent(int a0, int a1, int a2, int a3, int a4, int a5, int a6, int a7,
+                          int a8, int a9, int a10, int a11, int a12, int a13, int a14, int a15,
+                          int a16, int a17, int a18, int a19, int a20, int a21, int a22, int a23,
+                          int a24, int a25, int a26, int a27, int a28, int a29, int a30, int a31,
+                          int a32, int a33, int a34, int a35, int a36, int a37, int a38, int a39,
+                          int a40, int a41, int a42, int a43, int a44, int a45, int a46, int a47,
+                          int a48, int a49, int a50, int a51, int a52, int a53, int a54, int a55,
+                          int a56, int a57, int a58, int a59, int a60, int a61, int a62, int a63,
+                          @NotEmpty String b) {}
+    }
+
+    public static class WideChild extends WideParent {
+
+        public WideChild(int a0, int a1, int a2, int a3, int a4, int a5, int a6, int a7,
+                         int a8, int a9, int a10, int a11, int a12, int a13, int a14, int a15,
+                         int a16, int a17, int a18, int a19, int a20, int a21, int a22, int a23,
+                         int a24, int a25, int a26, int a27, int a28, int a29, int a30, int a31,
+                         int a32, int a33, int a34, int a35, int a36, int a37, int a38, int a39,
+                         int a40, int a41, int a42, int a43, int a44, int a45, int a46, int a47,
+                         int a48, int a49, int a50, int a51, int a52, int a53, int a54, int a55,
+                         int a56, int a57, int a58, int a59, int a60, int a61, int a62, int a63,
+                         @NotEmpty String b) {
+            super(a0, a1, a2, a3, a4, a5, a6, a7,
+                  a8, a9, a10, a11, a12, a13, a14, a15,
+                  a16, a17, a18, a19, a20, a21, a22, a23,
+                  a24, a25, a26, a27, a28, a29, a30, a31,
+                  a32, a33, a34, a35, a36, a37, a38, a39,
+                  a40, a41, a42, a43, a44, a45, a46, a47,
+                  a48, a49, a50, a51, a52, a53, a54, a55,
+                  a56, a57, a58, a59, a60, a61, a62, a63, b);
+        }
+    }
+
+    @ImmutableBean
+    public static class ImmutableData {
+
+        @PositiveRange(max=10)
+        private final int value;
+
+        public ImmutableData(int value) {
+            this.value = value;
+        }
+    }
+
+    public static class LineItem {
+
+        @PositiveRange(max=100)
+        private final int quantity;
+        @Valid
+        private final Order order;
+
+        public LineItem(int quantity, Order order) {
+            this.quantity = quantity;
+            this.order = order;
+        }
+    }
+
+    public static class Order {
+
+        @NotEmpty
+        private final String name = "";
+        @Valid
+        private final java.util.List<LineItem> items = new java.util.ArrayList<>();
+    }
+
+    public static class BulkOrder extends Order {
+
+        @Valid
+        private final java.util.List<LineItem> items = new java.util.ArrayList<>();
+    }
+
+    public static class MappedOrder {
+
+        private final java.util.Map<String, @Valid LineItem> items = new java.util.LinkedHashMap<>();
+    }
+
     private final Object[] paramsValid = new Object[] { 1, "sample" };
     private final Object[] paramsInvalid = new Object[] { -1, "" };
 
@@ -86,6 +180,30 @@ public class ValidationTests {
         assertBeanViolationCount(2);
     }
 
+    @Test
+    public void testConstrainedChildConstructorValidation() {
+
+        // Parameters violated by both constructors should be reported only once
+        FourthChild fourthChild1 = BeanValidator.constructChild(Parent.class, FourthChild.class, paramsValid);
+        assertBeanViolationCount(0);
+
+        FourthChild fourthChild2 = BeanValidator.constructChild(Parent.class, FourthChild.class, paramsInvalid);
+        assertBeanViolationCount(2);
+
+        // Parent should be constructed only with parameters it declares
+        Parent parent = BeanValidator.constructParent(Parent.class, ThirdChild.class,
+                ArrayUtils.add(paramsInvalid, new ValidationTests()));
+
+        Assertions.assertEquals(Parent.class, parent.getClass());
+        assertBeanViolationCount(2);
+
+        Object[] wideParams = new Object[65];
+        java.util.Arrays.fill(wideParams, 0);
+        wideParams[64] = "";
+        BeanValidator.constructChild(WideParent.class, WideChild.class, wideParams);
+        assertBeanViolationCount(1);
+    }
+
     @Test
     public void testObjectFieldValidation() {
 
@@ -101,6 +219,186 @@ public class ValidationTests {
         ValidationTests.assertBeanViolationCount(5);
     }
 
+    @Test
+    public void testValidatorWarmUp() {
+
+        Assertions.assertDoesNotThrow(() -> BeanValidator.warmUp(Parent.class, ValidationTestClass.class)
+                .get(30, java.util.concurrent.TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testValidationResult() {
+
+        ValidationResult<Parent> validResult = BeanValidator.check(new Parent(1, "sample"));
+        Assertions.assertTrue(validResult.isValid());
+        Assertions.assertSame(ValidationResult.valid(), validResult);
+        Assertions.assertEquals(0, validResult.getViolationCount());
+        assertBeanViolationCount(0);
+
+        ValidationResult<ValidationTestClass> invalidResult = BeanValidator.check(new ValidationTestClass());
+        Assertions.assertFalse(invalidResult.isValid());
+        Assertions.assertEquals(3, invalidResult.getViolations().size());
+        assertBeanViolationCount(3);
+
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> invalidResult.getViolations().clear());
+    }
+
+    @Test
+    public void testImmutableBeanValidation() {
+
+        ImmutableData validData = new ImmutableData(5);
+        Assertions.assertTrue(BeanValidator.check(validData).isValid());
+        Assertions.assertTrue(BeanValidator.check(validData, Default.class).isValid());
+        assertBeanViolationCount(0);
+
+        /* Validated instances are remembered and never validated again */
+        Assertions.assertDoesNotThrow(() -> FieldUtils.writeField(validData, "value", 15, true));
+        Assertions.assertTrue(BeanValidator.check(validData).isValid());
+        Assertions.assertTrue(BeanValidator.check(validData, Default.class).isValid());
+        assertBeanViolationCount(0);
+
+        /* Invalid instances are not remembered and are reported every time */
+        ImmutableData invalidData = new ImmutableData(15);
+        Assertions.assertFalse(BeanValidator.check(invalidData).isValid());
+        assertBeanViolationCount(1);
+        Assertions.assertFalse(BeanValidator.check(invalidData).isValid());
+        assertBeanViolationCount(1);
+    }
+
+    @Test
+    public void testParallelCascadeValidation() {
+
+        Order order = new Order();
+        for (int i = 0; i < 2000; i++) {
+            order.items.add(new LineItem(i % 100 == 0 ? 150 : 10, order));
+        }
+        /* Repeated elements should be validated only once */
+        order.items.add(order.items.get(0));
+
+        ValidationResult<?> sequential = BeanValidator.check(order);
+        Assertions.assertEquals(21, sequential.getViolationCount());
+        assertBeanViolationCount(21);
+
+        ValidationResult<?> parallel = BeanValidator.checkParallel(order, 10, ForkJoinPool.commonPool());
+        Assertions.assertEquals(21, parallel.getViolationCount());
+        assertBeanViolationCount(21);
+
+        /* Root object violations come first followed by elements in order */
+        Assertions.assertSame(order, parallel.getViolations().get(0).getLeafBean());
+        for (int i = 1; i < parallel.getViolationCount(); i++)
+        {
+            ConstraintViolation<?> violation = parallel.getViolations().get(i);
+            Assertions.assertSame(order.items.get((i - 1) * 100), violation.getLeafBean());
+            Assertions.assertSame(order, violation.getRootBean());
+            Assertions.assertEquals("items[" + (i - 1) * 100 + "].quantity", violation.getPropertyPath().toString());
+
+            java.util.Iterator<javax.validation.Path.Node> nodes = violation.getPropertyPath().iterator();
+            Assertions.assertFalse(nodes.next().isInIterable());
+            Assertions.assertEquals((i - 1) * 100, nodes.next().getIndex());
+            Assertions.assertFalse(nodes.hasNext());
+        }
+        /* Element violations are reported with the same paths as sequential ones */
+        java.util.Set<String> paths = new java.util.HashSet<>();
+        sequential.getViolations().forEach(v -> paths.add(v.getPropertyPath().toString()));
+        parallel.getViolations().forEach(v -> Assertions.assertTrue(paths.contains(v.getPropertyPath().toString())));
+
+        /* Map values are reported with their keys */
+        MappedOrder mappedOrder = new MappedOrder();
+        for (int i = 0; i < 20; i++) {
+            mappedOrder.items.put("item" + i, new LineItem(i % 10 == 0 ? 150 : 10, null));
+        }
+        java.util.Set<String> mappedPaths = new java.util.HashSet<>();
+        BeanValidator.check(mappedOrder).getViolations().forEach(v -> mappedPaths.add(v.getPropertyPath().toString()));
+        ValidationResult<?> mappedResult = BeanValidator.checkParallel(mappedOrder, 10, ForkJoinPool.commonPool());
+
+        Assertions.assertEquals(2, mappedResult.getViolationCount());
+        Assertions.assertEquals("items[item0].quantity", mappedResult.getViolations().get(0).getPropertyPath().toString());
+        mappedResult.getViolations().forEach(v -> Assertions.assertTrue(mappedPaths.contains(v.getPropertyPath().toString())));
+        assertBeanViolationCount(4);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BeanValidator.check(null));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BeanValidator.checkParallel(null));
+        /* Containers below threshold are validated sequentially */
+        Assertions.assertEquals(21, BeanValidator.checkParallel(order, 5000, ForkJoinPool.commonPool()).getViolationCount());
+        assertBeanViolationCount(21);
+
+        /* Shadowed containers are never split or skipped */
+        BulkOrder bulkOrder = new BulkOrder();
+        ((Order) bulkOrder).items.add(new LineItem(150, bulkOrder));
+        for (int i = 0; i < 100; i++) {
+            bulkOrder.items.add(new LineItem(i % 10 == 0 ? 150 : 10, bulkOrder));
+        }
+        Assertions.assertEquals(12, BeanValidator.check(bulkOrder).getViolationCount());
+        assertBeanViolationCount(12);
+        Assertions.assertEquals(12, BeanValidator.checkParallel(bulkOrder, 10, ForkJoinPool.commonPool()).getViolationCount());
+        assertBeanViolationCount(12);
+    }
+
+    @Test
+    public void testValidationStatistics() {
+
+        ValidationStatistics statistics = ValidationStatistics.get();
+        ValidationStatistics.register();
+        statistics.reset();
+        statistics.setEnabled(true);
+        try {
+            BeanValidator.check(new ValidationTestClass());
+            BeanValidator.check(new ValidationTestClass());
+            assertBeanViolationCount(6);
+        }
+        finally {
+            statistics.setEnabled(false);
+        }
+        BeanValidator.check(new ValidationTestClass());
+        assertBeanViolationCount(3);
+
+        ValidationStatistics.BeanStatistics beanStatistics =
+                statistics.getBeanStatistics().get(ValidationTestClass.class.getName());
+
+        Assertions.assertEquals(2, beanStatistics.getValidations());
+        Assertions.assertEquals(6, beanStatistics.getViolations());
+        Assertions.assertTrue(beanStatistics.getMaxTime() >= beanStatistics.getMedianTime());
+        Assertions.assertEquals(6, statistics.getConstraintViolations().get(PositiveRange.class.getName()));
+
+        Assertions.assertTrue(java.lang.management.ManagementFactory.getPlatformMBeanServer().isRegistered(
+                Assertions.assertDoesNotThrow(() -> new javax.management.ObjectName(ValidationStatistics.OBJECT_NAME))));
+    }
+
+    @Test
+    public void testImmutableBeanAttributeOverride() throws NoSuchFieldException {
+
+        java.lang.reflect.Field field = ImmutableData.class.getDeclaredField("value");
+        ImmutableData data = new ImmutableData(5);
+        Assertions.assertTrue(BeanValidator.check(data).isValid());
+        try {
+            /* Changing constraint attributes invalidates remembered validation results */
+            AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "max", 2.0);
+            Assertions.assertFalse(BeanValidator.check(data).isValid());
+        }
+        finally {
+            AnnotationUtils.clearAttributeOverrides();
+        }
+        Assertions.assertTrue(BeanValidator.check(data).isValid());
+        assertBeanViolationCount(1);
+    }
+
+    @Test
+    public void testConstraintAttributeOverride() throws NoSuchFieldException {
+
+        java.lang.reflect.Field field = LineItem.class.getDeclaredField("quantity");
+        LineItem item = new LineItem(150, null);
+        Assertions.assertFalse(BeanValidator.check(item).isValid());
+        try {
+            AnnotationUtils.overrideAttributeValue(field, PositiveRange.class, "max", 200.0);
+            Assertions.assertTrue(BeanValidator.check(new LineItem(150, null)).isValid());
+        }
+        finally {
+            AnnotationUtils.clearAttributeOverrides();
+        }
+        Assertions.assertFalse(BeanValidator.check(new LineItem(150, null)).isValid());
+        assertBeanViolationCount(2);
+    }
+
     @Test
     public void testMethodParameterValidation() {
 
@@ -109,6 +407,26 @@ public class ValidationTests {
         ValidationTests.assertBeanViolationCount(2);
     }
 
+    @Test
+    public void testParameterConstraintAttributeOverride() throws NoSuchMethodException {
+
+        java.lang.reflect.Method method = ValidationTests.class.getDeclaredMethod(
+                "callMethodParameterValidation", Object.class, int.class);
+
+        ValidationTests test = AOPProxy.createValidationProxy(new ValidationTests());
+        try {
+            /* The validator reads its own copy of the parameter annotation */
+            AnnotationUtils.overrideAttributeValue(method, 1, PositiveRange.class, "max", 30.0);
+            test.callMethodParameterValidation(new Object(), 20);
+            ValidationTests.assertBeanViolationCount(0);
+        }
+        finally {
+            AnnotationUtils.clearAttributeOverrides();
+        }
+        test.callMethodParameterValidation(new Object(), 20);
+        ValidationTests.assertBeanViolationCount(1);
+    }
+
     @Test
     @SuppressWarnings("unused")
     public void testMethodReturnValueValidation() {